@@ -1571,6 +1571,29 @@ public class Configuration
         this.allowAbstractClasses = allow;
     }
 
+    //
+    // 'compiler.preload-library-scopes' option
+    //
+
+    private boolean preloadLibraryScopes = false;
+
+    public boolean getCompilerPreloadLibraryScopes()
+    {
+        return preloadLibraryScopes;
+    }
+
+    /**
+     * Whether the compiler will decode the library SWFs and build the scopes
+     * of all the definitions in the libraries in parallel when the library
+     * path is set, instead of on demand.
+     */
+    @Config(advanced = true)
+    @Mapping({ "compiler", "preload-library-scopes" })
+    public void setCompilerPreloadLibraryScopes(ConfigurationValue cv, boolean preload)
+    {
+        this.preloadLibraryScopes = preload;
+    }
+
     //
     // 'compiler.allow-private-constructors' option
     //
@@ -136,7 +136,13 @@ public final class ConfigurationBuffer
     public ConfigurationBuffer(ConfigurationBuffer copyFrom, boolean copyCommitted)
     {
         this.configClass = copyFrom.configClass;
-        this.varMap = new HashMap<String, List<ConfigurationValue>>(copyFrom.varMap);
+        this.varMap = new HashMap<String, List<ConfigurationValue>>();
+        for (Map.Entry<String, List<ConfigurationValue>> e : copyFrom.varMap.entrySet())
+        {
+            // the lists are changed in place when a value is set, so they
+            // are not shared with the copy
+            this.varMap.put(e.getKey(), new LinkedList<ConfigurationValue>(e.getValue()));
+        }
         this.committed = copyCommitted ? new HashSet<String>(copyFrom.committed) : new HashSet<String>();
         this.varCache = copyFrom.varCache; // doesn't change after creation
         this.varList = copyFrom.varList; // doesn't change after creation
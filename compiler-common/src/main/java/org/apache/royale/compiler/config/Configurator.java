@@ -29,6 +29,7 @@ import org.apache.royale.compiler.exceptions.ConfigurationException;
 import org.apache.royale.compiler.filespecs.FileSpecification;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
 import org.apache.royale.compiler.internal.config.CompilerProblemSettings;
+import org.apache.royale.compiler.internal.config.ConfigurationCache;
 import org.apache.royale.compiler.internal.config.DefaultsConfigurator;
 import org.apache.royale.compiler.internal.config.FileConfigurator;
 import org.apache.royale.compiler.internal.config.ICompilerSettings;
@@ -285,6 +286,12 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
     protected Collection<ICompilerProblem> configurationProblems;
     private boolean extrasRequireDefaultVariable;
     private IPathResolver configurationPathResolver;
+    private ConfigurationCache configurationCache;
+    
+    /**
+     * The configuration files that were looked for, whether they exist or not.
+     */
+    private List<File> configurationFilesLookedFor = new ArrayList<File>();
     
     protected ICompilerProject project;
 
@@ -457,6 +464,17 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
         this.configurationPathResolver = pathResolver;
     }
 
+    /**
+     * Sets the cache to look up the configuration in before processing it,
+     * and to add it to after processing it. By default, no cache is used.
+     * 
+     * @param configurationCache The cache, or null.
+     */
+    public void setConfigurationCache(ConfigurationCache configurationCache)
+    {
+        this.configurationCache = configurationCache;
+    }
+
     // Needed by MXMLC for now.
     public Configuration getConfiguration()
     {
@@ -693,7 +711,16 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
      */
     protected boolean  processConfiguration(String[] argsArray)
     {
+        final String cacheKey = configurationCache != null ? getConfigurationCacheKey(argsArray) : null;
+        if (cacheKey != null)
+        {
+            final ConfigurationCache.Entry entry = configurationCache.get(cacheKey);
+            if (entry != null && commitCachedConfiguration(entry))
+                return true;
+        }
+
         initializeConfiguration();
+        configurationFilesLookedFor = new ArrayList<File>();
         
         boolean success = true;
 
@@ -753,9 +780,93 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
             success = false;
         }
         
+        // Configurations that failed, or that dump themselves to a file as a
+        // side-effect of being validated, are always processed again.
+        if (success && cacheKey != null && cfgbuf.getVar(ICompilerSettingsConstants.DUMP_CONFIG_VAR) == null)
+        {
+            configurationCache.put(cacheKey, new ConfigurationCache.Entry(cfgbuf,
+                    configurationProblems, getLoadedConfigurationFiles(), getConfigurationCacheFiles()));
+        }
+        
         return success;
     }
 
+    /**
+     * Commits a copy of a cached configuration buffer into a new
+     * configuration, so that the configuration files don't have to be read
+     * and parsed again.
+     * 
+     * @param entry - the cached result of processing the configuration
+     * @return true if successful, false if the configuration has to be
+     * processed again.
+     */
+    private boolean commitCachedConfiguration(ConfigurationCache.Entry entry)
+    {
+        initializeConfiguration();
+        cfgbuf = entry.getConfigurationBuffer();
+
+        // the buffer was committed and validated without problems before, so
+        // committing it again reports the same problems, which the entry has
+        // already recorded along with those found while it was parsed
+        final List<ICompilerProblem> commitProblems = new ArrayList<ICompilerProblem>();
+        try
+        {
+            if (!cfgbuf.commit(configuration, commitProblems))
+                return false;
+            configuration.validate(cfgbuf);
+        }
+        catch (ConfigurationException e)
+        {
+            return false;
+        }
+
+        configurationProblems.addAll(entry.getProblems());
+        loadedConfigFiles = new ArrayList<String>(entry.getLoadedConfigurationFiles());
+        return true;
+    }
+
+    /**
+     * Computes the key of the configuration in the configuration cache. The
+     * key must describe everything that the configuration is built from,
+     * except for the files returned by {@link #getConfigurationCacheFiles()}.
+     * 
+     * @param argsArray - command line arguments
+     * @return The key.
+     */
+    protected String getConfigurationCacheKey(String[] argsArray)
+    {
+        final StringBuilder key = new StringBuilder();
+        key.append(getClass().getName()).append('\n');
+        key.append(configurationClass.getName()).append('\n');
+        key.append(configurationDefaultVariable).append('\n');
+        key.append(reportMissingLibraries).append('\n');
+        key.append(warnOnRoyaleOnlyOptionUsage).append('\n');
+        key.append(configurationPathResolver.getClass().getName()).append('\n');
+        key.append(configurationPathResolver.resolve(".").getPath()).append('\n');
+        // All the system properties become tokens, and some of them options.
+        key.append(new TreeMap<Object, Object>(System.getProperties())).append('\n');
+        for (String arg : argsArray)
+            key.append(arg).append('\n');
+        return key.toString();
+    }
+
+    /**
+     * @return The files the configuration was built from: the configuration
+     * files that were looked for, whether they were found or not, and the
+     * manifests of the namespaces.
+     */
+    protected List<File> getConfigurationCacheFiles()
+    {
+        final List<File> files = new ArrayList<File>(configurationFilesLookedFor);
+        final List<? extends IMXMLNamespaceMapping> mappings = configuration.getCompilerNamespacesManifestMappings();
+        if (mappings != null)
+        {
+            for (IMXMLNamespaceMapping mapping : mappings)
+                files.add(new File(mapping.getManifestFileName()));
+        }
+        return files;
+    }
+
     /**
      * Load the default values into the passed in config buffer
      * @param cfgbuf                    the config buffer to set the default values in
@@ -872,9 +983,11 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
                     for (String path : cv.getArgs())
                     {
                         File configFile = configurationPathResolver.resolve(path);
+                        configurationFilesLookedFor.add(configFile);
                         if (!configFile.exists() && path.contains("royale-config"))
                         {
                         	File configFile2 = configurationPathResolver.resolve(path.replace("royale-config", "flex-config"));
+                        	configurationFilesLookedFor.add(configFile2);
                         	if (configFile2.exists())
                         		configFile = configFile2;
                         }
@@ -983,6 +1096,7 @@ public class Configurator implements ICompilerSettings, IConfigurator, ICompiler
                 {
                     String project = val.substring(0, index) + "-config.xml";
                     File projectFile = configurationPathResolver.resolve(project);
+                    configurationFilesLookedFor.add(projectFile);
                     if (projectFile.exists())
                     {
                         if (!loadConfigFromFile(
@@ -0,0 +1,308 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.royale.compiler.config.Configuration;
+import org.apache.royale.compiler.config.ConfigurationBuffer;
+import org.apache.royale.compiler.problems.ICompilerProblem;
+
+/**
+ * Remembers the committed configuration buffers of recent compilations, so
+ * that a compilation with the same arguments and configuration files doesn't
+ * have to read and parse those files again.
+ * <p>
+ * An entry is identified by a key that describes everything the
+ * configuration was built from other than files, such as the command line
+ * arguments and the configuration class, together with the fingerprints of
+ * the configuration files that contributed to it. Several entries with the
+ * same key and different fingerprints are kept, so switching a configuration
+ * file back and forth doesn't parse it every time. A file whose timestamp
+ * and length match the fingerprint is assumed unchanged. Otherwise its
+ * contents are compared with the digest in the fingerprint, so a file that
+ * was only touched still matches.
+ * <p>
+ * Entries hold a copy of the buffer, and hand out a new copy each time, so
+ * every compilation commits its own {@link Configuration} and may change it
+ * without affecting the others.
+ * <p>
+ * The cache holds at most a fixed number of keys, and drops the least
+ * recently used one first. It is meant to be owned by something that lives
+ * as long as the compilations that share it, like a shared workspace.
+ */
+public class ConfigurationCache
+{
+    /**
+     * The number of keys kept by a cache created with the default
+     * constructor.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 8;
+
+    /**
+     * The number of entries with different fingerprints kept for each key.
+     */
+    private static final int MAX_ENTRIES_PER_KEY = 4;
+
+    /**
+     * The result of processing a configuration.
+     */
+    public static final class Entry
+    {
+        /**
+         * Constructor.
+         *
+         * @param buffer The buffer the configuration was committed from. The
+         * entry keeps a copy of it.
+         * @param problems The problems found while processing the
+         * configuration.
+         * @param loadedConfigFiles The configuration files that were loaded,
+         * as reported by {@code Configurator.getLoadedConfigurationFiles()}.
+         * @param files The files the configuration was built from. Their
+         * fingerprints are taken when the entry is created.
+         */
+        public Entry(ConfigurationBuffer buffer, Collection<ICompilerProblem> problems,
+                     List<String> loadedConfigFiles, Collection<File> files)
+        {
+            this.buffer = buffer != null ? new ConfigurationBuffer(buffer, false) : null;
+            this.problems = Collections.unmodifiableList(new ArrayList<ICompilerProblem>(problems));
+            this.loadedConfigFiles = Collections.unmodifiableList(new ArrayList<String>(loadedConfigFiles));
+            this.files = new ArrayList<FileState>(files.size());
+            for (File file : files)
+                this.files.add(new FileState(file));
+        }
+
+        private final ConfigurationBuffer buffer;
+        private final List<ICompilerProblem> problems;
+        private final List<String> loadedConfigFiles;
+        private final List<FileState> files;
+
+        /**
+         * @return A new copy of the buffer the configuration was committed
+         * from, with none of its variables committed yet.
+         */
+        public ConfigurationBuffer getConfigurationBuffer()
+        {
+            return new ConfigurationBuffer(buffer, false);
+        }
+
+        public List<ICompilerProblem> getProblems()
+        {
+            return problems;
+        }
+
+        public List<String> getLoadedConfigurationFiles()
+        {
+            return loadedConfigFiles;
+        }
+
+        private boolean matchesFiles()
+        {
+            for (FileState file : files)
+            {
+                if (!file.isUpToDate())
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What a file looked like when the configuration was built from it.
+     */
+    private static final class FileState
+    {
+        FileState(File file)
+        {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.digest = digest(file);
+        }
+
+        private final File file;
+        private long lastModified;
+        private long length;
+
+        /**
+         * The digest of the contents, or null if the file couldn't be read.
+         */
+        private final byte[] digest;
+
+        boolean isUpToDate()
+        {
+            final long newLastModified = file.lastModified();
+            final long newLength = file.length();
+            if (newLastModified == lastModified && newLength == length)
+                return true;
+            if (digest == null || newLength != length || !Arrays.equals(digest, digest(file)))
+                return false;
+            // the file was only touched, so don't read it again next time
+            lastModified = newLastModified;
+            return true;
+        }
+
+        private static byte[] digest(File file)
+        {
+            if (!file.isFile())
+                return null;
+            try
+            {
+                return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()));
+            }
+            catch (IOException e)
+            {
+                return null;
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                // every Java platform supports SHA-256
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public ConfigurationCache()
+    {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries The number of keys to keep.
+     */
+    public ConfigurationCache(final int maxEntries)
+    {
+        entries = new LinkedHashMap<String, List<Entry>>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Entry>> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private final LinkedHashMap<String, List<Entry>> entries;
+    private int hits;
+    private int misses;
+
+    /**
+     * @param key The key the entry was added with.
+     * @return The most recently added entry with that key whose files match
+     * their fingerprints, or null if there is none.
+     */
+    public synchronized Entry get(String key)
+    {
+        final List<Entry> candidates = entries.get(key);
+        if (candidates != null)
+        {
+            for (Entry entry : candidates)
+            {
+                if (entry.matchesFiles())
+                {
+                    hits++;
+                    return entry;
+                }
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Adds an entry. Entries with the same key are kept as long as their
+     * files don't match the same fingerprints.
+     */
+    public synchronized void put(String key, Entry entry)
+    {
+        List<Entry> candidates = entries.get(key);
+        if (candidates == null)
+        {
+            candidates = new LinkedList<Entry>();
+            entries.put(key, candidates);
+        }
+        // an entry that still matches its files describes the same files as
+        // the new one, so it is replaced
+        for (Iterator<Entry> it = candidates.iterator(); it.hasNext();)
+        {
+            if (it.next().matchesFiles())
+                it.remove();
+        }
+        candidates.add(0, entry);
+        if (candidates.size() > MAX_ENTRIES_PER_KEY)
+            candidates.remove(candidates.size() - 1);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public synchronized int size()
+    {
+        int size = 0;
+        for (List<Entry> candidates : entries.values())
+            size += candidates.size();
+        return size;
+    }
+
+    /**
+     * @return The number of calls to {@link #get(String)} that returned an
+     * entry.
+     */
+    public synchronized int getHitCount()
+    {
+        return hits;
+    }
+
+    /**
+     * @return The number of calls to {@link #get(String)} that returned null.
+     */
+    public synchronized int getMissCount()
+    {
+        return misses;
+    }
+}
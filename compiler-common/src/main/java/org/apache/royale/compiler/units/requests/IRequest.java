@@ -19,6 +19,8 @@
 
 package org.apache.royale.compiler.units.requests;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * Interface to all request objects obtained from methods on ICompilationUnit.
  * 
@@ -42,6 +44,25 @@ public interface IRequest<T extends IRequestResult, U>
      */
     boolean isDone();
 
+    /**
+     * Returns a stage that completes with the result of the request, so that
+     * work that depends on the result can be chained to it instead of blocking
+     * a thread in {@link #get()}.
+     * <p>
+     * Completing the returned stage does not complete the request.
+     * <p>
+     * The default implementation throws UnsupportedOperationException, as the
+     * only way to implement this method without blocking a thread is for the
+     * request to complete the stage itself.
+     * 
+     * @return A stage that completes when the requested operation is complete.
+     * @throws UnsupportedOperationException if the request does not support it.
+     */
+    default CompletionStage<T> toCompletionStage()
+    {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Returns the time at which the request was first created. Consumers of the
      * result of this request can use this time to determine if their cached
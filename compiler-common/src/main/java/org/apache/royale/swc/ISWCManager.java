@@ -20,6 +20,8 @@
 package org.apache.royale.swc;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.royale.compiler.caches.IAssetTagCache;
 import org.apache.royale.compiler.caches.ICSSDocumentCache;
@@ -42,6 +44,21 @@ public interface ISWCManager
      */
     ISWC get(File file);
 
+    /**
+     * Loads the given SWC files concurrently, so that later calls to
+     * {@link #get(File)} find them in the cache. The default implementation
+     * does nothing, since preloading is only an optimization.
+     * 
+     * @param files SWC files to load.
+     * @param includeLibraries true if the library SWFs should be decoded and
+     * the file scopes of their scripts built as well, instead of on demand.
+     * @param executor executor to run the work on.
+     * @throws InterruptedException
+     */
+    default void preload(Collection<File> files, boolean includeLibraries, ExecutorService executor) throws InterruptedException
+    {
+    }
+
     /**
      * Removes an existing SWC file from the cache
      * 
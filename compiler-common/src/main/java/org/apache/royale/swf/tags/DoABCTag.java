@@ -19,6 +19,8 @@
 
 package org.apache.royale.swf.tags;
 
+import java.util.Arrays;
+
 import org.apache.royale.swf.TagType;
 
 /**
@@ -41,16 +43,30 @@ public final class DoABCTag extends Tag
      * Constructor and initializer.
      */
     public DoABCTag(long flags, String name, byte[] abcData)
+    {
+        this(flags, name, abcData, 0, abcData.length);
+    }
+
+    /**
+     * Constructor and initializer for a tag whose bytecode is a range of a
+     * larger array, such as the body of the SWF it was read from. The array
+     * is not copied.
+     */
+    public DoABCTag(long flags, String name, byte[] buffer, int offset, int length)
     {
         this();
         this.flags = flags;
         this.name = name;
-        this.abcData = abcData;
+        this.abcData = buffer;
+        this.abcOffset = offset;
+        this.abcLength = length;
     }
 
     private long flags;
     private String name;
     private byte[] abcData;
+    private int abcOffset;
+    private int abcLength;
 
     /**
      * A 32-bit flags value, which may contain the following bits set:
@@ -100,14 +116,50 @@ public final class DoABCTag extends Tag
     /**
      * A block of .abc bytecode to be parsed by the ActionScript 3.0 virtual
      * machine, up to the end of the tag.
+     * <p>
+     * If the bytecode is a range of a larger array, a copy of the range is
+     * returned. Clients that can read a range should use
+     * {@link #getABCDataBuffer()} instead.
      * 
      * @return ABC bytes
      */
     public byte[] getABCData()
+    {
+        if (abcData == null || (abcOffset == 0 && abcLength == abcData.length))
+            return abcData;
+        return Arrays.copyOfRange(abcData, abcOffset, abcOffset + abcLength);
+    }
+
+    /**
+     * The array that holds the bytecode, which may be larger than the
+     * bytecode.
+     * 
+     * @return the array that holds the bytecode
+     * @see #getABCDataOffset()
+     * @see #getABCDataLength()
+     */
+    public byte[] getABCDataBuffer()
     {
         return abcData;
     }
 
+    /**
+     * @return index of the first byte of the bytecode in
+     * {@link #getABCDataBuffer()}
+     */
+    public int getABCDataOffset()
+    {
+        return abcOffset;
+    }
+
+    /**
+     * @return number of bytes of bytecode
+     */
+    public int getABCDataLength()
+    {
+        return abcLength;
+    }
+
     /**
      * Set the ABC bytecode.
      * 
@@ -116,12 +168,14 @@ public final class DoABCTag extends Tag
     public void setABCData(byte[] abcData)
     {
         this.abcData = abcData;
+        this.abcOffset = 0;
+        this.abcLength = abcData != null ? abcData.length : 0;
     }
 
     @Override
     protected String description()
     {
-        return String.format("\"%s\", %.2f kb", name, abcData.length / 1024f);
+        return String.format("\"%s\", %.2f kb", name, abcLength / 1024f);
     }
 
 }
@@ -221,6 +221,10 @@ public class EXTERNC implements FlexTool
 
     public void cleanOutput() throws IOException
     {
+        // an incremental build keeps the files that are still up to date, and
+        // the emitter deletes the others
+        if (configuration.isIncremental())
+            return;
         FileUtils.deleteDirectory(configuration.getAsRoot());
     }
 
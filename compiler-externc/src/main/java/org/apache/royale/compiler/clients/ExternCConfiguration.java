@@ -65,6 +65,9 @@ public class ExternCConfiguration extends Configuration
     private List<ReadOnlyMember> readonly = new ArrayList<ReadOnlyMember>();
     private List<TrueConstant> trueConstants = new ArrayList<TrueConstant>();
 
+    private int threads = 1;
+    private boolean incremental = false;
+
     public ExternCConfiguration()
     {
     }
@@ -373,6 +376,73 @@ public class ExternCConfiguration extends Configuration
         this.jsRoot = new File(filename);
     }
 
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    @Config(advanced = true)
+    @Mapping("threads")
+    public void setThreads(ConfigurationValue cfgval, int threads)
+    {
+        setThreads(threads);
+    }
+
+    public void setThreads(int threads)
+    {
+        this.threads = threads;
+    }
+
+    public boolean isIncremental()
+    {
+        return incremental;
+    }
+
+    @Config(advanced = true)
+    @Mapping("incremental")
+    public void setIncremental(ConfigurationValue cfgval, boolean incremental)
+    {
+        setIncremental(incremental);
+    }
+
+    public void setIncremental(boolean incremental)
+    {
+        this.incremental = incremental;
+    }
+
+    /**
+     * @return A string that changes whenever one of the options that affect
+     *         the generated code changes, so that an incremental build knows
+     *         that it needs to generate everything again.
+     */
+    public String getSettingsKey()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("as-root=").append(asRoot).append("\n");
+        sb.append("js-root=").append(jsRoot).append("\n");
+        for (TypedefFile file : typedefs)
+            sb.append("typedefs=").append(file.getFile().getAbsolutePath()).append("\n");
+        for (TypedefFile file : externalTypedefs)
+            sb.append("external-typedefs=").append(file.getFile().getAbsolutePath()).append("\n");
+        for (String moduleName : namedModules)
+            sb.append("named-module=").append(moduleName).append("\n");
+        for (String className : classToFunctions)
+            sb.append("class-to-function=").append(className).append("\n");
+        for (ExcludedMember member : excludesClass)
+            sb.append("class-exclude=").append(member.getClassName()).append("\n");
+        for (ExcludedMember member : excludesField)
+            sb.append("field-exclude=").append(member.getClassName()).append(",").append(member.getName()).append("\n");
+        for (ExcludedMember member : excludes)
+            sb.append("exclude=").append(member.getClassName()).append(",").append(member.getName())
+                    .append(",").append(member.getDescription()).append("\n");
+        for (ReadOnlyMember member : readonly)
+            sb.append("field-readonly=").append(member.getClassName()).append(",").append(member.getName()).append("\n");
+        for (TrueConstant constant : trueConstants)
+            sb.append("true-constant=").append(constant.getClassName()).append(",").append(constant.getName())
+                    .append(",").append(constant.getValue()).append("\n");
+        return sb.toString();
+    }
+
     @Config(allowMultiple = true)
     @Mapping("field-readonly")
     @Arguments({"class", "name"})
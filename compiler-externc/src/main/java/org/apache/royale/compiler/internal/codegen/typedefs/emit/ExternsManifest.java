@@ -0,0 +1,205 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.codegen.typedefs.emit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Records what an incremental run of the emitter generated, so that the next
+ * run can skip the references whose typedef files haven't changed.
+ * <p>
+ * The first line of the file is a hash of the configuration and of the names
+ * of all references in the model. If it changes, everything is generated
+ * again. It is followed by one line for each typedef file, with its hash, and
+ * one line for each generated file, with the key of its reference, its path
+ * and the typedef files that it depends on.
+ */
+public class ExternsManifest
+{
+    private static final String INPUT = "input";
+    private static final String OUTPUT = "output";
+
+    private File file;
+    private String modelHash;
+
+    private Map<String, String> inputHashes = new HashMap<String, String>();
+    private Map<String, Output> outputs = new HashMap<String, Output>();
+
+    public ExternsManifest(File file, String modelHash)
+    {
+        this.file = file;
+        this.modelHash = modelHash;
+    }
+
+    public static String hash(String text)
+    {
+        return Hashing.sha256().hashString(text, StandardCharsets.UTF_8).toString();
+    }
+
+    public static String hash(File file) throws IOException
+    {
+        return Hashing.sha256().hashBytes(FileUtils.readFileToByteArray(file)).toString();
+    }
+
+    /**
+     * Reads the manifest of the previous run.
+     *
+     * @return false if there is no manifest, or if it was written for a
+     *         different configuration or set of references.
+     */
+    public boolean load()
+    {
+        inputHashes.clear();
+        outputs.clear();
+        if (!file.isFile())
+            return false;
+
+        List<String> lines;
+        try
+        {
+            lines = FileUtils.readLines(file, "utf8");
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+        if (lines.size() == 0 || !modelHash.equals(lines.get(0)))
+            return false;
+
+        for (int i = 1; i < lines.size(); i++)
+        {
+            String[] fields = lines.get(i).split("\t");
+            if (fields[0].equals(INPUT) && fields.length == 3)
+            {
+                inputHashes.put(fields[2], fields[1]);
+            }
+            else if (fields[0].equals(OUTPUT) && fields.length >= 3)
+            {
+                List<String> sources = Arrays.asList(fields).subList(3, fields.length);
+                outputs.put(fields[1], new Output(new File(fields[2]), sources));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the manifest, sorted so that it doesn't depend on the order that
+     * the references were emitted in.
+     */
+    public void save() throws IOException
+    {
+        List<String> lines = new ArrayList<String>();
+        lines.add(modelHash);
+        for (Map.Entry<String, String> entry : new TreeMap<String, String>(inputHashes).entrySet())
+        {
+            lines.add(INPUT + "\t" + entry.getValue() + "\t" + entry.getKey());
+        }
+        for (Map.Entry<String, Output> entry : new TreeMap<String, Output>(outputs).entrySet())
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append(OUTPUT).append("\t").append(entry.getKey());
+            sb.append("\t").append(entry.getValue().file.getPath());
+            for (String source : entry.getValue().sources)
+            {
+                sb.append("\t").append(source);
+            }
+            lines.add(sb.toString());
+        }
+        FileUtils.writeLines(file, "utf8", lines, "\n");
+    }
+
+    public void delete()
+    {
+        FileUtils.deleteQuietly(file);
+    }
+
+    public String getInputHash(String sourceName)
+    {
+        return inputHashes.get(sourceName);
+    }
+
+    public void setInputHash(String sourceName, String hash)
+    {
+        inputHashes.put(sourceName, hash);
+    }
+
+    public Collection<String> getOutputKeys()
+    {
+        return Collections.unmodifiableCollection(outputs.keySet());
+    }
+
+    /**
+     * @return The file that was generated for the reference with the
+     *         specified key, or null if there is none.
+     */
+    public File getOutputFile(String key)
+    {
+        Output output = outputs.get(key);
+        return output != null ? output.file : null;
+    }
+
+    /**
+     * @return The typedef files that the file generated for the reference
+     *         with the specified key depends on.
+     */
+    public Collection<String> getOutputSources(String key)
+    {
+        Output output = outputs.get(key);
+        if (output == null)
+            return Collections.emptyList();
+        return output.sources;
+    }
+
+    public void setOutput(String key, File file, Collection<String> sources)
+    {
+        outputs.put(key, new Output(file, new ArrayList<String>(sources)));
+    }
+
+    public void clearOutputs()
+    {
+        outputs.clear();
+    }
+
+    private static class Output
+    {
+        private File file;
+        private Collection<String> sources;
+
+        public Output(File file, Collection<String> sources)
+        {
+            this.file = file;
+            this.sources = sources;
+        }
+    }
+}
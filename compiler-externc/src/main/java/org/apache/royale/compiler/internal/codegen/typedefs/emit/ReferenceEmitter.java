@@ -21,8 +21,24 @@ package org.apache.royale.compiler.internal.codegen.typedefs.emit;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.royale.compiler.clients.ExternCConfiguration;
+import org.apache.royale.compiler.common.VersionInfo;
+import org.apache.royale.compiler.internal.codegen.typedefs.pass.ReferenceCompiler.TypedefFile;
 import org.apache.royale.compiler.internal.codegen.typedefs.reference.BaseReference;
 import org.apache.royale.compiler.internal.codegen.typedefs.reference.ClassReference;
 import org.apache.royale.compiler.internal.codegen.typedefs.reference.ConstantReference;
@@ -32,10 +48,42 @@ import org.apache.royale.compiler.internal.codegen.typedefs.reference.ReferenceM
 import com.google.javascript.rhino.JSDocInfo;
 import com.google.javascript.rhino.jstype.JSType;
 
+/**
+ * Writes one file for each class, interface, typedef, function and constant
+ * in the model.
+ * <p>
+ * With more than one thread, the references are emitted in parallel, while
+ * the files are written in the same order as with a single thread, so that
+ * the output is the same.
+ * <p>
+ * In incremental mode, a manifest of the typedef files is kept next to the
+ * generated files, and only the references that depend on a typedef file
+ * that changed are emitted again. A reference depends on its own typedef
+ * file, the typedef files of its super classes and interfaces, and the
+ * typedef files that declare the typedefs that were resolved while it was
+ * emitted, because typedefs are replaced with their types in the generated
+ * code.
+ * <p>
+ * The references share the model while they are emitted in parallel. Once
+ * the model is built, its references are only read, except for the state
+ * that the emitter prepares before emitting, like the packages that classes
+ * define. Evaluating types and reporting problems are synchronized on the
+ * model, because the closure type registry and the problems aren't thread
+ * safe. Code that emits a reference must therefore go through the model to
+ * evaluate types, and must not modify other references.
+ */
 public class ReferenceEmitter
 {
+    private static final String MANIFEST_FILE_NAME = ".externc-manifest";
+
+    // how many references may be emitted ahead of the file that is being
+    // written, for each thread
+    private static final int EMIT_AHEAD = 4;
+
     private ReferenceModel model;
 
+    private List<Output> outputs;
+
     public ReferenceEmitter(ReferenceModel model)
     {
         this.model = model;
@@ -47,16 +95,40 @@ public class ReferenceEmitter
         if (!asRoot.exists())
             asRoot.mkdirs();
 
-        emitClasses();
-        emitInterfaces();
-        emitTypedefs();
-        emitFunctions();
-        emitConstants();
+        outputs = new ArrayList<Output>();
+        collectClasses();
+        collectInterfaces();
+        collectTypedefs();
+        collectFunctions();
+        collectConstants();
+
+        // decide which classes define their packages before they are
+        // emitted, in case they are emitted in parallel
+        for (Output output : outputs)
+        {
+            if (output.reference instanceof ClassReference)
+                ((ClassReference) output.reference).reservePackage();
+        }
+
+        ExternsManifest manifest = null;
+        if (model.getConfiguration().isIncremental())
+            manifest = loadManifest();
+
+        writeOutputs(manifest != null);
+
+        if (manifest != null)
+        {
+            for (Output output : outputs)
+            {
+                manifest.setOutput(output.getKey(), output.file, output.sources);
+            }
+            manifest.save();
+        }
+        outputs = null;
     }
 
-    protected void emitInterfaces() throws IOException
+    protected void collectInterfaces()
     {
-        final StringBuilder sb = new StringBuilder();
         for (ClassReference reference : model.getClasses())
         {
             if (model.isExcludedClass(reference) != null)
@@ -68,22 +140,12 @@ public class ReferenceEmitter
             if (model.getConfiguration().isExternalTypedef(reference))
                 continue;
 
-            emit(reference, sb);
-
-            File sourceFile = reference.getFile(model.getConfiguration().getAsInterfaceRoot());
-            if(sourceFile.exists())
-            {
-                sourceFile = reference.getFile(model.getConfiguration().getAsDuplicatesRoot());
-            }
-            FileUtils.write(sourceFile, sb.toString());
-
-            sb.setLength(0);
+            outputs.add(new Output(reference, model.getConfiguration().getAsInterfaceRoot()));
         }
     }
 
-    protected void emitClasses() throws IOException
+    protected void collectClasses()
     {
-        final StringBuilder sb = new StringBuilder();
         for (ClassReference reference : model.getClasses())
         {
             if (model.isExcludedClass(reference) != null)
@@ -95,22 +157,12 @@ public class ReferenceEmitter
             if (model.getConfiguration().isExternalTypedef(reference))
                 continue;
             
-            emit(reference, sb);
-
-            File sourceFile = reference.getFile(model.getConfiguration().getAsClassRoot());
-            if(sourceFile.exists())
-            {
-                sourceFile = reference.getFile(model.getConfiguration().getAsDuplicatesRoot());
-            }
-            FileUtils.write(sourceFile, sb.toString());
-
-            sb.setLength(0);
+            outputs.add(new Output(reference, model.getConfiguration().getAsClassRoot()));
         }
     }
 
-    protected void emitTypedefs() throws IOException
+    protected void collectTypedefs()
     {
-        final StringBuilder sb = new StringBuilder();
         // TODO figure out how to resolve/emit @typedef
         for (ClassReference reference : model.getTypedefs())
         {
@@ -133,22 +185,12 @@ public class ReferenceEmitter
                 }
             }
 
-            emit(reference, sb);
-
-            File sourceFile = reference.getFile(model.getConfiguration().getAsTypeDefRoot());
-            if(sourceFile.exists())
-            {
-                sourceFile = reference.getFile(model.getConfiguration().getAsDuplicatesRoot());
-            }
-            FileUtils.write(sourceFile, sb.toString());
-
-            sb.setLength(0);
+            outputs.add(new Output(reference, model.getConfiguration().getAsTypeDefRoot()));
         }
     }
 
-    protected void emitFunctions() throws IOException
+    protected void collectFunctions()
     {
-        final StringBuilder sb = new StringBuilder();
         for (FunctionReference reference : model.getFunctions())
         {
             if (model.isExcludedClass(reference) != null)
@@ -157,38 +199,265 @@ public class ReferenceEmitter
             if (model.getConfiguration().isExternalTypedef(reference))
                 continue;
             
-            emit(reference, sb);
+            outputs.add(new Output(reference, model.getConfiguration().getAsFunctionRoot()));
+        }
+    }
 
-            File sourceFile = reference.getFile(model.getConfiguration().getAsFunctionRoot());
-            if(sourceFile.exists())
+    protected void collectConstants()
+    {
+        for (ConstantReference reference : model.getConstants())
+        {
+            if (model.getConfiguration().isExternalTypedef(reference))
+                continue;
+            
+            outputs.add(new Output(reference, model.getConfiguration().getAsConstantRoot()));
+        }
+    }
+
+    /**
+     * Emits the references that aren't up to date, and writes their files in
+     * order. A file that would overwrite one that was already written goes to
+     * the duplicates folder instead.
+     *
+     * @param recordSources Whether to add the typedef files of the typedefs
+     *        that each reference resolves to the sources of its output.
+     */
+    private void writeOutputs(final boolean recordSources) throws IOException
+    {
+        final List<Output> pending = new ArrayList<Output>();
+        for (Output output : outputs)
+        {
+            if (output.file == null)
+                pending.add(output);
+        }
+
+        final int threads = model.getConfiguration().getThreads();
+        ExecutorService executor = null;
+        if (threads > 1 && pending.size() > 1)
+            executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            int submitted = 0;
+            for (int i = 0; i < pending.size(); i++)
             {
-                sourceFile = reference.getFile(model.getConfiguration().getAsDuplicatesRoot());
+                final Output output = pending.get(i);
+                String text;
+                if (executor != null)
+                {
+                    while (submitted < pending.size() && submitted <= i + threads * EMIT_AHEAD)
+                    {
+                        final Output submittedOutput = pending.get(submitted);
+                        submittedOutput.text = executor.submit(new Callable<String>()
+                        {
+                            @Override
+                            public String call()
+                            {
+                                return emit(submittedOutput, recordSources);
+                            }
+                        });
+                        submitted++;
+                    }
+                    text = getText(output);
+                }
+                else
+                {
+                    text = emit(output, recordSources);
+                }
+
+                File sourceFile = output.getFile(output.root);
+                if(sourceFile.exists())
+                {
+                    sourceFile = output.getFile(model.getConfiguration().getAsDuplicatesRoot());
+                }
+                FileUtils.write(sourceFile, text);
+                output.file = sourceFile;
             }
-            FileUtils.write(sourceFile, sb.toString());
+        }
+        finally
+        {
+            if (executor != null)
+                executor.shutdownNow();
+        }
+    }
 
-            sb.setLength(0);
+    private String emit(Output output, boolean recordSources)
+    {
+        if (!recordSources)
+            return emit(output.reference);
+
+        model.startRecordingTypedefSources();
+        try
+        {
+            return emit(output.reference);
+        }
+        finally
+        {
+            // read by the writing thread after the emitted text
+            output.sources.addAll(model.stopRecordingTypedefSources());
         }
     }
 
-    protected void emitConstants() throws IOException
+    private String getText(Output output) throws IOException
     {
-        final StringBuilder sb = new StringBuilder();
-        for (ConstantReference reference : model.getConstants())
+        try
         {
-            if (model.getConfiguration().isExternalTypedef(reference))
+            return output.text.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+        finally
+        {
+            output.text = null;
+        }
+    }
+
+    /**
+     * Reads the manifest of the previous incremental run, and finds the files
+     * that are still up to date. The files of references that need to be
+     * emitted again, or that no longer exist, are deleted. If the manifest is
+     * missing, or was written for a different configuration or set of
+     * references, the whole output folder is cleaned.
+     */
+    private ExternsManifest loadManifest() throws IOException
+    {
+        final ExternCConfiguration configuration = model.getConfiguration();
+        final File asRoot = configuration.getAsRoot();
+
+        ExternsManifest manifest = new ExternsManifest(new File(asRoot, MANIFEST_FILE_NAME), getModelHash());
+        boolean loaded = manifest.load();
+
+        final Map<String, String> inputHashes = new HashMap<String, String>();
+        final List<TypedefFile> typedefFiles = new ArrayList<TypedefFile>(configuration.getTypedefs());
+        typedefFiles.addAll(configuration.getTypedefTypedefs());
+        for (TypedefFile typedefFile : typedefFiles)
+        {
+            inputHashes.put("[" + typedefFile.getName() + "]", ExternsManifest.hash(typedefFile.getFile()));
+        }
+
+        final Set<String> keys = new HashSet<String>();
+        for (Output output : outputs)
+        {
+            keys.add(output.getKey());
+            output.sources = getDeclarationSources(output.reference);
+            if (!loaded)
                 continue;
-            
-            emit(reference, sb);
 
-            File sourceFile = reference.getFile(model.getConfiguration().getAsConstantRoot());
-            if(sourceFile.exists())
+            File previousFile = manifest.getOutputFile(output.getKey());
+            if (previousFile == null)
+                continue;
+
+            // the typedefs that the reference resolved when it was emitted
+            // are only known from the previous run
+            boolean upToDate = previousFile.exists();
+            Set<String> sources = new LinkedHashSet<String>(output.sources);
+            sources.addAll(manifest.getOutputSources(output.getKey()));
+            for (String source : sources)
+            {
+                String hash = inputHashes.get(source);
+                if (hash == null || !hash.equals(manifest.getInputHash(source)))
+                {
+                    upToDate = false;
+                    break;
+                }
+            }
+            if (upToDate)
+            {
+                output.file = previousFile;
+                output.sources = sources;
+            }
+            else
+                FileUtils.deleteQuietly(previousFile);
+        }
+
+        if (loaded)
+        {
+            for (String key : manifest.getOutputKeys())
             {
-                sourceFile = reference.getFile(model.getConfiguration().getAsDuplicatesRoot());
+                if (!keys.contains(key))
+                    FileUtils.deleteQuietly(manifest.getOutputFile(key));
             }
-            FileUtils.write(sourceFile, sb.toString());
+        }
+        else
+        {
+            FileUtils.deleteDirectory(asRoot);
+            asRoot.mkdirs();
+        }
 
-            sb.setLength(0);
+        // an interrupted run must not leave a manifest behind that claims
+        // that the deleted files are up to date
+        manifest.delete();
+        manifest.clearOutputs();
+        for (Map.Entry<String, String> entry : inputHashes.entrySet())
+        {
+            manifest.setInputHash(entry.getKey(), entry.getValue());
+        }
+        return manifest;
+    }
+
+    /**
+     * A hash of the configuration and of the names of all references, because
+     * adding or removing a reference may change the imports of the others.
+     */
+    private String getModelHash()
+    {
+        final List<String> names = new ArrayList<String>();
+        for (ClassReference reference : model.getClasses())
+            names.add((reference.isInterface() ? "interface " : "class ") + reference.getQualifiedName());
+        for (ClassReference reference : model.getTypedefs())
+            names.add("typedef " + reference.getQualifiedName());
+        for (FunctionReference reference : model.getFunctions())
+            names.add("function " + reference.getQualifiedName());
+        for (ConstantReference reference : model.getConstants())
+            names.add("const " + reference.getQualifiedName());
+        Collections.sort(names);
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(VersionInfo.buildMessage()).append("\n");
+        sb.append(model.getConfiguration().getSettingsKey());
+        for (String name : names)
+        {
+            sb.append(name).append("\n");
+        }
+        return ExternsManifest.hash(sb.toString());
+    }
+
+    /**
+     * @return The typedef files that declare a reference and its super
+     *         classes and interfaces. The typedef files of the typedefs that
+     *         it uses are recorded while it is emitted.
+     */
+    private Set<String> getDeclarationSources(BaseReference reference)
+    {
+        final Set<String> sources = new LinkedHashSet<String>();
+        sources.add(reference.getNode().getSourceFileName());
+        if (reference instanceof ClassReference && reference.getComment() != null)
+        {
+            final Set<ClassReference> visited = new HashSet<ClassReference>();
+            final List<ClassReference> queue = new ArrayList<ClassReference>();
+            queue.add((ClassReference) reference);
+            while (queue.size() > 0)
+            {
+                ClassReference classReference = queue.remove(queue.size() - 1);
+                if (!visited.add(classReference) || classReference.getComment() == null)
+                    continue;
+                sources.add(classReference.getNode().getSourceFileName());
+                queue.addAll(classReference.getSuperClasses());
+                queue.addAll(classReference.getAllImplInterfaces());
+            }
         }
+        return sources;
     }
 
     public void emit(BaseReference reference, StringBuilder sb)
@@ -202,4 +471,33 @@ public class ReferenceEmitter
         reference.emit(sb);
         return sb.toString();
     }
+
+    private static class Output
+    {
+        private BaseReference reference;
+        private File root;
+        private File file;
+        private Set<String> sources;
+        private Future<String> text;
+
+        public Output(BaseReference reference, File root)
+        {
+            this.reference = reference;
+            this.root = root;
+        }
+
+        public String getKey()
+        {
+            return root.getName() + ":" + reference.getQualifiedName();
+        }
+
+        public File getFile(File asSourceRoot)
+        {
+            if (reference instanceof ClassReference)
+                return ((ClassReference) reference).getFile(asSourceRoot);
+            if (reference instanceof FunctionReference)
+                return ((FunctionReference) reference).getFile(asSourceRoot);
+            return ((ConstantReference) reference).getFile(asSourceRoot);
+        }
+    }
 }
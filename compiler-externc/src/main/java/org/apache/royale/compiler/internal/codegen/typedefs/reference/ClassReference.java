@@ -335,6 +335,30 @@ public class ClassReference extends BaseReference
 
     private static List<String> definedPackages = new ArrayList<String>();
 
+    private Boolean definesPackage;
+
+    /**
+     * Decides whether this class defines the objects of its package in the
+     * generated JS, which only the first class emitted in each package does.
+     * The emitter calls this in output order before it emits any classes, so
+     * that the same class is chosen when the classes are emitted in parallel.
+     */
+    public void reservePackage()
+    {
+        definesPackage = outputJS && reservePackage(getPackageName());
+    }
+
+    private static boolean reservePackage(String packageName)
+    {
+        synchronized (definedPackages)
+        {
+            if (packageName.isEmpty() || definedPackages.contains(packageName))
+                return false;
+            definedPackages.add(packageName);
+            return true;
+        }
+    }
+
     @Override
     public void emit(StringBuilder sb)
     {
@@ -345,26 +369,24 @@ public class ClassReference extends BaseReference
         if (outputJS)
         {
             sb.append("/** @fileoverview Auto-generated Externs files\n * @externs\n */\n");
-            if (!packageName.isEmpty())
+            if (definesPackage == null)
+                reservePackage();
+            if (definesPackage)
             {
-                if (!definedPackages.contains(packageName))
+                String[] pieces = packageName.split("\\.");
+                String chain = "";
+                int n = pieces.length;
+                for (int i = 0; i < n; i++)
                 {
-                    definedPackages.add(packageName);
-                    String[] pieces = packageName.split("\\.");
-                    String chain = "";
-                    int n = pieces.length;
-                    for (int i = 0; i < n; i++)
-                    {
-                        String piece = pieces[i];
-                        sb.append("\n");
-                        sb.append("\n");
-                        sb.append("/**\n * @const\n * @suppress {duplicate|const} */\n");
-                        if (chain.isEmpty())
-                            sb.append("var " + piece + " = {};\n\n\n");
-                        else
-                            sb.append(chain + "." + piece + " = {}\n\n\n");
-                        chain = chain + "." + piece;
-                    }
+                    String piece = pieces[i];
+                    sb.append("\n");
+                    sb.append("\n");
+                    sb.append("/**\n * @const\n * @suppress {duplicate|const} */\n");
+                    if (chain.isEmpty())
+                        sb.append("var " + piece + " = {};\n\n\n");
+                    else
+                        sb.append(chain + "." + piece + " = {}\n\n\n");
+                    chain = chain + "." + piece;
                 }
             }
         }
@@ -550,7 +572,11 @@ public class ClassReference extends BaseReference
             	node.setSourcePath(externName);
             	node.setLine(this.getNode().getLineno());
             	UnresolvedClassReferenceProblem problem = new UnresolvedClassReferenceProblem(node, interfaceName);
-            	getModel().problems.add(problem);
+            	// interfaces may be resolved while classes are emitted in parallel
+            	synchronized (getModel())
+            	{
+            		getModel().problems.add(problem);
+            	}
             }
         }
         Collections.sort(result);
@@ -22,7 +22,9 @@ package org.apache.royale.compiler.internal.codegen.typedefs.reference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.royale.compiler.clients.ExternCConfiguration;
 import org.apache.royale.compiler.clients.ExternCConfiguration.ExcludedMember;
@@ -52,6 +54,9 @@ public class ReferenceModel
     private HashMap<String, FunctionReference> functions = new HashMap<String, FunctionReference>();
     private HashMap<String, ConstantReference> constants = new HashMap<String, ConstantReference>();
 
+    // the source files of the typedefs resolved by each thread that records them
+    private final ThreadLocal<Set<String>> typedefSources = new ThreadLocal<Set<String>>();
+
     //    public Compiler getJSCompiler()
     //    {
     //        return jscompiler;
@@ -117,7 +122,49 @@ public class ReferenceModel
 
     public ClassReference getTypeDefReference(String qualifiedName)
     {
-        return typedefs.get(qualifiedName);
+        ClassReference reference = typedefs.get(qualifiedName);
+        if (reference != null)
+            recordTypedef(reference);
+        return reference;
+    }
+
+    /**
+     * Starts recording the source files of the typedefs that the current
+     * thread looks up or evaluates a type expression with.
+     */
+    public void startRecordingTypedefSources()
+    {
+        typedefSources.set(new LinkedHashSet<String>());
+    }
+
+    /**
+     * @return The source files recorded since the current thread called
+     *         {@link #startRecordingTypedefSources()}.
+     */
+    public Set<String> stopRecordingTypedefSources()
+    {
+        Set<String> result = typedefSources.get();
+        typedefSources.remove();
+        return result;
+    }
+
+    private void recordTypedef(ClassReference reference)
+    {
+        Set<String> sources = typedefSources.get();
+        if (sources != null)
+            sources.add(reference.getNode().getSourceFileName());
+    }
+
+    private void recordTypedefs(Node typeNode)
+    {
+        if (typeNode.isString())
+        {
+            ClassReference reference = typedefs.get(typeNode.getString());
+            if (reference != null)
+                recordTypedef(reference);
+        }
+        for (Node child = typeNode.getFirstChild(); child != null; child = child.getNext())
+            recordTypedefs(child);
     }
 
     public void addNamespace(Node node, String qualifiedName)
@@ -320,12 +367,17 @@ public class ReferenceModel
         }
     }
 
-    public final JSType evaluate(JSTypeExpression expression)
+    // the type registry isn't thread safe, and the emitter may evaluate types
+    // from several threads
+    public final synchronized JSType evaluate(JSTypeExpression expression)
     {
         JSType jsType = null;
 
         if (expression != null)
         {
+            // the type may be resolved through a typedef without a lookup
+            if (typedefSources.get() != null)
+                recordTypedefs(expression.getRoot());
             try
             {
                 jsType = expression.evaluate(null, jscompiler.getTypeRegistry());
@@ -195,7 +195,13 @@ public class JSTypeUtils
         if (jsType.isUnionType())
         {
             UnionType ut = (UnionType) jsType;
-            JSType jsType2 = ut.restrictByNotNullOrUndefined();
+            JSType jsType2;
+            // restricting a union builds a new type with the registry, which
+            // is guarded by the model
+            synchronized (model)
+            {
+                jsType2 = ut.restrictByNotNullOrUndefined();
+            }
 
             if (!jsType2.isUnionType())
                 jsType = jsType2;
@@ -0,0 +1,80 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.codegen.typedefs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.royale.compiler.internal.codegen.typedefs.emit.ExternsManifest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestExternsManifest
+{
+    private File file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("externc", ".manifest");
+    }
+
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void test_save_and_load() throws IOException
+    {
+        ExternsManifest manifest = new ExternsManifest(file, "model");
+        manifest.setInputHash("[es3]", "1234");
+        manifest.setOutput("classes:Foo", new File("classes", "Foo.as"), Arrays.asList("[es3]", "[w3c]"));
+        manifest.save();
+
+        manifest = new ExternsManifest(file, "model");
+        assertTrue(manifest.load());
+        assertEquals("1234", manifest.getInputHash("[es3]"));
+        assertNull(manifest.getInputHash("[w3c]"));
+        assertEquals(new File("classes", "Foo.as"), manifest.getOutputFile("classes:Foo"));
+        assertEquals(Arrays.asList("[es3]", "[w3c]"), manifest.getOutputSources("classes:Foo"));
+        assertNull(manifest.getOutputFile("classes:Bar"));
+    }
+
+    @Test
+    public void test_different_model() throws IOException
+    {
+        ExternsManifest manifest = new ExternsManifest(file, "model");
+        manifest.setInputHash("[es3]", "1234");
+        manifest.save();
+
+        manifest = new ExternsManifest(file, "other");
+        assertFalse(manifest.load());
+        assertNull(manifest.getInputHash("[es3]"));
+    }
+}
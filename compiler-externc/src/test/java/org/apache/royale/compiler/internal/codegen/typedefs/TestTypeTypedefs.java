@@ -24,6 +24,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 
 import org.apache.royale.compiler.clients.ExternCConfiguration;
 import org.apache.royale.compiler.internal.codegen.typedefs.reference.ClassReference;
@@ -86,6 +88,26 @@ public class TestTypeTypedefs extends TypedefsTestBase
                 JSTypeUtils.toParamTypeString(reference.getStaticMethod("test6"), "arg1"));
     }
 
+    @Test
+    public void test_typedef_uses() throws IOException
+    {
+        compile("types_typedef_uses.js");
+
+        ClassReference reference = model.getClassReference("Foo");
+        String typedefSource = model.getTypeDefReference("Named").getNode().getSourceFileName();
+
+        model.startRecordingTypedefSources();
+        JSTypeUtils.toParamTypeString(reference.getStaticMethod("test1"), "arg1");
+        Set<String> sources1 = model.stopRecordingTypedefSources();
+
+        model.startRecordingTypedefSources();
+        JSTypeUtils.toParamTypeString(reference.getStaticMethod("test2"), "arg1");
+        Set<String> sources2 = model.stopRecordingTypedefSources();
+
+        assertEquals(Collections.singleton(typedefSource), sources1);
+        assertTrue(sources2.isEmpty());
+    }
+
     private JSType getJSType(String methodName, boolean isStatic, String paramName)
     {
     	MethodReference method = null;
@@ -67,7 +67,9 @@ import org.apache.royale.compiler.targets.ITarget.TargetType;
 import org.apache.royale.compiler.targets.ITargetSettings;
 import org.apache.royale.compiler.units.ICompilationUnit;
 import org.apache.royale.compiler.utils.SourceMapUtils;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
 import org.apache.royale.swc.ISWCFileEntry;
+import org.apache.royale.swc.SWC;
 import org.apache.royale.swc.io.SWCReader;
 import org.apache.royale.utils.ArgumentUtil;
 
@@ -129,10 +131,11 @@ public class COMPJSC extends MXMLJSC
     {
         long startTime = System.nanoTime();
 
-        final COMPJSC mxmlc = new COMPJSC();
+        final boolean reuseWorkspace = SharedWorkspace.isRequested(args);
+        final COMPJSC mxmlc = new COMPJSC(reuseWorkspace ? SharedWorkspace.getWorkspace() : null);
         mxmlc.configurationClass = JSGoogCompcConfiguration.class;
         final List<ICompilerProblem> problems = new ArrayList<ICompilerProblem>();
-        final int exitCode = mxmlc.mainNoExit(args, problems, true);
+        final int exitCode = mxmlc.mainNoExit(reuseWorkspace ? SharedWorkspace.removeArg(args) : args, problems, true);
 
         long endTime = System.nanoTime();
         System.out.println((endTime - startTime) / 1e9 + " seconds");
@@ -194,20 +197,43 @@ public class COMPJSC extends MXMLJSC
 
             if (continueCompilation)
             {
+                if (SharedWorkspace.isSharedWorkspace(workspace))
+                    SharedWorkspace.invalidateChangedFiles(config);
                 List<String> targets = config.getCompilerTargets();
                 for (String target : targets)
                     System.out.println("target:" + target);
+                SWC hybridSWC = null;
+                if (isHybridSWC())
+                {
+                    // the JS is compiled first, so that COMPC can write it
+                    // into the SWC with the library instead of the SWC being
+                    // written by COMPC and then rewritten with the JS
+                    hybridSWC = new SWC(new File(config.getOutput()));
+                    targets = new ArrayList<String>(targets);
+                    Collections.sort(targets, new Comparator<String>()
+                    {
+                        @Override
+                        public int compare(String o1, String o2)
+                        {
+                            boolean swf1 = JSTargetType.fromString(o1) == JSTargetType.SWF;
+                            boolean swf2 = JSTargetType.fromString(o2) == JSTargetType.SWF;
+                            return Boolean.compare(swf1, swf2);
+                        }
+                    });
+                }
             	targetloop:
-            	for (String target : config.getCompilerTargets())
+            	for (String target : targets)
             	{
             		int result = 0;
             		switch (JSTargetType.fromString(target))
 	                {
 	                case SWF:
                         System.out.println("COMPC");
-	                    COMPC compc = new COMPC();
+	                    COMPC compc = new COMPC(getSharedWorkspace());
 	                    mxmlc = compc;
 	                    compc.configurationClass = JSGoogCompcConfiguration.class;
+	                    if (hybridSWC != null)
+	                        compc.addFiles(hybridSWC.getFiles().values());
 	                    result = compc.mainNoExit(removeJSArgs(args));
 	                    if (result != 0)
 	                    {
@@ -217,8 +243,9 @@ public class COMPJSC extends MXMLJSC
 	                    break;
 	                case JS_ROYALE:
                         System.out.println("COMPCJSCRoyale");
-	                	COMPJSCRoyale royale = new COMPJSCRoyale();
+	                	COMPJSCRoyale royale = new COMPJSCRoyale(getSharedWorkspace());
 	                	lastCompiler = royale;
+	                	royale.setTargetSWC(hybridSWC);
 	                    result = royale.mainNoExit(removeASArgs(args), problems.getProblems(), false);
 	                    if (result != 0)
 	                    {
@@ -288,6 +315,41 @@ public class COMPJSC extends MXMLJSC
         super();
     }
 
+    /**
+     * Creates a compiler that builds the SWF and JSRoyale targets in the
+     * specified workspace. A shared workspace is not closed when the
+     * compilation completes.
+     * 
+     * @param sharedWorkspace The workspace to build in, or <code>null</code>
+     * to create a workspace for this compilation only.
+     */
+    public COMPJSC(Workspace sharedWorkspace)
+    {
+        super(sharedWorkspace);
+    }
+
+    /**
+     * @return true if both the SWF and the JSRoyale targets are packed into
+     * the same SWC, so that it can be written in a single pass.
+     */
+    private boolean isHybridSWC()
+    {
+        String output = config.getOutput();
+        if (output == null || !output.endsWith(".swc"))
+            return false;
+        boolean hasSWF = false;
+        boolean hasJSRoyale = false;
+        for (String target : config.getCompilerTargets())
+        {
+            JSTargetType targetType = JSTargetType.fromString(target);
+            if (targetType == JSTargetType.SWF)
+                hasSWF = true;
+            else if (targetType == JSTargetType.JS_ROYALE)
+                hasJSRoyale = true;
+        }
+        return hasSWF && hasJSRoyale;
+    }
+
     /**
      * Main body of this program. This method is called from the public static
      * method's for this program.
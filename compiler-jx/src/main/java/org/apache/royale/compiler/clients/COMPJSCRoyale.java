@@ -45,17 +45,13 @@ import com.google.debugging.sourcemap.SourceMapParseException;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.royale.compiler.clients.problems.ProblemQuery;
 import org.apache.royale.compiler.codegen.js.IJSWriter;
-import org.apache.royale.compiler.driver.IBackend;
 import org.apache.royale.compiler.driver.js.IJSApplication;
 import org.apache.royale.compiler.exceptions.ConfigurationException;
 import org.apache.royale.compiler.exceptions.ConfigurationException.IOError;
 import org.apache.royale.compiler.exceptions.ConfigurationException.MustSpecifyTarget;
 import org.apache.royale.compiler.internal.driver.mxml.royale.MXMLRoyaleSWCBackend;
-import org.apache.royale.compiler.internal.parsing.as.RoyaleASDocDelegate;
 import org.apache.royale.compiler.internal.projects.CompilerProject;
-import org.apache.royale.compiler.internal.projects.RoyaleJSProject;
 import org.apache.royale.compiler.internal.targets.RoyaleSWCTarget;
 import org.apache.royale.compiler.internal.units.SWCCompilationUnit;
 import org.apache.royale.compiler.internal.targets.JSTarget;
@@ -70,6 +66,7 @@ import org.apache.royale.compiler.units.ICompilationUnit;
 import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
 import org.apache.royale.compiler.utils.SourceMapUtils;
 import org.apache.royale.swc.ISWCFileEntry;
+import org.apache.royale.swc.SWC;
 import org.apache.royale.swc.io.SWCReader;
 
 /**
@@ -142,13 +139,37 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
 
     public COMPJSCRoyale()
     {
-        IBackend backend = new MXMLRoyaleSWCBackend();
+        this(null);
+    }
 
-        workspace = new Workspace();
-        workspace.setASDocDelegate(new RoyaleASDocDelegate());
-        project = new RoyaleJSProject(workspace, backend);
-        problems = new ProblemQuery(); // this gets replaced in configure().  Do we need it here?
-        asFileHandler = backend.getSourceFileHandlerInstance();
+    /**
+     * Creates a compiler that builds in the specified workspace. A shared
+     * workspace is not closed when the compilation completes.
+     * 
+     * @param sharedWorkspace The workspace to build in, or <code>null</code>
+     * to create a workspace for this compilation only.
+     */
+    public COMPJSCRoyale(Workspace sharedWorkspace)
+    {
+        super(new MXMLRoyaleSWCBackend(), sharedWorkspace);
+    }
+
+    private SWC targetSWC;
+    private long fileDate;
+    private long zipFileDate;
+
+    /**
+     * Adds the JavaScript files to the specified SWC model instead of packing
+     * them into the SWC that COMPC wrote to disk. COMPC can then write both
+     * the library and the JavaScript files, and generate the catalog, in a
+     * single pass.
+     * 
+     * @param swc The SWC model to add the files to, or <code>null</code> to
+     * pack them into the existing SWC file.
+     */
+    public void setTargetSWC(SWC swc)
+    {
+        targetSWC = swc;
     }
 
     /**
@@ -195,6 +216,10 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
                 if (outputFolderName.endsWith(".swc"))
                 {
                 	packingSWC = true;
+                    initFileDates();
+                }
+                if (packingSWC && targetSWC == null)
+                {
                 	if (!swcFile.exists())
                 	{
                 		problems.add(new LibraryNotFoundProblem(outputFolderName));
@@ -223,30 +248,6 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
                         	ze.setSize(entry.getSize());
                         	ze.setCompressedSize(entry.getCompressedSize());
                         	ze.setCrc(entry.getCrc());
-	                        long fileDate = System.currentTimeMillis();
-	                        long zipFileDate = fileDate;
-	                    	String metadataDate = targetSettings.getSWFMetadataDate();
-	                    	if (metadataDate != null)
-	                    	{
-	                    		String metadataFormat = targetSettings.getSWFMetadataDateFormat();
-	                    		try {
-	                    			SimpleDateFormat sdf = new SimpleDateFormat(metadataFormat);
-	                    			Date d = sdf.parse(metadataDate);
-	                    			Calendar cal = new GregorianCalendar();
-	                    			cal.setTime(d);
-	                                sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-	                    			d = sdf.parse(metadataDate);
-	                    			fileDate = d.getTime();
-	                    			ZonedDateTime zdt = ZonedDateTime.of(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH), 
-	                    									cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.MINUTE), cal.get(Calendar.SECOND), 0, ZoneId.systemDefault());
-	                    			zipFileDate = zdt.toInstant().toEpochMilli();
-	                    		} catch (ParseException e) {
-	                				// TODO Auto-generated catch block
-	                				e.printStackTrace();
-	                			} catch (IllegalArgumentException e1) {
-	                				e1.printStackTrace();
-	                			}
-	                    	}
 	                    	ze.setTime(zipFileDate);
                         	zipOutputStream.putNextEntry(ze);
                         	IOUtils.copy(input, zipOutputStream);
@@ -481,33 +482,9 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
                     if (errors.size() > 0)
                         return false;
                 }
-                if (packingSWC)
+                if (packingSWC && targetSWC == null)
                 {
                 	zipFile.close();
-                    long fileDate = System.currentTimeMillis();
-                    long zipFileDate = fileDate;
-                	String metadataDate = targetSettings.getSWFMetadataDate();
-                	if (metadataDate != null)
-                	{
-                		String metadataFormat = targetSettings.getSWFMetadataDateFormat();
-                		try {
-                			SimpleDateFormat sdf = new SimpleDateFormat(metadataFormat);
-                			Date d = sdf.parse(metadataDate);
-                			Calendar cal = new GregorianCalendar();
-                			cal.setTime(d);
-                            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-                			d = sdf.parse(metadataDate);
-                			fileDate = d.getTime();
-                			ZonedDateTime zdt = ZonedDateTime.of(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH), 
-                									cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.MINUTE), cal.get(Calendar.SECOND), 0, ZoneId.systemDefault());
-                			zipFileDate = zdt.toInstant().toEpochMilli();
-                		} catch (ParseException e) {
-            				// TODO Auto-generated catch block
-            				e.printStackTrace();
-            			} catch (IllegalArgumentException e1) {
-            				e1.printStackTrace();
-            			}
-                	}
                 	int libraryIndex = catalog.indexOf("</libraries>");
                 	catalog = catalog.substring(0, libraryIndex + 13) +
                 		"    <files>\n" + fileList.toString() + "    </files>" + 
@@ -598,10 +575,15 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
         }
     }
 
-    private void writeFileToZip(ZipOutputStream zipOutputStream, String entryFilePath, ByteArrayOutputStream baos, StringBuilder fileList) throws IOException
+    /**
+     * Parses the SWF metadata date once for all of the files that are
+     * written into the SWC. The catalog uses the date in UTC, and the zip
+     * entries use it in the local time zone.
+     */
+    private void initFileDates()
     {
-        long fileDate = System.currentTimeMillis();
-        long zipFileDate = fileDate;
+        fileDate = System.currentTimeMillis();
+        zipFileDate = fileDate;
         String metadataDate = targetSettings.getSWFMetadataDate();
         if (metadataDate != null)
         {
@@ -624,6 +606,16 @@ public class COMPJSCRoyale extends MXMLJSCRoyale
                 e1.printStackTrace();
             }
         }
+    }
+
+    private void writeFileToZip(ZipOutputStream zipOutputStream, String entryFilePath, ByteArrayOutputStream baos, StringBuilder fileList) throws IOException
+    {
+        if (targetSWC != null)
+        {
+            // COMPC writes the file and adds it to the catalog
+            targetSWC.addFile(entryFilePath, fileDate, baos.toByteArray());
+            return;
+        }
         ZipEntry ze = new ZipEntry(entryFilePath);
         ze.setTime(zipFileDate);
         ze.setMethod(ZipEntry.STORED);
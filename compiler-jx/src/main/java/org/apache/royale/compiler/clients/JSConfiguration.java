@@ -98,6 +98,30 @@ public class JSConfiguration extends Configuration
     		targets.add(target);
     }
 
+    //
+    // 'compiler.parallel-targets' option
+    //
+
+    private boolean parallelTargets = false;
+
+    public boolean getCompilerParallelTargets()
+    {
+        return parallelTargets;
+    }
+
+    /**
+     * When both SWF and JavaScript targets are specified, build the SWF
+     * target on a separate thread while the JavaScript targets are built.
+     * The targets share the workspace, the diagnostics level and the
+     * definition caching setting, so they must not be changed per target.
+     */
+    @Config(advanced = true)
+    @Mapping({ "compiler", "parallel-targets" })
+    public void setCompilerParallelTargets(ConfigurationValue cv, boolean value)
+    {
+        parallelTargets = value;
+    }
+
     //
     // 'js-output-type'
     //
@@ -28,6 +28,12 @@ import java.io.OutputStream;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.royale.compiler.clients.problems.CompilerProblemCategorizer;
@@ -55,6 +61,8 @@ import org.apache.royale.compiler.internal.config.FlashBuilderConfigurator;
 import org.apache.royale.compiler.internal.config.localization.LocalizationManager;
 import org.apache.royale.compiler.internal.definitions.DefinitionBase;
 import org.apache.royale.compiler.internal.driver.js.goog.JSGoogConfiguration;
+import org.apache.royale.compiler.internal.driver.mxml.royale.MXMLRoyaleBackend;
+import org.apache.royale.compiler.internal.driver.mxml.royale.MXMLRoyaleCordovaBackend;
 import org.apache.royale.compiler.internal.parsing.as.RoyaleASDocDelegate;
 import org.apache.royale.compiler.internal.projects.CompilerProject;
 import org.apache.royale.compiler.internal.projects.RoyaleJSProject;
@@ -70,7 +78,6 @@ import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.problems.InternalCompilerProblem;
 import org.apache.royale.compiler.problems.UnableToBuildSWFProblem;
 import org.apache.royale.compiler.problems.UnexpectedExceptionProblem;
-import org.apache.royale.compiler.projects.ICompilerProject;
 import org.apache.royale.compiler.targets.ITarget;
 import org.apache.royale.compiler.targets.ITarget.TargetType;
 import org.apache.royale.compiler.targets.ITargetSettings;
@@ -225,6 +232,8 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
     public int execute(String[] args)
     {
         final List<ICompilerProblem> problems = new ArrayList<ICompilerProblem>();
+        if (SharedWorkspace.isRequested(args))
+            return new MXMLJSC(SharedWorkspace.getWorkspace()).mainNoExit(SharedWorkspace.removeArg(args), problems, true);
         return mainNoExit(args, problems, true);
     }
 
@@ -262,6 +271,7 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
     }
 
     protected Workspace workspace;
+    protected boolean isWorkspaceShared;
     protected RoyaleJSProject project;
 
     protected ProblemQuery problems;
@@ -276,16 +286,43 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
     private IJSGoogPublisher jsPublisher;
     protected MXMLC mxmlc;
     protected JSCompilerEntryPoint lastCompiler;
+    private ExecutorService swfExecutor;
+    private Future<Integer> swfResult;
     public boolean noLink;
     public OutputStream err;
 	public Class<? extends Configuration> configurationClass = JSGoogConfiguration.class;
     
     public MXMLJSC()
+    {
+        this(null);
+    }
+
+    /**
+     * Creates a compiler that builds every target in the specified workspace.
+     * 
+     * @param sharedWorkspace See {@link MXMLC#MXMLC(Workspace)}.
+     */
+    public MXMLJSC(Workspace sharedWorkspace)
     {
         DefinitionBase.setPerformanceCachingEnabled(true);
-        workspace = new Workspace();
+        isWorkspaceShared = sharedWorkspace != null;
+        workspace = isWorkspaceShared ? sharedWorkspace : new Workspace();
         workspace.setASDocDelegate(new RoyaleASDocDelegate());
-        project = new RoyaleJSProject(workspace, null);
+        // a shared workspace keeps the project of the previous compilation
+        // with the same backend
+        final String projectKey = getClass().getName();
+        if (isWorkspaceShared)
+            project = (RoyaleJSProject) workspace.getSharedProject(projectKey);
+        if (project != null)
+        {
+            project.resetEmitterState();
+        }
+        else
+        {
+            project = new RoyaleJSProject(workspace, null);
+            if (isWorkspaceShared)
+                workspace.setSharedProject(projectKey, project);
+        }
     }
 
     @Override
@@ -338,6 +375,32 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
 
             if (continueCompilation)
             {
+                if (SharedWorkspace.isSharedWorkspace(workspace))
+                    SharedWorkspace.invalidateChangedFiles(config);
+                if (config.getCompilerParallelTargets() && config.getCompilerTargets().size() > 1
+                        && hasCompilerTarget(JSTargetType.SWF))
+                {
+                    // the SWF target doesn't depend on the others, so it is
+                    // built on its own thread while the JS targets are built.
+                    // Both threads share the workspace and some statics, which
+                    // are all set before the thread starts and only read
+                    // afterwards: the workspace's ASDoc delegate is set by the
+                    // constructor, CompilerDiagnosticsConstants.diagnostics is
+                    // set above from the configuration, and
+                    // DefinitionBase.setPerformanceCachingEnabled(true) is
+                    // called by every compiler's constructor with the same value.
+                    mxmlc = new MXMLC(getSharedWorkspace());
+                    mxmlc.configurationClass = configurationClass;
+                    swfExecutor = Executors.newSingleThreadExecutor();
+                    swfResult = swfExecutor.submit(new Callable<Integer>()
+                    {
+                        @Override
+                        public Integer call()
+                        {
+                            return compileSWF(args);
+                        }
+                    });
+                }
             	targetloop:
             	for (String target : config.getCompilerTargets())
             	{
@@ -345,12 +408,11 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
             		switch (JSTargetType.fromString(target))
 	                {
 	                case SWF:
-	                    mxmlc = new MXMLC();
+	                    if (swfResult != null)
+	                        break;
+	                    mxmlc = new MXMLC(getSharedWorkspace());
 	                    mxmlc.configurationClass = configurationClass;
-	                    if (noLink)
-	                    	result = mxmlc.mainCompileOnly(removeJSArgs(args), err);
-	                    else
-	                    	result = mxmlc.mainNoExit(removeJSArgs(args));
+	                    result = compileSWF(args);
 	                    if (result != 0 && result != 2)
 	                    {
 	                    	problems.addAll(mxmlc.problems.getProblems());
@@ -358,7 +420,7 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
 	                    }
 	                    break;
 	                case JS_ROYALE:
-	                	MXMLJSCRoyale royale = new MXMLJSCRoyale();
+	                	MXMLJSCRoyale royale = new MXMLJSCRoyale(new MXMLRoyaleBackend(), getSharedWorkspace());
 	                	lastCompiler = royale;
 	                    result = royale.mainNoExit(removeASArgs(args), problems.getProblems(), false);
 	                    if (result != 0 && result != 2)
@@ -367,7 +429,7 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
 	                    }
 	                    break;
 	                case JS_ROYALE_CORDOVA:
-	                	MXMLJSCRoyaleCordova royaleCordova = new MXMLJSCRoyaleCordova();
+	                	MXMLJSCRoyaleCordova royaleCordova = new MXMLJSCRoyaleCordova(new MXMLRoyaleCordovaBackend(), getSharedWorkspace());
 	                	lastCompiler = royaleCordova;
 	                    result = royaleCordova.mainNoExit(removeASArgs(args), problems.getProblems(), false);
 	                    if (result != 0 && result != 2)
@@ -406,6 +468,7 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
 	                // to flex2.tools.MxmlJSC in flex-compiler-oem for IDE support
 	                }
             	}
+                waitForSWFTarget();
                 if (problems.hasFilteredProblems())
                 {
                     if (problems.hasErrors())
@@ -437,6 +500,10 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
         }
         finally
         {
+            // the workspace must not be closed while the SWF target is still
+            // using it
+            if (swfExecutor != null)
+                awaitSWFTarget();
             waitAndClose();
 
             if (outProblems != null && problems.hasFilteredProblems())
@@ -450,6 +517,59 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
         return exitCode.code;
     }
     
+    /**
+     * @return The workspace the target compilers should build in, or
+     * <code>null</code> if each of them should create its own.
+     */
+    protected Workspace getSharedWorkspace()
+    {
+        // When there is more than one target, they are all built in this
+        // compilation's workspace, so that the libraries and the file scopes
+        // of the source files are only read once.
+        if (isWorkspaceShared || config.getCompilerTargets().size() > 1)
+            return workspace;
+        return null;
+    }
+
+    private boolean hasCompilerTarget(JSTargetType targetType)
+    {
+        for (String target : config.getCompilerTargets())
+        {
+            if (JSTargetType.fromString(target) == targetType)
+                return true;
+        }
+        return false;
+    }
+
+    private void waitForSWFTarget() throws InterruptedException, ExecutionException
+    {
+        if (swfResult == null)
+            return;
+        int result = swfResult.get();
+        if (result != 0 && result != 2)
+            problems.addAll(mxmlc.problems.getProblems());
+    }
+
+    private void awaitSWFTarget()
+    {
+        swfExecutor.shutdown();
+        try
+        {
+            swfExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int compileSWF(String[] args)
+    {
+        if (noLink)
+            return mxmlc.mainCompileOnly(removeJSArgs(args), err);
+        return mxmlc.mainNoExit(removeJSArgs(args));
+    }
+
     protected String[] removeJSArgs(String[] args)
     {
     	ArrayList<String> list = new ArrayList<String>();
@@ -873,6 +993,8 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
     public boolean configure(final String[] args)
     {
     	projectConfigurator = new RoyaleProjectConfigurator(configurationClass);
+        if (isWorkspaceShared)
+            projectConfigurator.setConfigurationCache(workspace.getConfigurationCache());
     	
         try
         {
@@ -1041,15 +1163,7 @@ public class MXMLJSC implements JSCompilerEntryPoint, ProblemQueryProvider,
      */
     protected void waitAndClose()
     {
-        workspace.startIdleState();
-        try
-        {
-            workspace.close();
-        }
-        finally
-        {
-            workspace.endIdleState(Collections.<ICompilerProject, Set<ICompilationUnit>> emptyMap());
-        }
+        workspace.endCompilation(project, isWorkspaceShared);
     }
 
     /**
@@ -32,6 +32,10 @@ import java.io.InputStreamReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.royale.compiler.clients.problems.ProblemPrinter;
@@ -79,7 +83,6 @@ import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.problems.InternalCompilerProblem;
 import org.apache.royale.compiler.problems.UnableToBuildSWFProblem;
 import org.apache.royale.compiler.problems.UnexpectedExceptionProblem;
-import org.apache.royale.compiler.projects.ICompilerProject;
 import org.apache.royale.compiler.scopes.IDefinitionSet;
 import org.apache.royale.compiler.targets.ITarget;
 import org.apache.royale.compiler.targets.ITarget.TargetType;
@@ -178,6 +181,7 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
     }
 
     protected Workspace workspace;
+    protected boolean isWorkspaceShared;
     protected RoyaleJSProject project;
 
     protected ProblemQuery problems;
@@ -197,11 +201,38 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
     }
     
     public MXMLJSCRoyale(IBackend backend)
+    {
+        this(backend, null);
+    }
+
+    /**
+     * @param backend The backend.
+     * @param sharedWorkspace See {@link MXMLC#MXMLC(Workspace)}.
+     */
+    public MXMLJSCRoyale(IBackend backend, Workspace sharedWorkspace)
     {
         DefinitionBase.setPerformanceCachingEnabled(true);
-        workspace = new Workspace();
-        workspace.setASDocDelegate(new RoyaleASDocDelegate());
-        project = new RoyaleJSProject(workspace, backend);
+        isWorkspaceShared = sharedWorkspace != null;
+        workspace = isWorkspaceShared ? sharedWorkspace : new Workspace();
+        // a shared workspace may already be in use by the SWF target's thread,
+        // see MXMLJSC, so its delegate is only set when it isn't there yet
+        if (!(workspace.getASDocDelegate() instanceof RoyaleASDocDelegate))
+            workspace.setASDocDelegate(new RoyaleASDocDelegate());
+        // a shared workspace keeps the project of the previous compilation
+        // with the same backend
+        final String projectKey = getClass().getName() + ":" + backend.getClass().getName();
+        if (isWorkspaceShared)
+            project = (RoyaleJSProject) workspace.getSharedProject(projectKey);
+        if (project != null)
+        {
+            project.resetEmitterState();
+        }
+        else
+        {
+            project = new RoyaleJSProject(workspace, backend);
+            if (isWorkspaceShared)
+                workspace.setSharedProject(projectKey, project);
+        }
         problems = new ProblemQuery(); // this gets replaced in configure().  Do we need it here?
         asFileHandler = backend.getSourceFileHandlerInstance();
     }
@@ -366,6 +397,7 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
 	                    	outputResourceBundle((ResourceBundleCompilationUnit)cu, outputFolder);
 	                    }
 	                }
+	                List<ICompilationUnit> unitsToEmit = new ArrayList<ICompilationUnit>();
 	                for (final ICompilationUnit cu : reachableCompilationUnits)
 	                {
 	                    ICompilationUnit.UnitType cuType = cu.getCompilationUnitType();
@@ -373,51 +405,12 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
 	                    if (cuType == ICompilationUnit.UnitType.AS_UNIT
 	                            || cuType == ICompilationUnit.UnitType.MXML_UNIT)
 	                    {
-	                        final File outputClassFile = getOutputClassFile(
-	                                cu.getQualifiedNames().get(0), outputFolder);
-    
-                            if (config.isVerbose())
-                            {
-                                System.out.println("Compiling file: " + outputClassFile);
-                            }
-	
-	                        ICompilationUnit unit = cu;
-	
-	                        IJSWriter writer;
-	                        if (cuType == ICompilationUnit.UnitType.AS_UNIT)
-	                        {
-	                            writer = (IJSWriter) project.getBackend().createWriter(project,
-	                                    problems.getProblems(), unit, false);
-	                        }
-	                        else
-	                        {
-	                            writer = (IJSWriter) project.getBackend().createMXMLWriter(
-	                                    project, problems.getProblems(), unit, false);
-	                        }
-	
-	                        BufferedOutputStream out = new BufferedOutputStream(
-	                                new FileOutputStream(outputClassFile));
-
-                            BufferedOutputStream sourceMapOut = null;
-	                        File outputSourceMapFile = null;
-	                        if (project.config.getSourceMap())
-	                        {
-	                            outputSourceMapFile = getOutputSourceMapFile(
-                                        cu.getQualifiedNames().get(0), outputFolder);
-                                sourceMapOut = new BufferedOutputStream(
-	                                    new FileOutputStream(outputSourceMapFile));
-	                        }
-	                        
-	                        writer.writeTo(out, sourceMapOut, outputSourceMapFile);
-	                        out.flush();
-	                        out.close();
-                            if (sourceMapOut != null)
-                            {
-                                sourceMapOut.flush();
-                                sourceMapOut.close();
-                            }
-	                        writer.close();
+	                        unitsToEmit.add(cu);
 	                    }
+	                }
+	                emitCompilationUnits(unitsToEmit, outputFolder, googConfiguration.getJsParallelEmit());
+	                for (final ICompilationUnit cu : reachableCompilationUnits)
+	                {
                         ClosureUtils.collectPropertyNamesToKeep(cu, project, closurePropNamesToKeep);
                         ClosureUtils.collectSymbolNamesToExport(cu, project, closureSymbolNamesToExport);
 	                }
@@ -459,6 +452,115 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
         return compilationSuccess && (errs.size() == 0);
     }
 
+    /**
+     * Writes the JS for the specified compilation units. Each compilation
+     * unit is walked by its own writer, with its own emitters and output
+     * buffer, so the units can be emitted in parallel on the workspace's
+     * executor. The main compilation unit is emitted last, because its
+     * requires depend on whether any other unit needed the Language class.
+     * The problems are reported in the order of the compilation units.
+     * 
+     * @param units The AS and MXML compilation units to emit.
+     * @param outputFolder The folder to write the JS files to.
+     * @param parallel false to emit the units one after another on this
+     * thread.
+     */
+    private void emitCompilationUnits(List<ICompilationUnit> units, final File outputFolder,
+            boolean parallel) throws InterruptedException, IOException
+    {
+        ExecutorService executor = workspace.getExecutorService();
+        List<Future<List<ICompilerProblem>>> results = new ArrayList<Future<List<ICompilerProblem>>>();
+        boolean emitMainCU = false;
+        for (final ICompilationUnit cu : units)
+        {
+            if (cu == mainCU)
+            {
+                emitMainCU = true;
+                continue;
+            }
+            if (!parallel)
+            {
+                emitCompilationUnit(cu, outputFolder, problems.getProblems());
+                continue;
+            }
+            results.add(executor.submit(new Callable<List<ICompilerProblem>>()
+            {
+                @Override
+                public List<ICompilerProblem> call() throws InterruptedException, IOException
+                {
+                    List<ICompilerProblem> unitProblems = new ArrayList<ICompilerProblem>();
+                    emitCompilationUnit(cu, outputFolder, unitProblems);
+                    return unitProblems;
+                }
+            }));
+        }
+        for (Future<List<ICompilerProblem>> result : results)
+        {
+            try
+            {
+                problems.addAll(result.get());
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                if (cause instanceof InterruptedException)
+                    throw (InterruptedException) cause;
+                problems.add(new InternalCompilerProblem((Exception) cause));
+            }
+        }
+        if (emitMainCU)
+            emitCompilationUnit(mainCU, outputFolder, problems.getProblems());
+    }
+
+    private void emitCompilationUnit(ICompilationUnit cu, File outputFolder,
+            List<ICompilerProblem> unitProblems) throws InterruptedException, IOException
+    {
+        final File outputClassFile = getOutputClassFile(
+                cu.getQualifiedNames().get(0), outputFolder);
+
+        if (config.isVerbose())
+        {
+            System.out.println("Compiling file: " + outputClassFile);
+        }
+
+        IJSWriter writer;
+        if (cu.getCompilationUnitType() == ICompilationUnit.UnitType.AS_UNIT)
+        {
+            writer = (IJSWriter) project.getBackend().createWriter(project,
+                    unitProblems, cu, false);
+        }
+        else
+        {
+            writer = (IJSWriter) project.getBackend().createMXMLWriter(
+                    project, unitProblems, cu, false);
+        }
+
+        BufferedOutputStream out = new BufferedOutputStream(
+                new FileOutputStream(outputClassFile));
+
+        BufferedOutputStream sourceMapOut = null;
+        File outputSourceMapFile = null;
+        if (project.config.getSourceMap())
+        {
+            outputSourceMapFile = getOutputSourceMapFile(
+                    cu.getQualifiedNames().get(0), outputFolder);
+            sourceMapOut = new BufferedOutputStream(
+                    new FileOutputStream(outputSourceMapFile));
+        }
+
+        writer.writeTo(out, sourceMapOut, outputSourceMapFile);
+        out.flush();
+        out.close();
+        if (sourceMapOut != null)
+        {
+            sourceMapOut.flush();
+            sourceMapOut.close();
+        }
+        writer.close();
+    }
+
     private void generateExternsReport(File externsReportFile,
 			List<ICompilationUnit> reachableCompilationUnits,
 			ProblemQuery problems) {
@@ -1054,6 +1156,8 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
     {
         project.getSourceCompilationUnitFactory().addHandler(asFileHandler);
         project.configurator = projectConfigurator = createConfigurator();
+        if (isWorkspaceShared)
+            projectConfigurator.setConfigurationCache(workspace.getConfigurationCache());
 
         try
         {
@@ -1153,15 +1257,7 @@ public class MXMLJSCRoyale implements JSCompilerEntryPoint, ProblemQueryProvider
      */
     protected void waitAndClose()
     {
-        workspace.startIdleState();
-        try
-        {
-            workspace.close();
-        }
-        finally
-        {
-            workspace.endIdleState(Collections.<ICompilerProject, Set<ICompilationUnit>> emptyMap());
-        }
+        workspace.endCompilation(project, isWorkspaceShared);
     }
 
     /**
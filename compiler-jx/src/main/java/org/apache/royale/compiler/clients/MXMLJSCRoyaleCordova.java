@@ -26,7 +26,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -68,7 +67,6 @@ import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.problems.InternalCompilerProblem;
 import org.apache.royale.compiler.problems.UnableToBuildSWFProblem;
 import org.apache.royale.compiler.problems.UnexpectedExceptionProblem;
-import org.apache.royale.compiler.projects.ICompilerProject;
 import org.apache.royale.compiler.targets.ITarget;
 import org.apache.royale.compiler.targets.ITarget.TargetType;
 import org.apache.royale.compiler.targets.ITargetSettings;
@@ -163,6 +161,7 @@ public class MXMLJSCRoyaleCordova implements JSCompilerEntryPoint, ProblemQueryP
     }
 
     protected Workspace workspace;
+    protected boolean isWorkspaceShared;
     protected RoyaleJSProject project;
 
     protected ProblemQuery problems;
@@ -182,11 +181,38 @@ public class MXMLJSCRoyaleCordova implements JSCompilerEntryPoint, ProblemQueryP
     }
     
     public MXMLJSCRoyaleCordova(IBackend backend)
+    {
+        this(backend, null);
+    }
+
+    /**
+     * @param backend The backend.
+     * @param sharedWorkspace See {@link MXMLC#MXMLC(Workspace)}.
+     */
+    public MXMLJSCRoyaleCordova(IBackend backend, Workspace sharedWorkspace)
     {
         DefinitionBase.setPerformanceCachingEnabled(true);
-        workspace = new Workspace();
-        workspace.setASDocDelegate(new RoyaleASDocDelegate());
-        project = new RoyaleJSProject(workspace, backend);
+        isWorkspaceShared = sharedWorkspace != null;
+        workspace = isWorkspaceShared ? sharedWorkspace : new Workspace();
+        // a shared workspace may already be in use by the SWF target's thread,
+        // see MXMLJSC, so its delegate is only set when it isn't there yet
+        if (!(workspace.getASDocDelegate() instanceof RoyaleASDocDelegate))
+            workspace.setASDocDelegate(new RoyaleASDocDelegate());
+        // a shared workspace keeps the project of the previous compilation
+        // with the same backend
+        final String projectKey = getClass().getName() + ":" + backend.getClass().getName();
+        if (isWorkspaceShared)
+            project = (RoyaleJSProject) workspace.getSharedProject(projectKey);
+        if (project != null)
+        {
+            project.resetEmitterState();
+        }
+        else
+        {
+            project = new RoyaleJSProject(workspace, backend);
+            if (isWorkspaceShared)
+                workspace.setSharedProject(projectKey, project);
+        }
         problems = new ProblemQuery(); // this gets replaced in configure().  Do we need it here?
         asFileHandler = backend.getSourceFileHandlerInstance();
     }
@@ -645,6 +671,8 @@ public class MXMLJSCRoyaleCordova implements JSCompilerEntryPoint, ProblemQueryP
     {
         project.getSourceCompilationUnitFactory().addHandler(asFileHandler);
         project.configurator = projectConfigurator = createConfigurator();
+        if (isWorkspaceShared)
+            projectConfigurator.setConfigurationCache(workspace.getConfigurationCache());
 
         try
         {
@@ -744,15 +772,7 @@ public class MXMLJSCRoyaleCordova implements JSCompilerEntryPoint, ProblemQueryP
      */
     protected void waitAndClose()
     {
-        workspace.startIdleState();
-        try
-        {
-            workspace.close();
-        }
-        finally
-        {
-            workspace.endIdleState(Collections.<ICompilerProject, Set<ICompilationUnit>> emptyMap());
-        }
+        workspace.endCompilation(project, isWorkspaceShared);
     }
 
     /**
@@ -0,0 +1,268 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.clients;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.royale.compiler.internal.parsing.as.RoyaleASDocDelegate;
+import org.apache.royale.compiler.internal.workspaces.FileChangeTracker;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
+
+/**
+ * Keeps a workspace alive for all of the compilations that run on the same
+ * thread of a JVM, such as the goals and modules of a Maven reactor build, so
+ * that the SWCs on the library path are loaded once instead of once per
+ * compilation.
+ * <p>
+ * The workspace is only shared by the compilations whose arguments include
+ * {@value #REUSE_WORKSPACE_ARG}. The argument is removed before the
+ * arguments are parsed, so it isn't a configuration option. Before each
+ * compilation, the files on its source and library paths that were added,
+ * or whose size or modification time changed, since an earlier compilation
+ * saw them are reported to the workspace, see {@link FileChangeTracker}. That way, a SWC that was rebuilt by an earlier module is loaded
+ * again.
+ * <p>
+ * A workspace is not meant to be used by unrelated compilations at the same
+ * time, so every thread gets a workspace of its own. A parallel build, such
+ * as a Maven build with several threads, therefore loads the libraries once
+ * per thread. The workspace of a thread that has ended is closed the next
+ * time any thread asks for its workspace, and {@link #closeAll()} closes
+ * every workspace, for example when the JVM shuts down.
+ */
+public class SharedWorkspace
+{
+    /**
+     * The argument that tells the compiler to build in the shared workspace
+     * of the current thread.
+     */
+    public static final String REUSE_WORKSPACE_ARG = "-reuse-workspace";
+
+    /**
+     * The workspace of a thread, and the timestamps of the files seen by the
+     * compilations that used it, keyed by normalized path.
+     */
+    private static final class State
+    {
+        private Workspace workspace;
+        private final FileChangeTracker changeTracker = new FileChangeTracker();
+    }
+
+    /**
+     * The state of each thread that used a shared workspace. Guarded by the
+     * class lock.
+     */
+    private static final Map<Thread, State> states = new HashMap<Thread, State>();
+
+    private static boolean shutdownHookAdded;
+
+    private SharedWorkspace()
+    {
+    }
+
+    /**
+     * @return true if the arguments include {@value #REUSE_WORKSPACE_ARG}.
+     */
+    public static boolean isRequested(String[] args)
+    {
+        for (String arg : args)
+        {
+            if (REUSE_WORKSPACE_ARG.equals(arg))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The arguments without {@value #REUSE_WORKSPACE_ARG}.
+     */
+    public static String[] removeArg(String[] args)
+    {
+        List<String> list = new ArrayList<String>(args.length);
+        for (String arg : args)
+        {
+            if (!REUSE_WORKSPACE_ARG.equals(arg))
+                list.add(arg);
+        }
+        return list.toArray(new String[0]);
+    }
+
+    /**
+     * @return The shared workspace of the current thread.
+     */
+    public static Workspace getWorkspace()
+    {
+        State current = getState();
+        if (current.workspace == null)
+        {
+            current.workspace = new Workspace();
+            current.workspace.setASDocDelegate(new RoyaleASDocDelegate());
+        }
+        return current.workspace;
+    }
+
+    /**
+     * @return true if the specified workspace is the shared workspace of the
+     * current thread.
+     */
+    public static boolean isSharedWorkspace(Workspace ws)
+    {
+        if (ws == null)
+            return false;
+        synchronized (SharedWorkspace.class)
+        {
+            State current = states.get(Thread.currentThread());
+            return current != null && ws == current.workspace;
+        }
+    }
+
+    /**
+     * Reports the files on the source and library paths of a compilation
+     * that were added, changed or removed since an earlier compilation saw
+     * them to the shared workspace of the current thread. Directories are
+     * searched recursively.
+     *
+     * @param config The configuration of the compilation.
+     */
+    public static void invalidateChangedFiles(JSConfiguration config)
+    {
+        List<String> paths = new ArrayList<String>();
+        addAll(paths, config.getCompilerSourcePath());
+        addAll(paths, config.getCompilerLibraryPath());
+        addAll(paths, config.getCompilerExternalLibraryPath());
+        addAll(paths, config.getCompilerSwfLibraryPath());
+        addAll(paths, config.getCompilerSwfExternalLibraryPath());
+        addAll(paths, config.getCompilerJsLibraryPath());
+        addAll(paths, config.getCompilerJsExternalLibraryPath());
+        addAll(paths, config.getCompilerIncludeLibraries());
+        addAll(paths, config.getCompilerThemeFiles());
+        addAll(paths, config.getIncludeSources());
+        invalidateChangedFiles(paths);
+    }
+
+    /**
+     * @param paths The files and directories to check.
+     * @return The number of files that were invalidated.
+     */
+    public static int invalidateChangedFiles(Collection<String> paths)
+    {
+        State current = getState();
+        Workspace workspace = current.workspace;
+        if (workspace == null)
+            return 0;
+
+        List<File> roots = new ArrayList<File>();
+        for (String path : paths)
+            roots.add(new File(path));
+
+        FileChangeTracker.Changes changes = current.changeTracker.update(roots);
+        changes.applyTo(workspace);
+        return changes.size();
+    }
+
+    /**
+     * Closes the shared workspace of the current thread. The next compilation
+     * on this thread that uses it starts from an empty workspace.
+     */
+    public static void clear()
+    {
+        State current;
+        synchronized (SharedWorkspace.class)
+        {
+            current = states.remove(Thread.currentThread());
+        }
+        close(current);
+    }
+
+    /**
+     * Closes the shared workspaces of all threads.
+     */
+    public static void closeAll()
+    {
+        List<State> closed;
+        synchronized (SharedWorkspace.class)
+        {
+            closed = new ArrayList<State>(states.values());
+            states.clear();
+        }
+        for (State s : closed)
+            close(s);
+    }
+
+    /**
+     * @return The state of the current thread. The states of the threads
+     * that have ended are closed and dropped.
+     */
+    private static State getState()
+    {
+        List<State> closed = new ArrayList<State>();
+        State current;
+        synchronized (SharedWorkspace.class)
+        {
+            for (Iterator<Map.Entry<Thread, State>> it = states.entrySet().iterator(); it.hasNext();)
+            {
+                Map.Entry<Thread, State> e = it.next();
+                if (!e.getKey().isAlive())
+                {
+                    closed.add(e.getValue());
+                    it.remove();
+                }
+            }
+            current = states.get(Thread.currentThread());
+            if (current == null)
+            {
+                current = new State();
+                states.put(Thread.currentThread(), current);
+            }
+            if (!shutdownHookAdded)
+            {
+                Runtime.getRuntime().addShutdownHook(new Thread("SharedWorkspace")
+                {
+                    @Override
+                    public void run()
+                    {
+                        closeAll();
+                    }
+                });
+                shutdownHookAdded = true;
+            }
+        }
+        for (State s : closed)
+            close(s);
+        return current;
+    }
+
+    private static void close(State s)
+    {
+        if (s != null && s.workspace != null)
+            s.workspace.close();
+    }
+
+    private static void addAll(List<String> paths, List<String> values)
+    {
+        if (values != null)
+            paths.addAll(values);
+    }
+}
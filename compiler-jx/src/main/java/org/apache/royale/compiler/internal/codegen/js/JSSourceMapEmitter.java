@@ -20,42 +20,50 @@
 package org.apache.royale.compiler.internal.codegen.js;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import org.apache.royale.compiler.codegen.ISourceMapEmitter;
 import org.apache.royale.compiler.codegen.js.IMappingEmitter;
-
-import com.google.debugging.sourcemap.SourceMapGeneratorV3;
+import org.apache.royale.compiler.utils.SourceMapWriter;
 
 public class JSSourceMapEmitter implements ISourceMapEmitter
 {
     private IMappingEmitter emitter;
-    private SourceMapGeneratorV3 sourceMapGenerator;
+    private SourceMapWriter sourceMapWriter;
 
     public JSSourceMapEmitter(IMappingEmitter emitter)
     {
         this.emitter = emitter;
-        sourceMapGenerator = new SourceMapGeneratorV3();
+        sourceMapWriter = new SourceMapWriter();
     }
     
     public String emitSourceMap(String fileName, String sourceMapPath, String sourceRoot)
     {
         List<IMappingEmitter.SourceMapMapping> mappings = this.emitter.getSourceMapMappings();
+        if (!isSorted(mappings))
+        {
+            // the writer needs the mappings in the order of the generated code
+            mappings = new ArrayList<IMappingEmitter.SourceMapMapping>(mappings);
+            Collections.sort(mappings, DEST_START_ORDER);
+        }
         for (IMappingEmitter.SourceMapMapping mapping : mappings)
         {
-            sourceMapGenerator.addMapping(mapping.sourcePath, mapping.name,
+            sourceMapWriter.addMapping(mapping.sourcePath, mapping.name,
                     mapping.sourceStartPosition,
                     mapping.destStartPosition, mapping.destEndPosition);
         }
         if (sourceRoot != null)
         {
-            sourceMapGenerator.setSourceRoot(sourceRoot);
+            sourceMapWriter.setSourceRoot(sourceRoot);
         }
 
         StringBuilder builder = new StringBuilder();
         try
         {
-            sourceMapGenerator.appendTo(builder, fileName);
+            sourceMapWriter.appendTo(builder, fileName);
         }
         catch (IOException e)
         {
@@ -64,4 +72,33 @@ public class JSSourceMapEmitter implements ISourceMapEmitter
         
         return builder.toString();
     }
+
+    private static boolean isSorted(List<IMappingEmitter.SourceMapMapping> mappings)
+    {
+        for (int i = 1; i < mappings.size(); i++)
+        {
+            if (DEST_START_ORDER.compare(mappings.get(i - 1), mappings.get(i)) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final Comparator<IMappingEmitter.SourceMapMapping> DEST_START_ORDER =
+            new Comparator<IMappingEmitter.SourceMapMapping>()
+    {
+        public int compare(IMappingEmitter.SourceMapMapping mapping1, IMappingEmitter.SourceMapMapping mapping2)
+        {
+            int line1 = mapping1.destStartPosition.getLine();
+            int line2 = mapping2.destStartPosition.getLine();
+            if (line1 != line2)
+            {
+                return line1 < line2 ? -1 : 1;
+            }
+            int column1 = mapping1.destStartPosition.getColumn();
+            int column2 = mapping2.destStartPosition.getColumn();
+            return column1 < column2 ? -1 : (column1 == column2 ? 0 : 1);
+        }
+    };
 }
@@ -120,6 +120,7 @@ public class JSWriter implements IJSWriter
             {
                 sourceMapFilePath = sourceMapFile.getAbsolutePath();
                 convertMappingSourcePathsToRelative(emitter, sourceMapFile);
+                sourceRoot = applyConfiguredSourceRoot(emitter);
             }
             else
             {
@@ -159,6 +160,46 @@ public class JSWriter implements IJSWriter
         }
     }
     
+    /**
+     * When a source root is configured, the final source root is already
+     * known, so the source paths are made relative to it now. Otherwise,
+     * GoogDepsWriter would need to read, rewrite, and write the source map
+     * again later.
+     */
+    protected String applyConfiguredSourceRoot(IMappingEmitter emitter)
+    {
+        String sourceRoot = project.config != null ? project.config.getSourceMapSourceRoot() : null;
+        if (sourceRoot == null || sourceRoot.length() == 0)
+        {
+            return null;
+        }
+        String className = null;
+        try
+        {
+            className = compilationUnit.getQualifiedNames().get(0);
+        }
+        catch (InterruptedException e)
+        {
+            return null;
+        }
+        String startPath = "/" + className.replace(".", "/") + ".";
+        List<IMappingEmitter.SourceMapMapping> mappings = emitter.getSourceMapMappings();
+        for (IMappingEmitter.SourceMapMapping mapping : mappings)
+        {
+            if (mapping.sourcePath == null)
+            {
+                continue;
+            }
+            String sourcePath = mapping.sourcePath.replace('\\', '/');
+            int startPathIndex = sourcePath.indexOf(startPath);
+            if (startPathIndex != -1)
+            {
+                mapping.sourcePath = sourcePath.substring(startPathIndex + 1);
+            }
+        }
+        return sourceRoot;
+    }
+    
     protected void convertMappingSourcePathsToURI(IMappingEmitter emitter)
     {
         List<IMappingEmitter.SourceMapMapping> mappings = emitter.getSourceMapMappings();
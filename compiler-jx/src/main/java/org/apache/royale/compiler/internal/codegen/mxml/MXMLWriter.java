@@ -85,6 +85,7 @@ public class MXMLWriter extends JSWriter
             {
                 sourceMapFilePath = sourceMapFile.getAbsolutePath();
                 convertMappingSourcePathsToRelative((IMappingEmitter) mxmlEmitter, sourceMapFile);
+                sourceRoot = applyConfiguredSourceRoot((IMappingEmitter) mxmlEmitter);
             }
             else
             {
@@ -116,6 +116,20 @@ import com.google.debugging.sourcemap.FilePosition;
 public class MXMLRoyaleEmitter extends MXMLEmitter implements
         IMXMLRoyaleEmitter, IMXMLJSEmitter
 {
+    /**
+     * The indents for the common nesting levels, so that each new line
+     * doesn't allocate its indent. The emitter is created for each
+     * compilation unit and may run on any thread, so nothing shared between
+     * emitters may be mutable.
+     */
+    private static final String[] INDENTS = new String[16];
+
+    static
+    {
+        INDENTS[0] = "";
+        for (int i = 1; i < INDENTS.length; i++)
+            INDENTS[i] = INDENTS[i - 1] + JSRoyaleEmitterTokens.INDENT.getToken();
+    }
 
 	// the instances in a container
     private ArrayList<MXMLDescriptorSpecifier> currentInstances;
@@ -792,6 +806,8 @@ public class MXMLRoyaleEmitter extends MXMLEmitter implements
     @Override
     protected String getIndent(int numIndent)
     {
+        if (numIndent >= 0 && numIndent < INDENTS.length)
+            return INDENTS[numIndent];
         final StringBuilder sb = new StringBuilder();
         for (int i = 0; i < numIndent; i++)
             sb.append(JSRoyaleEmitterTokens.INDENT.getToken());
@@ -485,12 +485,40 @@ public class MXMLRoyalePublisher extends JSGoogPublisher implements IJSGoogPubli
         }
         if (compilerWrapper != null)
         {
-            for (String file : fileList)
+            Map<String, String> chunkEntryPoints = googConfiguration.getJSOutputChunks();
+            if (chunkEntryPoints.isEmpty())
             {
-                compilerWrapper.addJSSourceFile(file);
-                if (googConfiguration.isVerbose())
-                {            
-                    System.out.println("using source file: " + file);
+                for (String file : fileList)
+                {
+                    compilerWrapper.addJSSourceFile(file);
+                    if (googConfiguration.isVerbose())
+                    {
+                        System.out.println("using source file: " + file);
+                    }
+                }
+            }
+            else
+            {
+                // the main chunk is always first and contains everything that
+                // isn't owned by exactly one of the other chunks
+                Map<String, List<String>> chunks = gdw.getChunks(fileList, chunkEntryPoints);
+                for (Map.Entry<String, List<String>> chunk : chunks.entrySet())
+                {
+                    String chunkName = chunk.getKey();
+                    boolean isMainChunk = chunkName.equals(mainClassQName);
+                    if (!isMainChunk)
+                        compilerWrapper.addJSChunk(chunkName, chunkEntryPoints.get(chunkName));
+                    for (String file : chunk.getValue())
+                    {
+                        if (isMainChunk)
+                            compilerWrapper.addJSSourceFile(file);
+                        else
+                            compilerWrapper.addJSChunkSourceFile(chunkName, file);
+                        if (googConfiguration.isVerbose())
+                        {
+                            System.out.println("using source file: " + file + " (chunk " + chunkName + ")");
+                        }
+                    }
                 }
             }
         }
@@ -25,7 +25,9 @@ import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.royale.compiler.clients.JSConfiguration;
@@ -266,7 +268,35 @@ public class JSGoogConfiguration extends JSConfiguration
     	removeCirculars = value;
     }
 
-    
+    //
+    // 'js-output-chunk'
+    //
+
+    private Map<String, String> jsOutputChunks = new LinkedHashMap<String, String>();
+
+    public Map<String, String> getJSOutputChunks()
+    {
+        return jsOutputChunks;
+    }
+
+    /**
+     * Splits the release output into an additional Closure Compiler chunk.
+     * The chunk is rooted at the specified class, and every class that is
+     * only reachable from that class is moved out of the main application
+     * file into a separate {@code <name>.js} file in the release folder. The
+     * application is responsible for loading the chunk before using any
+     * class that it contains.
+     */
+    @Config(advanced = true, allowMultiple = true)
+    @Mapping("js-output-chunk")
+    @Arguments({ "name", "class" })
+    public void setJSOutputChunk(ConfigurationValue cv, String name, String className)
+            throws ConfigurationException
+    {
+        jsOutputChunks.put(name, className);
+    }
+
+
     //
     // 'skip-transpile'
     //
@@ -963,7 +993,30 @@ public class JSGoogConfiguration extends JSConfiguration
     {
         this.externsReportFileName = getOutputPath(cv, filename);
     }
-    
+
+    //
+    // 'js-parallel-emit'
+    //
+
+    private boolean jsParallelEmit = true;
+
+    public boolean getJsParallelEmit()
+    {
+        return jsParallelEmit;
+    }
+
+    /**
+     * Writes the JavaScript of the compilation units in parallel on the
+     * workspace's executor. Set to false to write them one after another on
+     * the compiling thread.
+     */
+    @Config(advanced = true)
+    @Mapping("js-parallel-emit")
+    public void setJsParallelEmit(ConfigurationValue cv, boolean value)
+    {
+        jsParallelEmit = value;
+    }
+
     
     /**
      * Support for reflection data output to represent selected config options
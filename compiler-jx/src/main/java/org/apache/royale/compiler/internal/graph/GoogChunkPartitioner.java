@@ -0,0 +1,139 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.royale.compiler.internal.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which classes of an application can be moved out of the main
+ * Closure Compiler chunk and into the chunk of one of its entry points.
+ * <p>
+ * Every chunk other than the main chunk only depends on the main chunk, so a
+ * class can only leave the main chunk when it is not reachable from the main
+ * class and is reachable from exactly one entry point. Everything the main
+ * chunk requires then stays in the main chunk, and a chunk never requires a
+ * class owned by another chunk.
+ */
+public class GoogChunkPartitioner
+{
+	public GoogChunkPartitioner(String mainName)
+	{
+		this.mainName = mainName;
+	}
+
+	private final String mainName;
+	private final HashMap<String, Collection<String>> dependencies = new HashMap<String, Collection<String>>();
+	private final ArrayList<String> missingEntryPoints = new ArrayList<String>();
+	private final ArrayList<String> mainEntryPoints = new ArrayList<String>();
+
+	/**
+	 * Adds a class of the application.
+	 *
+	 * @param className The qualified name of the class.
+	 * @param dependencies The classes that must be loaded before this class,
+	 * including its base class and interfaces. Closure Library classes are
+	 * ignored.
+	 */
+	public void addClass(String className, Collection<String> dependencies)
+	{
+		this.dependencies.put(className, dependencies != null ? dependencies : Collections.<String>emptyList());
+	}
+
+	/**
+	 * @param chunkEntryPoints A map of chunk names to the qualified name of
+	 * the class at the root of each chunk.
+	 * @return A map of the classes that leave the main chunk to the name of
+	 * the chunk that owns them.
+	 */
+	public Map<String, String> partition(Map<String, String> chunkEntryPoints)
+	{
+		missingEntryPoints.clear();
+		mainEntryPoints.clear();
+
+		HashSet<String> mainClasses = new HashSet<String>();
+		collectReachableClasses(mainName, Collections.<String>emptySet(), mainClasses);
+
+		HashMap<String, String> chunkOwners = new HashMap<String, String>();
+		HashSet<String> sharedClasses = new HashSet<String>();
+		for (Map.Entry<String, String> chunkEntryPoint : chunkEntryPoints.entrySet())
+		{
+			String chunkName = chunkEntryPoint.getKey();
+			String entryPoint = chunkEntryPoint.getValue();
+			if (!dependencies.containsKey(entryPoint))
+			{
+				missingEntryPoints.add(entryPoint);
+				continue;
+			}
+			if (mainClasses.contains(entryPoint))
+			{
+				mainEntryPoints.add(entryPoint);
+				continue;
+			}
+			HashSet<String> chunkClasses = new HashSet<String>();
+			collectReachableClasses(entryPoint, mainClasses, chunkClasses);
+			for (String className : chunkClasses)
+			{
+				String owner = chunkOwners.get(className);
+				if (owner == null)
+					chunkOwners.put(className, chunkName);
+				else if (!owner.equals(chunkName))
+					sharedClasses.add(className);
+			}
+		}
+		chunkOwners.keySet().removeAll(sharedClasses);
+		return chunkOwners;
+	}
+
+	/**
+	 * @return The entry points passed to the last call to partition() that
+	 * are not classes of the application.
+	 */
+	public List<String> getMissingEntryPoints()
+	{
+		return missingEntryPoints;
+	}
+
+	/**
+	 * @return The entry points passed to the last call to partition() that
+	 * the main class requires, and whose chunk is therefore empty.
+	 */
+	public List<String> getMainEntryPoints()
+	{
+		return mainEntryPoints;
+	}
+
+	private void collectReachableClasses(String className, Set<String> excluded, Set<String> result)
+	{
+		Collection<String> deps = dependencies.get(className);
+		if (deps == null || excluded.contains(className) || !result.add(className))
+			return;
+		for (String dep : deps)
+		{
+			if (!dep.startsWith("goog."))
+				collectReachableClasses(dep, excluded, result);
+		}
+	}
+}
@@ -19,16 +19,20 @@
 package org.apache.royale.compiler.internal.graph;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -47,10 +51,12 @@ import org.apache.royale.compiler.internal.projects.DefinitionPriority;
 import org.apache.royale.compiler.internal.projects.DependencyGraph;
 import org.apache.royale.compiler.internal.projects.RoyaleJSProject;
 import org.apache.royale.compiler.problems.FileNotFoundProblem;
+import org.apache.royale.compiler.problems.JSOutputChunkEntryPointProblem;
 import org.apache.royale.compiler.problems.MainDefinitionQNameProblem;
 import org.apache.royale.compiler.problems.UnexpectedExceptionProblem;
 import org.apache.royale.compiler.units.ICompilationUnit;
 import org.apache.royale.compiler.utils.SourceMapUtils;
+import org.apache.royale.compiler.utils.SourceMapWriter;
 import org.apache.royale.swc.ISWC;
 import org.apache.royale.swc.ISWCFileEntry;
 
@@ -157,6 +163,72 @@ public class GoogDepsWriter {
 		return files;
 	}
 
+	/**
+	 * Splits the files returned by getListOfFiles() into Closure Compiler
+	 * chunks. Each entry point owns the classes that are only reachable from
+	 * it. Classes reachable from the main class, or from more than one entry
+	 * point, stay in the main chunk so that the other chunks only depend on
+	 * the main chunk.
+	 *
+	 * @param files The ordered list of files from getListOfFiles().
+	 * @param chunkEntryPoints A map of chunk names to the qualified name of
+	 * the class at the root of each chunk.
+	 * @return The files for each chunk, in their original order. The first
+	 * entry is the main chunk and is keyed by the main class name.
+	 */
+	public Map<String, List<String>> getChunks(List<String> files, Map<String, String> chunkEntryPoints)
+	{
+		GoogChunkPartitioner partitioner = new GoogChunkPartitioner(mainName);
+		for (Map.Entry<String, GoogDep> entry : depMap.entrySet())
+		{
+			GoogDep gd = entry.getValue();
+			ArrayList<String> deps = new ArrayList<String>();
+			// base classes and interfaces must always be loaded before the
+			// subclass, so they are dependencies too
+			if (gd.fileInfo != null && gd.fileInfo.impls != null)
+				deps.addAll(gd.fileInfo.impls);
+			if (gd.deps != null)
+				deps.addAll(gd.deps);
+			partitioner.addClass(entry.getKey(), deps);
+		}
+		Map<String, String> chunkOwners = partitioner.partition(chunkEntryPoints);
+		for (String entryPoint : partitioner.getMissingEntryPoints())
+		{
+			problems.add(new JSOutputChunkEntryPointProblem(entryPoint));
+		}
+		if (verbose)
+		{
+			for (String entryPoint : partitioner.getMainEntryPoints())
+			{
+				System.out.println("Keeping chunk entry point " + entryPoint + " in the main chunk because " + mainName + " requires it");
+			}
+		}
+
+		HashMap<String, String> fileChunks = new HashMap<String, String>();
+		for (Map.Entry<String, String> chunkOwner : chunkOwners.entrySet())
+		{
+			String className = chunkOwner.getKey();
+			fileChunks.put(depMap.get(className).filePath, chunkOwner.getValue());
+			if (verbose)
+			{
+				System.out.println("Moving " + className + " to chunk " + chunkOwner.getValue());
+			}
+		}
+
+		LinkedHashMap<String, List<String>> chunks = new LinkedHashMap<String, List<String>>();
+		chunks.put(mainName, new ArrayList<String>());
+		for (String chunkName : chunkEntryPoints.keySet())
+		{
+			chunks.put(chunkName, new ArrayList<String>());
+		}
+		for (String file : files)
+		{
+			String chunkName = fileChunks.get(file);
+			chunks.get(chunkName != null ? chunkName : mainName).add(file);
+		}
+		return chunks;
+	}
+
 	private void rewriteSourceMapSourceRootForFramework(GoogDep gd)
 	{
 		if (!sourceMaps)
@@ -243,6 +315,19 @@ public class GoogDepsWriter {
 		{
 			return;
 		}
+		try
+		{
+			if (hasSourceRootInHeader(sourceMapFile, "\"sourceRoot\":" + SourceMapWriter.quote(sourceMapsSourceRoot)))
+			{
+				//the compiler already wrote the final source root, so there's no
+				//need to read the rest of the source map
+				return;
+			}
+		}
+		catch(IOException e)
+		{
+			return;
+		}
 		String sourceMapContents = null;
 		try
 		{
@@ -282,6 +367,26 @@ public class GoogDepsWriter {
 		}
 	}
 	
+	/**
+	 * Checks the start of a source map for the given source root property.
+	 * SourceMapWriter writes the source root right after the version and the
+	 * file name, so the mappings don't need to be read to find it.
+	 */
+	private boolean hasSourceRootInHeader(File sourceMapFile, String sourceRootProperty) throws IOException
+	{
+		char[] header = new char[4096 + sourceRootProperty.length()];
+		Reader reader = new InputStreamReader(new FileInputStream(sourceMapFile), Charset.forName("utf8"));
+		try
+		{
+			int length = IOUtils.read(reader, header);
+			return new String(header, 0, length).contains(sourceRootProperty);
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+	
 	public String generateDeps(CompilerProject project, ProblemQuery problems) throws FileNotFoundException
 	{
 		this.project = project;
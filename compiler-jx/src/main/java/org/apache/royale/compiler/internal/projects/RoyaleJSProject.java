@@ -21,6 +21,7 @@ package org.apache.royale.compiler.internal.projects;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -150,8 +151,11 @@ public class RoyaleJSProject extends RoyaleProject
 		            String asDocString = ((ASDocComment)asDoc).commentNoEnd();
 		            if (asDocString.contains(JSRoyaleEmitterTokens.EXTERNS.getToken()))
 		            {
-		            	if (!sourceExterns.contains(defname))
-		            		sourceExterns.add(defname);
+		            	synchronized (sourceExterns)
+		            	{
+		            		if (!sourceExterns.contains(defname))
+		            			sourceExterns.add(defname);
+		            	}
 		            }
 		        }
         	}
@@ -290,18 +294,64 @@ public class RoyaleJSProject extends RoyaleProject
         }
     }
 
-    public boolean needLanguage;
-    public boolean needCSS;
-    public boolean needXML;
+    @Override
+    public void removeDependencies(Collection<ICompilationUnit> units)
+    {
+        super.removeDependencies(units);
+        forgetCompilationUnits(units);
+    }
+
+    @Override
+    public void removeCompilationUnit(ICompilationUnit unit)
+    {
+        super.removeCompilationUnit(unit);
+        forgetCompilationUnits(Collections.singleton(unit));
+    }
+
+    /**
+     * Drops the requires, interfaces and modules recorded for the specified
+     * compilation units, which are recorded again if the units are built
+     * again.
+     */
+    private synchronized void forgetCompilationUnits(Collection<ICompilationUnit> units)
+    {
+        for (ICompilationUnit unit : units)
+        {
+            requires.remove(unit);
+            interfaces.remove(unit);
+            jsModules.remove(unit);
+        }
+    }
+
+    /**
+     * Called when a compilation starts in a project that an earlier
+     * compilation in a shared workspace kept alive. Resets the state that the
+     * emitters collect while a compilation emits every compilation unit. The
+     * state recorded for the dependencies of a compilation unit is kept until
+     * the unit is invalidated.
+     */
+    public synchronized void resetEmitterState()
+    {
+        needLanguage = false;
+        needCSS = false;
+        astCache.clear();
+    }
+
+    // set by the emitters and dependency updates, which may run on several
+    // threads at once
+    public volatile boolean needLanguage;
+    public volatile boolean needCSS;
+    public volatile boolean needXML;
 
     private LinkageChecker linkageChecker;
     private ITargetSettings ts;
 
-    // definitions that had @externs in the source
+    // definitions that had @externs in the source. dependencies may be added
+    // from several threads, so lock the list to modify it
     public ArrayList<String> sourceExterns = new ArrayList<String>();
 
     // swcs that contain referenced externs
-    public Set<ISWC> swcExterns = new HashSet<ISWC>();
+    public Set<ISWC> swcExterns = Collections.synchronizedSet(new HashSet<ISWC>());
     
     // definitions that should be considered external linkage
     public Collection<String> unitTestExterns;
@@ -388,11 +438,8 @@ public class RoyaleJSProject extends RoyaleProject
 
     public boolean isExternalLinkage(ICompilationUnit cu)
     {
-        if (linkageChecker == null)
-        {
-            ts = getTargetSettings();
-            linkageChecker = new LinkageChecker(this, ts);
-        }
+        LinkageChecker linkageChecker = getLinkageChecker();
+        ITargetSettings ts = this.ts;
         // in unit tests, ts may be null and LinkageChecker NPEs
         if (ts == null)
         {
@@ -436,7 +483,17 @@ public class RoyaleJSProject extends RoyaleProject
         return false;
     }
 
-    public ArrayList<String> getInterfaces(ICompilationUnit from)
+    private synchronized LinkageChecker getLinkageChecker()
+    {
+        if (linkageChecker == null)
+        {
+            ts = getTargetSettings();
+            linkageChecker = new LinkageChecker(this, ts);
+        }
+        return linkageChecker;
+    }
+
+    public synchronized ArrayList<String> getInterfaces(ICompilationUnit from)
     {
         if (interfaces.containsKey(from))
         {
@@ -450,7 +507,7 @@ public class RoyaleJSProject extends RoyaleProject
         return null;
     }
 
-    public ArrayList<String> getRequires(ICompilationUnit from)
+    public synchronized ArrayList<String> getRequires(ICompilationUnit from)
     {
         if (requires.containsKey(from))
         {
@@ -464,7 +521,7 @@ public class RoyaleJSProject extends RoyaleProject
         return null;
     }
 
-    public ArrayList<JSModuleRequireDescription> getExternalRequires(ICompilationUnit from)
+    public synchronized ArrayList<JSModuleRequireDescription> getExternalRequires(ICompilationUnit from)
     {
         if (jsModules.containsKey(from))
         {
@@ -505,7 +562,7 @@ public class RoyaleJSProject extends RoyaleProject
     private HashMap<IASNode, String> astCache = new HashMap<IASNode, String>();
 
     @Override
-    public void addToASTCache(IASNode ast)
+    public synchronized void addToASTCache(IASNode ast)
     {
         astCache.put(ast, "");
     }
@@ -514,8 +571,12 @@ public class RoyaleJSProject extends RoyaleProject
     public void setTargetSettings(ITargetSettings value)
     {
         super.setTargetSettings(value);
-        ts = value;
-        linkageChecker = new LinkageChecker(this, value);
+        LinkageChecker linkageChecker = new LinkageChecker(this, value);
+        synchronized (this)
+        {
+            ts = value;
+            this.linkageChecker = linkageChecker;
+        }
         try {
             linkageChecker.initExterns();
         } catch (InterruptedException e) {
@@ -615,7 +676,8 @@ public class RoyaleJSProject extends RoyaleProject
 		return true;
 	}
 
-	private HashSet<String> exportedNames = new HashSet<String>();
+	// added to by the emitters, which may run on several threads at once
+	private Set<String> exportedNames = Collections.synchronizedSet(new HashSet<String>());
 	
 	public List<String> compiledResourceBundleNames = new ArrayList<String>();
 	public List<String> compiledResourceBundleClasses = new ArrayList<String>();
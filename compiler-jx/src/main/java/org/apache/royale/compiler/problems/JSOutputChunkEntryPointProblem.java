@@ -0,0 +1,41 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.problems;
+
+import org.apache.royale.compiler.problems.annotations.DefaultSeverity;
+
+/**
+ * Reported when the entry point of a <code>js-output-chunk</code> is not a
+ * class of the application. The chunk is left empty.
+ */
+@DefaultSeverity(CompilerProblemSeverity.WARNING)
+public final class JSOutputChunkEntryPointProblem extends CompilerProblem
+{
+    public static final String DESCRIPTION =
+        "The entry point ${className} of a js-output-chunk is not a class of the application.";
+
+    public JSOutputChunkEntryPointProblem(String className)
+    {
+        super();
+        this.className = className;
+    }
+
+    public final String className;
+}
@@ -25,7 +25,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
@@ -39,6 +41,7 @@ import com.google.javascript.jscomp.CompilerOptions.LanguageMode;
 import com.google.javascript.jscomp.DependencyOptions;
 import com.google.javascript.jscomp.DependencyOptions.DependencyMode;
 import com.google.javascript.jscomp.DiagnosticGroups;
+import com.google.javascript.jscomp.JSModule;
 import com.google.javascript.jscomp.Result;
 import com.google.javascript.jscomp.RoyaleClosurePassConfig;
 import com.google.javascript.jscomp.RoyaleDiagnosticGroups;
@@ -58,6 +61,8 @@ public class JSClosureCompilerWrapper
         compiler_ = new Compiler();
         jsSourceFiles_ = new ArrayList<SourceFile>();
         jsExternsFiles_ = new ArrayList<SourceFile>();
+        jsChunkSourceFiles_ = new LinkedHashMap<String, List<SourceFile>>();
+        jsChunkEntryPoints_ = new ArrayList<String>();
         
         filterOptions(args);
         
@@ -85,6 +90,8 @@ public class JSClosureCompilerWrapper
     private CompilerOptions options_;
     private List<SourceFile> jsExternsFiles_;
     private List<SourceFile> jsSourceFiles_;
+    private Map<String, List<SourceFile>> jsChunkSourceFiles_;
+    private List<String> jsChunkEntryPoints_;
     private String variableMapOutputPath;
     private String propertyMapOutputPath;
     private String variableMapInputPath;
@@ -118,6 +125,23 @@ public class JSClosureCompilerWrapper
         jsSourceFiles_.add(file);
     }
 
+    /**
+     * Adds a chunk that is written to its own file next to the main output
+     * file. Chunks depend only on the main chunk, and Closure Compiler moves
+     * code that is only used by a chunk out of the main chunk.
+     */
+    public void addJSChunk(String chunkName, String entryPoint)
+    {
+        if (!jsChunkSourceFiles_.containsKey(chunkName))
+            jsChunkSourceFiles_.put(chunkName, new ArrayList<SourceFile>());
+        jsChunkEntryPoints_.add(entryPoint);
+    }
+
+    public void addJSChunkSourceFile(String chunkName, String fileName)
+    {
+        jsChunkSourceFiles_.get(chunkName).add(SourceFile.fromFile(fileName));
+    }
+
     public void setSourceMap(boolean enabled)
     {
         sourceMap = enabled;
@@ -181,24 +205,32 @@ public class JSClosureCompilerWrapper
         		jsSourceFiles_.get(jsSourceFiles_.size() - 1).getName(), 
         		variableMapInputPath == null ? null : new File(outputFolder, variableMapInputPath),
                 propertyNamesToKeep, extraSymbolNamesToExport, preventRenameMxmlSymbolReferences));
-        Result result = compiler_.compile(jsExternsFiles_, jsSourceFiles_, options_);
-        
-        try
+        Result result;
+        if (jsChunkSourceFiles_.isEmpty())
         {
-            FileWriter targetFile = new FileWriter(targetFilePath);
-            targetFile.write(compiler_.toSource());
-            targetFile.close();
+            result = compiler_.compile(jsExternsFiles_, jsSourceFiles_, options_);
+            
+            try
+            {
+                FileWriter targetFile = new FileWriter(targetFilePath);
+                targetFile.write(compiler_.toSource());
+                targetFile.close();
 
-            if (sourceMap)
+                if (sourceMap)
+                {
+                    FileWriter sourceMapFile = new FileWriter(options_.sourceMapOutputPath);
+                    compiler_.getSourceMap().appendTo(sourceMapFile, "");
+                    sourceMapFile.close();
+                }
+            }
+            catch (IOException error)
             {
-                FileWriter sourceMapFile = new FileWriter(options_.sourceMapOutputPath);
-                compiler_.getSourceMap().appendTo(sourceMapFile, "");
-                sourceMapFile.close();
+                System.out.println(error);
             }
         }
-        catch (IOException error)
+        else
         {
-            System.out.println(error);
+            result = compileChunks(outputFolder);
         }
         
         if (variableMapOutputPath != null)
@@ -245,6 +277,56 @@ public class JSClosureCompilerWrapper
         return result.success;
     }    
     
+    private Result compileChunks(File outputFolder)
+    {
+        JSModule mainModule = new JSModule(new File(targetFilePath).getName());
+        for (SourceFile file : jsSourceFiles_)
+            mainModule.add(file);
+        List<JSModule> modules = new ArrayList<JSModule>();
+        modules.add(mainModule);
+        for (Map.Entry<String, List<SourceFile>> chunk : jsChunkSourceFiles_.entrySet())
+        {
+            JSModule module = new JSModule(chunk.getKey());
+            for (SourceFile file : chunk.getValue())
+                module.add(file);
+            module.addDependency(mainModule);
+            modules.add(module);
+        }
+        if (verbose)
+        {
+            for (JSModule module : modules)
+                System.out.println("chunk " + module.getName() + ": " + module.getInputCount() + " files");
+        }
+
+        Result result = compiler_.compileModules(jsExternsFiles_, modules, options_);
+
+        try
+        {
+            for (JSModule module : modules)
+            {
+                File chunkFile = module == mainModule ? new File(targetFilePath)
+                        : new File(outputFolder, module.getName() + ".js");
+                if (sourceMap)
+                    compiler_.getSourceMap().reset();
+                FileWriter targetFile = new FileWriter(chunkFile);
+                targetFile.write(compiler_.toSource(module));
+                targetFile.close();
+
+                if (sourceMap)
+                {
+                    FileWriter sourceMapFile = new FileWriter(chunkFile.getAbsolutePath() + ".map");
+                    compiler_.getSourceMap().appendTo(sourceMapFile, chunkFile.getName());
+                    sourceMapFile.close();
+                }
+            }
+        }
+        catch (IOException error)
+        {
+            System.out.println(error);
+        }
+        return result;
+    }
+    
     @SuppressWarnings( "deprecation" )
     private void initExterns()
     {
@@ -447,7 +529,10 @@ public class JSClosureCompilerWrapper
             
             ArrayList<String> entryPoints = new ArrayList<String>();
             if (manageDependencies)
+            {
             	entryPoints.add(projectName);
+            	entryPoints.addAll(jsChunkEntryPoints_);
+            }
             options_.setDependencyOptions(DependencyOptions.fromFlags(manageDependencies ? DependencyMode.PRUNE_LEGACY : DependencyMode.NONE, 
             				entryPoints, new ArrayList<String>(), null, manageDependencies, false));
             
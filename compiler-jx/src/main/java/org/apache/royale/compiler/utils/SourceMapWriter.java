@@ -0,0 +1,302 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.debugging.sourcemap.FilePosition;
+
+/**
+ * Writes a version 3 source map by encoding each mapping as a Base64 VLQ
+ * segment as soon as it is added, without building the intermediate object
+ * graph that SourceMapGeneratorV3 needs, and without keeping the mappings.
+ * <p>
+ * Mappings must be added in order of their generated start positions, which
+ * is the order in which the emitters produce them. A mapping lasts until the
+ * next one starts. When several mappings start at the same position, the
+ * last one added is written.
+ */
+public class SourceMapWriter
+{
+    private static final char[] BASE64_DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private static final int VLQ_BASE_SHIFT = 5;
+    private static final int VLQ_BASE = 1 << VLQ_BASE_SHIFT;
+    private static final int VLQ_BASE_MASK = VLQ_BASE - 1;
+    private static final int VLQ_CONTINUATION_BIT = VLQ_BASE;
+
+    public SourceMapWriter()
+    {
+    }
+
+    private String sourceRoot;
+
+    private ArrayList<String> sources = new ArrayList<String>();
+    private HashMap<String, Integer> sourceIndices = new HashMap<String, Integer>();
+    private ArrayList<String> names = new ArrayList<String>();
+    private HashMap<String, Integer> nameIndices = new HashMap<String, Integer>();
+
+    private StringBuilder encodedMappings = new StringBuilder();
+
+    // the state of the encoder, relative to which the next segment is written
+    private int line = 0;
+    private int previousColumn = 0;
+    private int previousSource = 0;
+    private int previousSourceLine = 0;
+    private int previousSourceColumn = 0;
+    private int previousName = 0;
+    private boolean firstSegmentInLine = true;
+
+    // the most recently added mapping, which is only written once the next
+    // mapping is known not to start at the same position
+    private boolean hasPending = false;
+    private int pendingSource;
+    private int pendingName;
+    private int pendingSourceLine;
+    private int pendingSourceColumn;
+    private int pendingLine;
+    private int pendingColumn;
+
+    public void setSourceRoot(String value)
+    {
+        sourceRoot = value;
+    }
+
+    public void addMapping(String sourcePath, String name, FilePosition sourceStartPosition,
+            FilePosition destStartPosition, FilePosition destEndPosition)
+    {
+        if (sourcePath == null)
+        {
+            return;
+        }
+        int destLine = destStartPosition.getLine();
+        int destColumn = destStartPosition.getColumn();
+        if (hasPending)
+        {
+            int result = comparePosition(destLine, destColumn, pendingLine, pendingColumn);
+            if (result < 0)
+            {
+                throw new IllegalArgumentException("Mapping at line " + destLine + " and column " + destColumn
+                        + " was added after a mapping at line " + pendingLine + " and column " + pendingColumn);
+            }
+            if (result > 0)
+            {
+                writePendingSegment();
+            }
+        }
+        pendingSource = indexOf(sourcePath, sources, sourceIndices);
+        pendingName = name != null ? indexOf(name, names, nameIndices) : -1;
+        pendingSourceLine = sourceStartPosition.getLine();
+        pendingSourceColumn = sourceStartPosition.getColumn();
+        pendingLine = destLine;
+        pendingColumn = destColumn;
+        hasPending = true;
+    }
+
+    public void appendTo(Appendable out, String fileName) throws IOException
+    {
+        if (hasPending)
+        {
+            writePendingSegment();
+        }
+        out.append("{\n\"version\":3,\n\"file\":");
+        appendString(out, fileName);
+        if (sourceRoot != null)
+        {
+            out.append(",\n\"sourceRoot\":");
+            appendString(out, sourceRoot);
+        }
+        out.append(",\n\"sources\":");
+        appendStrings(out, sources);
+        out.append(",\n\"names\":");
+        appendStrings(out, names);
+        out.append(",\n\"mappings\":\"");
+        out.append(encodedMappings);
+        out.append("\"\n}\n");
+    }
+
+    private void writePendingSegment()
+    {
+        hasPending = false;
+        StringBuilder out = encodedMappings;
+        while (line < pendingLine)
+        {
+            out.append(';');
+            line++;
+            previousColumn = 0;
+            firstSegmentInLine = true;
+        }
+        if (!firstSegmentInLine)
+        {
+            out.append(',');
+        }
+        firstSegmentInLine = false;
+
+        try
+        {
+            appendVLQ(out, pendingColumn - previousColumn);
+            previousColumn = pendingColumn;
+            appendVLQ(out, pendingSource - previousSource);
+            previousSource = pendingSource;
+            appendVLQ(out, pendingSourceLine - previousSourceLine);
+            previousSourceLine = pendingSourceLine;
+            appendVLQ(out, pendingSourceColumn - previousSourceColumn);
+            previousSourceColumn = pendingSourceColumn;
+            if (pendingName != -1)
+            {
+                appendVLQ(out, pendingName - previousName);
+                previousName = pendingName;
+            }
+        }
+        catch (IOException e)
+        {
+            // a StringBuilder never throws
+        }
+    }
+
+    private static int indexOf(String value, List<String> values, HashMap<String, Integer> indices)
+    {
+        Integer index = indices.get(value);
+        if (index == null)
+        {
+            index = values.size();
+            values.add(value);
+            indices.put(value, index);
+        }
+        return index;
+    }
+
+    private static void appendStrings(Appendable out, List<String> values) throws IOException
+    {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++)
+        {
+            if (i > 0)
+            {
+                out.append(',');
+            }
+            appendString(out, values.get(i));
+        }
+        out.append(']');
+    }
+
+    /**
+     * Returns the specified string as a JSON string, escaped the same way as
+     * the strings in the source maps this class writes.
+     */
+    public static String quote(String value)
+    {
+        StringBuilder builder = new StringBuilder();
+        try
+        {
+            appendString(builder, value);
+        }
+        catch (IOException e)
+        {
+            // a StringBuilder never throws
+        }
+        return builder.toString();
+    }
+
+    private static void appendString(Appendable out, String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch (c)
+            {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                    {
+                        String hex = Integer.toHexString(c);
+                        out.append("\\u");
+                        for (int j = hex.length(); j < 4; j++)
+                        {
+                            out.append('0');
+                        }
+                        out.append(hex);
+                    }
+                    else
+                    {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Appends a signed integer as a Base64 VLQ.
+     */
+    public static void appendVLQ(Appendable out, int value) throws IOException
+    {
+        // the sign is stored in the least significant bit
+        int vlq = value < 0 ? ((-value) << 1) + 1 : value << 1;
+        do
+        {
+            int digit = vlq & VLQ_BASE_MASK;
+            vlq >>>= VLQ_BASE_SHIFT;
+            if (vlq > 0)
+            {
+                digit |= VLQ_CONTINUATION_BIT;
+            }
+            out.append(BASE64_DIGITS[digit]);
+        }
+        while (vlq > 0);
+    }
+
+    private static int comparePosition(int line1, int column1, int line2, int column2)
+    {
+        if (line1 != line2)
+        {
+            return line1 < line2 ? -1 : 1;
+        }
+        if (column1 != column2)
+        {
+            return column1 < column2 ? -1 : 1;
+        }
+        return 0;
+    }
+}
@@ -23,11 +23,17 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import junit.framework.Assert;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.apache.royale.compiler.clients.MXMLJSC;
 import org.apache.royale.compiler.driver.IBackend;
 import org.apache.royale.compiler.exceptions.ConfigurationException;
 import org.apache.royale.compiler.internal.codegen.js.goog.TestGoogProject;
@@ -147,6 +153,53 @@ public class TestRoyaleProject extends TestGoogProject
         assertPublishedProjectOut(testDirPath, "circular_proto");
     }
     
+    @Test
+    public void test_ParallelEmit() throws IOException
+    {
+        String testDirPath = projectDirPath + "/circular_proto";
+
+        String fileName = "A.as";
+
+        File sourceFolder = new File(tempDir, "parallel_emit/src");
+        FileUtils.copyDirectory(new File(TestAdapterFactory.getTestAdapter().getUnitTestBaseDir(), testDirPath),
+                sourceFolder, FileFilterUtils.suffixFileFilter(".as"));
+        File outputFolder = new File(tempDir, "parallel_emit/bin/js-debug");
+        int sequentialExitCode = compileParallelEmitProject(new File(sourceFolder, fileName), false);
+        Map<String, String> sequentialOutput = readOutputFiles(outputFolder);
+        FileUtils.deleteDirectory(outputFolder);
+        int parallelExitCode = compileParallelEmitProject(new File(sourceFolder, fileName), true);
+        Map<String, String> parallelOutput = readOutputFiles(outputFolder);
+
+        for (String className : new String[] { "A", "B", "C", "D", "E", "F" })
+            Assert.assertTrue(sequentialOutput.containsKey(className + ".js"));
+        assertThat(parallelExitCode, is(sequentialExitCode));
+        assertThat(parallelOutput, is(sequentialOutput));
+    }
+
+    private int compileParallelEmitProject(File mainFile, boolean parallel)
+    {
+        // Unlike compileAndPublishProject, this uses the js.swc built by
+        // compiler-externc, so that it doesn't need royale-asjs.
+        String jsSwcPath = FilenameNormalization.normalize("../compiler-externc/target/js.swc");
+        List<String> args = new ArrayList<String>();
+        args.add("-external-library-path=" + jsSwcPath);
+        args.add("-remove-circulars");
+        if (env.GOOG != null)
+            args.add("-closure-lib=" + env.GOOG);
+        args.add("-js-parallel-emit=" + parallel);
+        args.add(mainFile.getAbsolutePath());
+        return MXMLJSC.staticMainNoExit(args.toArray(new String[0]));
+    }
+
+    private Map<String, String> readOutputFiles(File outputFolder)
+    {
+        Map<String, String> output = new TreeMap<String, String>();
+        String outputFolderPath = outputFolder.getAbsolutePath() + File.separator;
+        for (File file : FileUtils.listFiles(outputFolder, new String[] { "js", "html" }, true))
+            output.put(file.getAbsolutePath().substring(outputFolderPath.length()), readCodeFile(file));
+        return output;
+    }
+
     @Test
     public void test_XMLRequires()
     {
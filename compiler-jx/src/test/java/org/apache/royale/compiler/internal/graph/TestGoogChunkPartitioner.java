@@ -0,0 +1,110 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestGoogChunkPartitioner
+{
+    private static GoogChunkPartitioner createPartitioner()
+    {
+        GoogChunkPartitioner partitioner = new GoogChunkPartitioner("Main");
+        partitioner.addClass("Main", Arrays.asList("goog.events", "Base", "Util"));
+        partitioner.addClass("Base", Collections.<String>emptyList());
+        partitioner.addClass("Util", null);
+        partitioner.addClass("ModuleA", Arrays.asList("Base", "OnlyA", "Shared"));
+        partitioner.addClass("OnlyA", Arrays.asList("Util"));
+        partitioner.addClass("ModuleB", Arrays.asList("Shared", "OnlyB"));
+        partitioner.addClass("OnlyB", null);
+        partitioner.addClass("Shared", Arrays.asList("SharedDep"));
+        partitioner.addClass("SharedDep", null);
+        return partitioner;
+    }
+
+    @Test
+    public void testOwnedAndSharedClasses()
+    {
+        Map<String, String> entryPoints = new LinkedHashMap<String, String>();
+        entryPoints.put("a", "ModuleA");
+        entryPoints.put("b", "ModuleB");
+
+        Map<String, String> owners = createPartitioner().partition(entryPoints);
+
+        assertEquals(4, owners.size());
+        assertEquals("a", owners.get("ModuleA"));
+        assertEquals("a", owners.get("OnlyA"));
+        assertEquals("b", owners.get("ModuleB"));
+        assertEquals("b", owners.get("OnlyB"));
+        // reachable from both chunks, or from the main class
+        assertTrue(!owners.containsKey("Shared"));
+        assertTrue(!owners.containsKey("SharedDep"));
+        assertTrue(!owners.containsKey("Base"));
+        assertTrue(!owners.containsKey("Util"));
+    }
+
+    @Test
+    public void testEntryPointRequiredByOtherChunk()
+    {
+        GoogChunkPartitioner partitioner = createPartitioner();
+        partitioner.addClass("ModuleA", Arrays.asList("OnlyA", "ModuleB"));
+        Map<String, String> entryPoints = new LinkedHashMap<String, String>();
+        entryPoints.put("a", "ModuleA");
+        entryPoints.put("b", "ModuleB");
+
+        Map<String, String> owners = partitioner.partition(entryPoints);
+
+        // chunk a would otherwise require a class of chunk b
+        assertEquals("a", owners.get("ModuleA"));
+        assertEquals("a", owners.get("OnlyA"));
+        assertTrue(!owners.containsKey("ModuleB"));
+        assertTrue(!owners.containsKey("OnlyB"));
+    }
+
+    @Test
+    public void testEntryPointRequiredByMain()
+    {
+        GoogChunkPartitioner partitioner = createPartitioner();
+        partitioner.addClass("Main", Arrays.asList("Base", "Util", "ModuleB"));
+
+        Map<String, String> owners = partitioner.partition(Collections.singletonMap("b", "ModuleB"));
+
+        assertTrue(owners.isEmpty());
+        assertEquals(Arrays.asList("ModuleB"), partitioner.getMainEntryPoints());
+    }
+
+    @Test
+    public void testMissingEntryPoint()
+    {
+        GoogChunkPartitioner partitioner = createPartitioner();
+
+        Map<String, String> owners = partitioner.partition(Collections.singletonMap("c", "ModuleC"));
+
+        assertTrue(owners.isEmpty());
+        assertEquals(Arrays.asList("ModuleC"), partitioner.getMissingEntryPoints());
+    }
+}
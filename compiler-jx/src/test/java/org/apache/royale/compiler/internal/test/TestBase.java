@@ -821,7 +821,7 @@ public class TestBase implements ITestBase
     }
 
     protected int compileAndPublishProject(String projectFolderPath,
-            String projectName, String mainFileName)
+            String projectName, String mainFileName, String... additionalArgs)
     {
     	String sourceFolderName = tempDir + "/" + projectName + "/src";
         IOFileFilter asFilter = FileFilterUtils.and(FileFileFilter.FILE,
@@ -834,7 +834,7 @@ public class TestBase implements ITestBase
 			// TODO Auto-generated catch block
 			e.printStackTrace();
 		}
-		int numArgs = 3;
+		int numArgs = 3 + additionalArgs.length;
 		if (env.GOOG != null) numArgs++;
 		String[] args = new String[numArgs];
 		File mainFile = new File(sourceFolder, mainFileName);
@@ -844,6 +844,8 @@ public class TestBase implements ITestBase
 		args[index++] = "-remove-circulars";
 		if (env.GOOG != null)
 			args[index++] = "-closure-lib=" + env.GOOG;
+		for (String additionalArg : additionalArgs)
+			args[index++] = additionalArg;
 		args[index++] = mainFile.getAbsolutePath();
 		int exitCode = MXMLJSC.staticMainNoExit(args);
 		return exitCode;
@@ -0,0 +1,111 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.debugging.sourcemap.FilePosition;
+import com.google.debugging.sourcemap.SourceMapConsumerV3;
+import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
+
+public class TestSourceMapWriter
+{
+    @Test
+    public void testVLQ() throws Exception
+    {
+        StringBuilder builder = new StringBuilder();
+        SourceMapWriter.appendVLQ(builder, 0);
+        SourceMapWriter.appendVLQ(builder, 16);
+        SourceMapWriter.appendVLQ(builder, -1);
+        SourceMapWriter.appendVLQ(builder, 123);
+        assertEquals("AgBD2H", builder.toString());
+    }
+
+    @Test
+    public void testMappings() throws Exception
+    {
+        SourceMapWriter writer = new SourceMapWriter();
+        writer.setSourceRoot("file:///src/");
+        writer.addMapping("A.as", "foo", new FilePosition(2, 0),
+                new FilePosition(0, 0), new FilePosition(0, 4));
+        writer.addMapping("A.as", null, new FilePosition(3, 4),
+                new FilePosition(0, 4), new FilePosition(0, 8));
+        writer.addMapping("B.as", null, new FilePosition(10, 2),
+                new FilePosition(2, 0), new FilePosition(2, 5));
+        StringBuilder builder = new StringBuilder();
+        writer.appendTo(builder, "A.js");
+
+        SourceMapConsumerV3 consumer = new SourceMapConsumerV3();
+        consumer.parse(builder.toString());
+        assertEquals("file:///src/", consumer.getSourceRoot());
+
+        OriginalMapping mapping = consumer.getMappingForLine(1, 2);
+        assertEquals("A.as", mapping.getOriginalFile());
+        assertEquals(3, mapping.getLineNumber());
+        assertEquals(1, mapping.getColumnPosition());
+        assertEquals("foo", mapping.getIdentifier());
+
+        mapping = consumer.getMappingForLine(1, 6);
+        assertEquals(4, mapping.getLineNumber());
+        assertEquals(5, mapping.getColumnPosition());
+
+        mapping = consumer.getMappingForLine(3, 1);
+        assertEquals("B.as", mapping.getOriginalFile());
+        assertEquals(11, mapping.getLineNumber());
+        assertEquals(3, mapping.getColumnPosition());
+    }
+
+    @Test
+    public void testSameStartPosition() throws Exception
+    {
+        SourceMapWriter writer = new SourceMapWriter();
+        writer.addMapping("A.as", null, new FilePosition(1, 0),
+                new FilePosition(0, 0), new FilePosition(0, 0));
+        writer.addMapping("A.as", null, new FilePosition(5, 0),
+                new FilePosition(0, 0), new FilePosition(0, 4));
+        StringBuilder builder = new StringBuilder();
+        writer.appendTo(builder, "A.js");
+
+        SourceMapConsumerV3 consumer = new SourceMapConsumerV3();
+        consumer.parse(builder.toString());
+        assertEquals(6, consumer.getMappingForLine(1, 1).getLineNumber());
+        assertTrue(builder.toString().contains("\"mappings\":\"AAKA\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMappingOutOfOrder() throws Exception
+    {
+        SourceMapWriter writer = new SourceMapWriter();
+        writer.addMapping("A.as", null, new FilePosition(1, 0),
+                new FilePosition(1, 0), new FilePosition(1, 4));
+        writer.addMapping("A.as", null, new FilePosition(0, 0),
+                new FilePosition(0, 0), new FilePosition(0, 4));
+    }
+
+    @Test
+    public void testQuote()
+    {
+        assertEquals("\"C:\\\\src\\\\\"", SourceMapWriter.quote("C:\\src\\"));
+        assertEquals("null", SourceMapWriter.quote(null));
+    }
+}
@@ -30,12 +30,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.flex.tools.FlexTool;
 import org.apache.royale.compiler.clients.problems.ProblemFormatter;
 import org.apache.royale.compiler.clients.problems.ProblemPrinter;
 import org.apache.royale.compiler.clients.problems.ProblemQuery;
+import org.apache.royale.compiler.common.VersionInfo;
 import org.apache.royale.compiler.config.Configurator;
 import org.apache.royale.compiler.config.PlayerglobalcConfigurator;
 import org.apache.royale.compiler.targets.ITarget.TargetType;
@@ -71,17 +77,17 @@ class PLAYERGLOBALC implements FlexTool {
 			"DefinitionError", "Error", "EvalError", "int", "Number", "RangeError", "ReferenceError", "RegExp",
 			"SecurityError", "String", "SyntaxError", "TypeError", "uint", "URIError", "VerifyError", "XML", "XMLList");
 	private static final Map<String, String> GLOBAL_CONSTANTS = new HashMap<String, String>();
-	{
+	static {
 		GLOBAL_CONSTANTS.put("Infinity", "1 / 0");
 		GLOBAL_CONSTANTS.put("NaN", "0 / 0");
 		GLOBAL_CONSTANTS.put("undefined", "void 0");
 	}
 	private static final Map<String, List<String>> WRITABLE_VARIABLES = new HashMap<String, List<String>>();
-	{
+	static {
 		WRITABLE_VARIABLES.put("flash.external.ExternalInterface", Arrays.asList("marshallExceptions"));
 	}
 	private static final Map<String, List<String>> REST_METHODS = new HashMap<String, List<String>>();
-	{
+	static {
 		REST_METHODS.put("Array", Arrays.asList("splice"));
 		REST_METHODS.put("__AS3__.vec.Vector$object", Arrays.asList("sort"));
 		REST_METHODS.put("__AS3__.vec.Vector$double", Arrays.asList("sort"));
@@ -89,7 +95,7 @@ class PLAYERGLOBALC implements FlexTool {
 		REST_METHODS.put("__AS3__.vec.Vector$uint", Arrays.asList("sort"));
 	}
 	private static final Map<String, List<String>> NULL_DEFAULT_METHODS = new HashMap<String, List<String>>();
-	{
+	static {
 		NULL_DEFAULT_METHODS.put("Date",
 				Arrays.asList("setFullYear", "setMonth", "setDate", "setHours", "setMinutes", "setSeconds",
 						"setMilliseconds", "setUTCFullYear", "setUTCMonth", "setUTCDate", "setUTCHours",
@@ -98,7 +104,7 @@ class PLAYERGLOBALC implements FlexTool {
 		NULL_DEFAULT_METHODS.put("Object", Arrays.asList("hasOwnProperty", "isPrototypeOf", "propertyIsEnumerable"));
 	}
 	private static final Map<String, List<String>> ANY_METHODS = new HashMap<String, List<String>>();
-	{
+	static {
 		ANY_METHODS.put("Date",
 				Arrays.asList("setFullYear", "setMonth", "setDate", "setHours", "setMinutes", "setSeconds",
 						"setMilliseconds", "setUTCFullYear", "setUTCMonth", "setUTCDate", "setUTCHours",
@@ -113,11 +119,11 @@ class PLAYERGLOBALC implements FlexTool {
 				"processingInstructions", "removeNamespace", "replace", "setChildren", "setName", "setNamespace"));
 	}
 	private static final Map<String, List<String>> ANY_VARIABLES = new HashMap<String, List<String>>();
-	{
+	static {
 		ANY_VARIABLES.put("Object", Arrays.asList("constructor"));
 	}
 	private static final Map<String, List<String>> EXTRA_MEMBERS = new HashMap<String, List<String>>();
-	{
+	static {
 		EXTRA_MEMBERS.put("Array", Arrays.asList("AS3 native function insertAt(index:int, element:*):void",
 				"AS3 native function removeAt(index:int):*"));
 		EXTRA_MEMBERS.put("Function", Arrays.asList("public native function get prototype():*",
@@ -184,6 +190,7 @@ class PLAYERGLOBALC implements FlexTool {
 	private File sourceFolder;
 	private File targetFolder;
 	private File currentFile;
+	private List<String> generatedFiles;
 
 	/**
 	 * Java program entry point.
@@ -200,6 +207,16 @@ class PLAYERGLOBALC implements FlexTool {
 
 	}
 
+	/**
+	 * Creates a copy that parses one file, so that several files can be
+	 * parsed at the same time.
+	 */
+	private PLAYERGLOBALC(PLAYERGLOBALC parent) {
+		configuration = parent.configuration;
+		sourceFolder = parent.sourceFolder;
+		targetFolder = parent.targetFolder;
+	}
+
 	@Override
 	public String getName() {
 		// TODO: Change this to a flex-tool-api constant ...
@@ -256,8 +273,7 @@ class PLAYERGLOBALC implements FlexTool {
 	}
 
 	public void generateSources() throws Exception {
-		preclean();
-
+		List<File> sourceFiles = new ArrayList<File>();
 		for (File sourceFile : sourceFolder.listFiles()) {
 			if (sourceFile.isDirectory()) {
 				continue;
@@ -269,8 +285,115 @@ class PLAYERGLOBALC implements FlexTool {
 			if (sourceFileName.endsWith(".dita.xml")) {
 				continue;
 			}
-			parseFile(sourceFile);
+			sourceFiles.add(sourceFile);
+		}
+
+		PlayerglobalcManifest manifest = new PlayerglobalcManifest(targetFolder, VersionInfo.buildMessage(),
+				configuration.getAir());
+		boolean incremental = manifest.load();
+
+		Map<File, String> hashes = new HashMap<File, String>();
+		Set<String> sourceFileNames = new HashSet<String>();
+		List<File> changedFiles = new ArrayList<File>();
+		for (File sourceFile : sourceFiles) {
+			String sourceFileName = sourceFile.getName();
+			String hash = PlayerglobalcManifest.hash(sourceFile);
+			hashes.put(sourceFile, hash);
+			sourceFileNames.add(sourceFileName);
+			if (!hash.equals(manifest.getInputHash(sourceFileName))) {
+				changedFiles.add(sourceFile);
+				continue;
+			}
+			for (String generatedFile : manifest.getOutputs(sourceFileName)) {
+				if (!new File(targetFolder, generatedFile).exists()) {
+					changedFiles.add(sourceFile);
+					break;
+				}
+			}
+		}
+		List<String> removedFileNames = new ArrayList<String>();
+		for (String sourceFileName : manifest.getInputs()) {
+			if (!sourceFileNames.contains(sourceFileName)) {
+				removedFileNames.add(sourceFileName);
+			}
+		}
+		if (incremental && changedFiles.isEmpty() && removedFileNames.isEmpty()) {
+			// leave the manifest alone, so that its timestamp still tells when
+			// the generated sources last changed
+			return;
+		}
+
+		// an interrupted run must not leave a manifest behind that claims
+		// that the deleted files are up to date
+		manifest.delete();
+		if (!incremental) {
+			preclean();
+		}
+
+		// the files generated from an XML file that changed are deleted before
+		// any are generated again, in case another XML file generates them
+		for (File sourceFile : changedFiles) {
+			deleteGeneratedFiles(manifest, sourceFile.getName());
+		}
+		for (String sourceFileName : removedFileNames) {
+			deleteGeneratedFiles(manifest, sourceFileName);
+			manifest.removeInput(sourceFileName);
+		}
+		List<PLAYERGLOBALC> results = parseFiles(changedFiles);
+		for (int i = 0; i < changedFiles.size(); i++) {
+			File sourceFile = changedFiles.get(i);
+			manifest.setInput(sourceFile.getName(), hashes.get(sourceFile), results.get(i).generatedFiles);
+		}
+		manifest.save();
+	}
+
+	private void deleteGeneratedFiles(PlayerglobalcManifest manifest, String sourceFileName) {
+		for (String generatedFile : manifest.getOutputs(sourceFileName)) {
+			FileUtils.deleteQuietly(new File(targetFolder, generatedFile));
+		}
+	}
+
+	/**
+	 * Parses each file with its own copy of this object, on several threads if
+	 * the threads option is greater than 1.
+	 */
+	private List<PLAYERGLOBALC> parseFiles(List<File> sourceFiles) throws Exception {
+		List<PLAYERGLOBALC> results = new ArrayList<PLAYERGLOBALC>();
+		List<Callable<PLAYERGLOBALC>> tasks = new ArrayList<Callable<PLAYERGLOBALC>>();
+		for (final File sourceFile : sourceFiles) {
+			tasks.add(new Callable<PLAYERGLOBALC>() {
+				@Override
+				public PLAYERGLOBALC call() throws Exception {
+					PLAYERGLOBALC parser = new PLAYERGLOBALC(PLAYERGLOBALC.this);
+					parser.parseFile(sourceFile);
+					return parser;
+				}
+			});
+		}
+		int threads = configuration.getThreads();
+		if (threads <= 1 || tasks.size() <= 1) {
+			for (Callable<PLAYERGLOBALC> task : tasks) {
+				results.add(task.call());
+			}
+			return results;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (Future<PLAYERGLOBALC> future : executor.invokeAll(tasks)) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception) cause;
+					}
+					throw e;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
 		}
+		return results;
 	}
 
 	private void preclean() throws Exception {
@@ -288,6 +411,9 @@ class PLAYERGLOBALC implements FlexTool {
 		fileNameBuilder.append(".as");
 		File targetFile = new File(this.targetFolder, fileNameBuilder.toString());
 		FileUtils.writeStringToFile(targetFile, contents);
+		if (generatedFiles != null) {
+			generatedFiles.add(fileNameBuilder.substring(1));
+		}
 	}
 
 	private boolean isAIROnly(Element prologElement) {
@@ -316,6 +442,7 @@ class PLAYERGLOBALC implements FlexTool {
 
 	private void parseFile(File ditaFile) throws Exception {
 		currentFile = ditaFile;
+		generatedFiles = new ArrayList<String>();
 		String contents = null;
 		try {
 			contents = FileUtils.readFileToString(ditaFile, Charset.forName("utf8"));
@@ -83,4 +83,18 @@ public class PlayerglobalcConfiguration extends Configuration
     {
         air = value;
     }
+
+    private int threads = 1;
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    @Config(advanced = true)
+    @Mapping("threads")
+    public void setThreads(ConfigurationValue cv, int value)
+    {
+        threads = value;
+    }
 }
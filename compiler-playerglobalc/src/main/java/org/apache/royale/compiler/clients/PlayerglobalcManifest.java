@@ -0,0 +1,192 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.clients;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Records which .as files were generated from each ASDoc XML file, and the
+ * hash of the XML file, so that the next run only parses the XML files that
+ * changed. The file is only written when the generated sources change, so the
+ * Maven plugin uses its timestamp to decide whether the library compiled from
+ * them is up to date. It contains one tab separated record per line.
+ *
+ * <pre>
+ * version	&lt;compiler version&gt;
+ * air	&lt;true|false&gt;
+ * input	&lt;SHA-256 of the XML file&gt;	&lt;XML file name&gt;
+ * output	&lt;XML file name&gt;	&lt;path of the .as file, relative to the as-root&gt;
+ * </pre>
+ */
+class PlayerglobalcManifest {
+	public static final String FILE_NAME = ".playerglobalc-manifest";
+
+	private File file;
+	private String version;
+	private boolean air;
+	private Map<String, String> inputHashes = new TreeMap<String, String>();
+	private Map<String, List<String>> outputs = new TreeMap<String, List<String>>();
+	private List<String> loadedLines = Collections.emptyList();
+
+	public PlayerglobalcManifest(File targetFolder, String version, boolean air) {
+		this.file = new File(targetFolder, FILE_NAME);
+		this.version = version;
+		this.air = air;
+	}
+
+	public static String hash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		byte[] bytes = digest.digest(FileUtils.readFileToByteArray(file));
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+			builder.append(Character.forDigit(b & 0xf, 16));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Reads the manifest of the previous run.
+	 *
+	 * @return false if there is no manifest, or if it was written by a
+	 *         different version of the compiler or with a different value for
+	 *         the air option.
+	 */
+	public boolean load() {
+		inputHashes.clear();
+		outputs.clear();
+		loadedLines = Collections.emptyList();
+		if (!file.isFile()) {
+			return false;
+		}
+		List<String> lines;
+		try {
+			lines = FileUtils.readLines(file, "utf8");
+		} catch (IOException e) {
+			return false;
+		}
+		loadedLines = lines;
+		boolean versionMatches = false;
+		boolean airMatches = false;
+		for (String line : lines) {
+			String[] fields = line.split("\t");
+			if (fields.length == 2 && fields[0].equals("version")) {
+				versionMatches = fields[1].equals(version);
+			} else if (fields.length == 2 && fields[0].equals("air")) {
+				airMatches = fields[1].equals(Boolean.toString(air));
+			} else if (fields.length == 3 && fields[0].equals("input")) {
+				inputHashes.put(fields[2], fields[1]);
+			} else if (fields.length == 3 && fields[0].equals("output")) {
+				addOutput(fields[1], fields[2]);
+			}
+		}
+		if (!versionMatches || !airMatches) {
+			inputHashes.clear();
+			outputs.clear();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the manifest, unless the file still has the contents that were
+	 * loaded. The file is only touched when the generated files change, so
+	 * that its modification time tells the Maven plugin when the generated
+	 * sources were last updated.
+	 */
+	public void save() throws IOException {
+		List<String> lines = new ArrayList<String>();
+		lines.add("version\t" + version);
+		lines.add("air\t" + air);
+		for (Map.Entry<String, String> entry : inputHashes.entrySet()) {
+			lines.add("input\t" + entry.getValue() + "\t" + entry.getKey());
+		}
+		for (Map.Entry<String, List<String>> entry : outputs.entrySet()) {
+			List<String> paths = new ArrayList<String>(entry.getValue());
+			Collections.sort(paths);
+			for (String path : paths) {
+				lines.add("output\t" + entry.getKey() + "\t" + path);
+			}
+		}
+		if (file.isFile() && lines.equals(loadedLines)) {
+			return;
+		}
+		FileUtils.writeLines(file, "utf8", lines, "\n");
+		loadedLines = lines;
+	}
+
+	public void delete() {
+		FileUtils.deleteQuietly(file);
+	}
+
+	public Collection<String> getInputs() {
+		return new ArrayList<String>(inputHashes.keySet());
+	}
+
+	public String getInputHash(String input) {
+		return inputHashes.get(input);
+	}
+
+	public Collection<String> getOutputs(String input) {
+		List<String> result = outputs.get(input);
+		if (result == null) {
+			return Collections.emptyList();
+		}
+		return result;
+	}
+
+	/**
+	 * Replaces what was recorded for an XML file.
+	 */
+	public void setInput(String input, String hash, Collection<String> outputPaths) {
+		inputHashes.put(input, hash);
+		outputs.put(input, new ArrayList<String>(outputPaths));
+	}
+
+	public void removeInput(String input) {
+		inputHashes.remove(input);
+		outputs.remove(input);
+	}
+
+	private void addOutput(String input, String path) {
+		List<String> paths = outputs.get(input);
+		if (paths == null) {
+			paths = new ArrayList<String>();
+			outputs.put(input, paths);
+		}
+		paths.add(path);
+	}
+}
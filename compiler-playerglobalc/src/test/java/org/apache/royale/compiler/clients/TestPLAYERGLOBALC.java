@@ -0,0 +1,191 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.clients;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPLAYERGLOBALC {
+	// a time in the past, to tell whether a file was written again
+	private static final long OLD_TIMESTAMP = 1000000000000L;
+
+	private File tempFolder;
+	private File asdocRoot;
+	private File asRoot;
+
+	@Before
+	public void setUp() throws IOException {
+		tempFolder = Files.createTempDirectory("playerglobalc").toFile();
+		asdocRoot = new File(tempFolder, "asdoc");
+		asdocRoot.mkdirs();
+		asRoot = new File(tempFolder, "as");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(tempFolder);
+	}
+
+	@Test
+	public void test_up_to_date_run_writes_nothing() throws IOException {
+		writeXml("a.xml", "A");
+		writeXml("b.xml", "B");
+		generate(asRoot, 1);
+		File manifestFile = new File(asRoot, PlayerglobalcManifest.FILE_NAME);
+		File classFile = new File(asRoot, "test/A.as");
+		assertTrue(manifestFile.setLastModified(OLD_TIMESTAMP));
+		assertTrue(classFile.setLastModified(OLD_TIMESTAMP));
+
+		generate(asRoot, 1);
+
+		assertEquals(OLD_TIMESTAMP, manifestFile.lastModified());
+		assertEquals(OLD_TIMESTAMP, classFile.lastModified());
+	}
+
+	@Test
+	public void test_only_changed_file_is_parsed() throws IOException {
+		writeXml("a.xml", "A");
+		writeXml("b.xml", "B");
+		generate(asRoot, 1);
+		File manifestFile = new File(asRoot, PlayerglobalcManifest.FILE_NAME);
+		File classFileA = new File(asRoot, "test/A.as");
+		File classFileB = new File(asRoot, "test/B.as");
+		assertTrue(manifestFile.setLastModified(OLD_TIMESTAMP));
+		assertTrue(classFileA.setLastModified(OLD_TIMESTAMP));
+		assertTrue(classFileB.setLastModified(OLD_TIMESTAMP));
+
+		writeXml("b.xml", "B", "C");
+		generate(asRoot, 1);
+
+		assertEquals(OLD_TIMESTAMP, classFileA.lastModified());
+		assertTrue(classFileB.lastModified() != OLD_TIMESTAMP);
+		assertTrue(new File(asRoot, "test/C.as").isFile());
+		assertTrue(manifestFile.lastModified() != OLD_TIMESTAMP);
+	}
+
+	@Test
+	public void test_outputs_of_removed_file_are_deleted() throws IOException {
+		writeXml("a.xml", "A");
+		writeXml("b.xml", "B", "C");
+		generate(asRoot, 1);
+
+		assertTrue(new File(asdocRoot, "b.xml").delete());
+		generate(asRoot, 1);
+
+		assertTrue(new File(asRoot, "test/A.as").isFile());
+		assertFalse(new File(asRoot, "test/B.as").exists());
+		assertFalse(new File(asRoot, "test/C.as").exists());
+	}
+
+	@Test
+	public void test_deleted_output_is_generated_again() throws IOException {
+		writeXml("a.xml", "A");
+		generate(asRoot, 1);
+
+		assertTrue(new File(asRoot, "test/A.as").delete());
+		generate(asRoot, 1);
+
+		assertTrue(new File(asRoot, "test/A.as").isFile());
+	}
+
+	@Test
+	public void test_different_version_generates_everything() throws IOException {
+		writeXml("a.xml", "A");
+		generate(asRoot, 1);
+		File manifestFile = new File(asRoot, PlayerglobalcManifest.FILE_NAME);
+		List<String> lines = FileUtils.readLines(manifestFile, "utf8");
+		lines.set(0, "version\tother");
+		FileUtils.writeLines(manifestFile, "utf8", lines, "\n");
+		File strayFile = new File(asRoot, "test/Stray.as");
+		FileUtils.writeStringToFile(strayFile, "stray");
+
+		generate(asRoot, 1);
+
+		assertFalse(strayFile.exists());
+		assertTrue(new File(asRoot, "test/A.as").isFile());
+		assertFalse(FileUtils.readLines(manifestFile, "utf8").get(0).equals("version\tother"));
+	}
+
+	@Test
+	public void test_parallel_output_matches_sequential_output() throws IOException {
+		for (int i = 0; i < 8; i++) {
+			writeXml("file" + i + ".xml", "A" + i, "B" + i, "C" + i);
+		}
+		File sequentialRoot = new File(tempFolder, "sequential");
+		File parallelRoot = new File(tempFolder, "parallel");
+
+		generate(sequentialRoot, 1);
+		generate(parallelRoot, 4);
+
+		List<String> sequentialFiles = listFiles(sequentialRoot);
+		assertEquals(8 * 3 + 1, sequentialFiles.size());
+		assertEquals(sequentialFiles, listFiles(parallelRoot));
+		for (String path : sequentialFiles) {
+			assertEquals(path, FileUtils.readFileToString(new File(sequentialRoot, path), "utf8"),
+					FileUtils.readFileToString(new File(parallelRoot, path), "utf8"));
+		}
+	}
+
+	private void writeXml(String fileName, String... classNames) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		builder.append("<apiPackage id=\"test\">\n");
+		for (String className : classNames) {
+			builder.append("\t<apiClassifier id=\"test:");
+			builder.append(className);
+			builder.append("\">\n");
+			builder.append("\t\t<apiName>");
+			builder.append(className);
+			builder.append("</apiName>\n");
+			builder.append("\t\t<apiClassifierDetail><apiClassifierDef/></apiClassifierDetail>\n");
+			builder.append("\t</apiClassifier>\n");
+		}
+		builder.append("</apiPackage>\n");
+		FileUtils.writeStringToFile(new File(asdocRoot, fileName), builder.toString(), "utf8");
+	}
+
+	private void generate(File targetFolder, int threads) {
+		PLAYERGLOBALC compiler = new PLAYERGLOBALC();
+		int exitCode = compiler.execute(new String[] { "-asdoc-root=" + asdocRoot.getAbsolutePath(),
+				"-as-root=" + targetFolder.getAbsolutePath(), "-threads=" + threads });
+		assertEquals(PLAYERGLOBALC.ExitCode.SUCCESS.code, exitCode);
+	}
+
+	private static List<String> listFiles(File folder) {
+		List<String> result = new ArrayList<String>();
+		for (File file : FileUtils.listFiles(folder, null, true)) {
+			result.add(folder.toURI().relativize(file.toURI()).getPath());
+		}
+		Collections.sort(result);
+		return result;
+	}
+}
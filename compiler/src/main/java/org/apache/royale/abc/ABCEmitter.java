@@ -99,6 +99,7 @@ import static org.apache.royale.abc.ABCConstants.TRAIT_Var;
 
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -339,9 +340,8 @@ public final class ABCEmitter implements IABCVisitor
         w.writeU30(this.stringPool.getNominalSize());
         for (String s : this.stringPool.getValues())
         {
-            byte[] stringBytes = s.getBytes("UTF-8");
-            w.writeU30(stringBytes.length);
-            w.write(stringBytes);
+            w.writeU30(ABCWriter.sizeOfUTF8(s));
+            w.writeUTF8(s);
         }
 
         w.writeU30(this.nsPool.getNominalSize());
@@ -1030,11 +1030,127 @@ public final class ABCEmitter implements IABCVisitor
 
     static class ABCWriter extends ByteArrayOutputStream
     {
+        /**
+         * Write a byte without the synchronization of
+         * {@link ByteArrayOutputStream#write(int)}; an ABCWriter is only ever
+         * used by one thread, and it writes almost everything a byte at a time.
+         */
+        @Override
+        public void write(int b)
+        {
+            if (count == buf.length)
+                grow(count + 1);
+            buf[count++] = (byte)b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+            if (count + len > buf.length)
+                grow(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void grow(int minCapacity)
+        {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+        }
+
         void rewind(int n)
         {
             super.count -= n;
         }
 
+        /**
+         * Write a string as UTF-8 directly into the buffer, without the
+         * temporary byte array of {@link String#getBytes(String)}.
+         * Unpaired surrogates are written as '?', as getBytes() does.
+         */
+        void writeUTF8(String s)
+        {
+            final int length = s.length();
+            if (count + length * 3 > buf.length)
+                grow(count + length * 3);
+
+            final byte[] buf = this.buf;
+            int pos = count;
+            for (int i = 0; i < length; i++)
+            {
+                final char c = s.charAt(i);
+                if (c < 0x80)
+                {
+                    buf[pos++] = (byte)c;
+                }
+                else if (c < 0x800)
+                {
+                    buf[pos++] = (byte)(0xC0 | (c >> 6));
+                    buf[pos++] = (byte)(0x80 | (c & 0x3F));
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1)))
+                    {
+                        final int cp = Character.toCodePoint(c, s.charAt(++i));
+                        buf[pos++] = (byte)(0xF0 | (cp >> 18));
+                        buf[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                        buf[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                        buf[pos++] = (byte)(0x80 | (cp & 0x3F));
+                    }
+                    else
+                    {
+                        buf[pos++] = '?';
+                    }
+                }
+                else
+                {
+                    buf[pos++] = (byte)(0xE0 | (c >> 12));
+                    buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte)(0x80 | (c & 0x3F));
+                }
+            }
+            count = pos;
+        }
+
+        /**
+         * @return the number of bytes {@link #writeUTF8(String)} writes for
+         * the specified string.
+         */
+        static int sizeOfUTF8(String s)
+        {
+            final int length = s.length();
+            int size = 0;
+            for (int i = 0; i < length; i++)
+            {
+                final char c = s.charAt(i);
+                if (c < 0x80)
+                {
+                    size++;
+                }
+                else if (c < 0x800)
+                {
+                    size += 2;
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1)))
+                    {
+                        i++;
+                        size += 4;
+                    }
+                    else
+                    {
+                        size++;
+                    }
+                }
+                else
+                {
+                    size += 3;
+                }
+            }
+            return size;
+        }
+
         void writeU16(int i)
         {
             write(i);
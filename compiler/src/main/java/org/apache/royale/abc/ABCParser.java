@@ -49,6 +49,22 @@ public class ABCParser
      */
     byte[] abc;
 
+    /**
+     * Index of the first byte of the ABC in {@link #abc}.
+     */
+    private final int abcOffset;
+
+    /**
+     * When true, the method bodies are not read.
+     */
+    private boolean skipMethodBodies = false;
+
+    /**
+     * The table the strings in the string pool are interned in, or null if
+     * they are not interned.
+     */
+    private SymbolTable symbolTable = null;
+
     /*
      * Local copies of the pool data are maintained because the core's pools may
      * contain data from several ABCs, and so the constant pool indices
@@ -122,8 +138,21 @@ public class ABCParser
      * @param abc - the ABC in byte array form.
      */
     public ABCParser(byte[] abc)
+    {
+        this(abc, 0);
+    }
+
+    /**
+     * Construct a new ABC parser from a range of a byte array, such as the
+     * body of the SWF that contains the ABC. The array is not copied.
+     * 
+     * @param abc - an array that contains the ABC.
+     * @param offset - the index of the first byte of the ABC.
+     */
+    public ABCParser(byte[] abc, int offset)
     {
         this.abc = abc;
+        this.abcOffset = offset;
     }
 
     /**
@@ -145,6 +174,37 @@ public class ABCParser
         }
 
         this.abc = bufferedABC.toByteArray();
+        this.abcOffset = 0;
+    }
+
+    /**
+     * Set whether the method bodies are read. Clients that only need the
+     * definitions in the ABC, such as the scope builder for a library, can
+     * skip them. The bodies are read again from the ABC bytes when the ABC
+     * is parsed by a client that needs them, such as the {@link ABCLinker}.
+     * <p>
+     * When the method bodies are skipped, the method visitors are ended
+     * without visiting their bodies.
+     * 
+     * @param skip - true if the method bodies should not be read.
+     */
+    public void setSkipMethodBodies(boolean skip)
+    {
+        this.skipMethodBodies = skip;
+    }
+
+    /**
+     * Set the table the strings in the string pool are interned in. Clients
+     * that keep the parsed names alive, such as the scope builder for a
+     * library, should intern them so that the names shared by many ABC blocks
+     * are only stored once.
+     * 
+     * @param symbolTable - the table to intern the strings in, or null if the
+     * strings should not be interned.
+     */
+    public void setSymbolTable(SymbolTable symbolTable)
+    {
+        this.symbolTable = symbolTable;
     }
 
     /**
@@ -156,7 +216,7 @@ public class ABCParser
     {
         int pool_size;
 
-        ABCReader p = new ABCReader(0, abc);
+        ABCReader p = new ABCReader(abcOffset, abc);
         int minor = p.readU16();
         int major = p.readU16();
 
@@ -206,6 +266,8 @@ public class ABCParser
             try
             {
                 strings[i] = new String(abc, p.pos, len, "UTF-8");
+                if (symbolTable != null)
+                    strings[i] = symbolTable.intern(strings[i]);
             }
             catch (UnsupportedEncodingException badEncoding)
             {
@@ -371,17 +433,22 @@ public class ABCParser
             else
             {
                 p.readU30();
-                readTraits(p, NilVisitors.NIL_TRAITS_VISITOR);
+                skipTraits(p);
             }
         }
 
-        if (verbose)
-        	output.println("parsing method bodies pool");
-        
-        int n_method_bodies = p.readU30();
-        for (int i = 0; i < n_method_bodies; i++)
+        //  The method bodies are the last section of the ABC,
+        //  so nothing needs to be skipped to stop here.
+        if (!skipMethodBodies)
         {
-            readBody(vabc, p);
+            if (verbose)
+            	output.println("parsing method bodies pool");
+
+            int n_method_bodies = p.readU30();
+            for (int i = 0; i < n_method_bodies; i++)
+            {
+                readBody(vabc, p);
+            }
         }
 
         for (int i = 0; i < n_methods; ++i)
@@ -607,7 +674,7 @@ public class ABCParser
                 }
                 default:
                 {
-                    throw new IllegalArgumentException(String.format("illegal trait kind 0x%h at offset %d", kind, p.pos));
+                    throw new IllegalArgumentException(String.format("illegal trait kind 0x%h at offset %d", kind, p.pos - abcOffset));
                 }
             }
 
@@ -643,6 +710,56 @@ public class ABCParser
         traits_visitor.visitEnd();
     }
 
+    /**
+     * Skip over traits without resolving their pool entries. This is cheaper
+     * than reading them with a nil visitor, which still looks up every name
+     * and default value.
+     */
+    void skipTraits(ABCReader p)
+    {
+        final int n_traits = p.readU30();
+        for (int i = 0; i < n_traits; i++)
+        {
+            p.readU30(); // name
+            final int tag = p.readU8();
+            final int kind = tag & ABCConstants.TRAIT_KIND_MASK;
+
+            switch (kind)
+            {
+                case TRAIT_Var:
+                case TRAIT_Const:
+                {
+                    p.readU30(); // slot id
+                    p.readU30(); // type name
+                    if (p.readU30() != 0) // value index
+                        p.readU8(); // value kind
+                    break;
+                }
+                case TRAIT_Class:
+                case TRAIT_Method:
+                case TRAIT_Getter:
+                case TRAIT_Setter:
+                case TRAIT_Function:
+                {
+                    p.readU30(); // slot id or disp id
+                    p.readU30(); // class or method index
+                    break;
+                }
+                default:
+                {
+                    throw new IllegalArgumentException(String.format("illegal trait kind 0x%h at offset %d", kind, p.pos - abcOffset));
+                }
+            }
+
+            if (traitHasMetadata(tag))
+            {
+                final int n_entries = p.readU30();
+                for (int j = 0; j < n_entries; j++)
+                    p.readU30();
+            }
+        }
+    }
+
     /**
      * High 4 bits of the kind byte: 0x04: (1=has metadata,0=no metadata)
      */
@@ -776,7 +893,7 @@ public class ABCParser
         //  Record the position of these traits, then skip past them.
         //  They'll be re-read when the class' IClassVisitor is initialized.
         classInfoToTraits.put(cinfo, p.pos);
-        readTraits(p, NilVisitors.NIL_TRAITS_VISITOR);
+        skipTraits(p);
 
         return cinfo;
     }
@@ -806,17 +923,30 @@ public class ABCParser
         //  InstanceInfo in its constructor, and  read 
         //  the traits with a nil visitor to skip them.
         instanceInfoToTraits.put(iinfo, p.pos);
-        readTraits(p, NilVisitors.NIL_TRAITS_VISITOR);
+        skipTraits(p);
 
         return iinfo;
     }
 
     void readBody(IABCVisitor vabc, ABCReader p)
     {
-        MethodBodyInfo mb = new MethodBodyInfo();
-
         int method_id = p.readU30();
 
+        //  Skip the body by its length if nobody visits it.
+        if (this.readPool(methodVisitors, method_id, "methodVisitor") == null)
+        {
+            p.readU30(); // max_stack
+            p.readU30(); // max_local
+            p.readU30(); // initial_scope
+            p.readU30(); // max_scope
+            p.pos += p.readU30(); // code_len
+            skipExceptions(p);
+            skipTraits(p);
+            return;
+        }
+
+        MethodBodyInfo mb = new MethodBodyInfo();
+
         mb.max_stack = p.readU30();
         mb.max_local = p.readU30();
         mb.initial_scope = p.readU30();
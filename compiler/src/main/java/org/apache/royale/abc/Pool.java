@@ -20,8 +20,6 @@
 package org.apache.royale.abc;
 
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
 
 /**
  * Abstract representation of an ABC pool.
@@ -45,9 +43,21 @@ public final class Pool<T>
     }
 
     /**
-     * The pool's elements mapped to their positions for quicker lookup.
+     * Initial capacity of the lookup table; must be a power of two.
      */
-    final Map<T, Integer> refs = new HashMap<T, Integer>();
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The pool's elements, hashed with open addressing for quicker lookup.
+     * Positions are kept in the parallel {@link #ids} array rather than in a
+     * map, so that adding or looking up an element does not box its position.
+     */
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The positions of the elements in {@link #keys}.
+     */
+    private int[] ids = new int[INITIAL_CAPACITY];
 
     /**
      * The Pool's elements in entry order.
@@ -77,8 +87,6 @@ public final class Pool<T>
      */
     public int add(T e)
     {
-        int result;
-
         if (null == e)
         {
             if (this.hasDefaultZero)
@@ -86,23 +94,81 @@ public final class Pool<T>
             else
                 throw new NullPointerException();
         }
-        else
+
+        final int mask = keys.length - 1;
+        int slot = hash(e) & mask;
+        Object key;
+        while ((key = keys[slot]) != null)
         {
-            Integer cached_value = refs.get(e);
+            if (key.equals(e))
+                return ids[slot];
+            slot = (slot + 1) & mask;
+        }
 
-            if (cached_value != null)
-            {
-                result = cached_value;
-            }
-            else
+        final int result = size();
+        values.add(e);
+        keys[slot] = e;
+        ids[slot] = result;
+
+        // Keep the table at most half full so probe sequences stay short.
+        if (values.size() * 2 > keys.length)
+            rehash();
+
+        return result;
+    }
+
+    /**
+     * @param e - the element of interest.
+     * @return the element's position in the table, or -1 if it isn't in the
+     * pool.
+     */
+    private int find(Object e)
+    {
+        final int mask = keys.length - 1;
+        int slot = hash(e) & mask;
+        Object key;
+        while ((key = keys[slot]) != null)
+        {
+            if (key.equals(e))
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Doubles the size of the lookup table.
+     */
+    private void rehash()
+    {
+        final Object[] oldKeys = keys;
+        final int[] oldIds = ids;
+        keys = new Object[oldKeys.length * 2];
+        ids = new int[oldKeys.length * 2];
+
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            final Object key = oldKeys[i];
+            if (key != null)
             {
-                values.add(e);
-                result = size();
-                refs.put(e, result);
+                int slot = hash(key) & mask;
+                while (keys[slot] != null)
+                    slot = (slot + 1) & mask;
+                keys[slot] = key;
+                ids[slot] = oldIds[i];
             }
         }
+    }
 
-        return result;
+    /**
+     * Spreads the element's hash code, since linear probing on a power of
+     * two table only looks at its low bits.
+     */
+    private static int hash(Object e)
+    {
+        final int h = e.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     /**
@@ -120,17 +186,20 @@ public final class Pool<T>
      */
     public int id(T e)
     {
-        if (null == e && this.hasDefaultZero)
-            return 0;
-        
-        Integer result = refs.get(e);
-        
-        if (result == null) {
-            String msg = (e != null) ? e.toString() : "-none-";
-            throw new IllegalArgumentException("Unknown pool item \"" + msg + "\"");
+        if (null == e)
+        {
+            if (this.hasDefaultZero)
+                return 0;
         }
-        
-        return result;
+        else
+        {
+            final int slot = find(e);
+            if (slot != -1)
+                return ids[slot];
+        }
+
+        String msg = (e != null) ? e.toString() : "-none-";
+        throw new IllegalArgumentException("Unknown pool item \"" + msg + "\"");
     }
 
     /**
@@ -139,7 +208,7 @@ public final class Pool<T>
      */
     public int size()
     {
-        return (hasDefaultZero ? 1 : 0) + refs.size();
+        return (hasDefaultZero ? 1 : 0) + values.size();
     }
 
     /**
@@ -158,17 +227,17 @@ public final class Pool<T>
         
         if ((hasDefaultZero) && (poolSize == 1))
         {
-            assert refs.size() == 0 : "pool collection for pool with default zero entry should be empty when computed pool size is 1";
+            assert values.size() == 0 : "pool collection for pool with default zero entry should be empty when computed pool size is 1";
             return 0;
         }
         
-        assert ((!hasDefaultZero) && (poolSize == refs.size())) || ((hasDefaultZero) && (poolSize == (refs.size() + 1))) : "size of pool collection does not match computed size of pool";
+        assert ((!hasDefaultZero) && (poolSize == values.size())) || ((hasDefaultZero) && (poolSize == (values.size() + 1))) : "size of pool collection does not match computed size of pool";
         return poolSize;
     }
 
     @Override
     public String toString()
     {
-        return String.valueOf(refs);
+        return String.valueOf(values);
     }
 }
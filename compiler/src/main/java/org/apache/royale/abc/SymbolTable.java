@@ -0,0 +1,71 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.abc;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * A table of the names read from the string pools of library ABC.
+ * <p>
+ * Interning a name returns the canonical {@code String} with the same
+ * characters, so a name that is used by many definitions, such as the name of
+ * a type or of a package, is stored once. The definition stores and the
+ * scope caches are keyed by these names, so their keys are shared as well.
+ * <p>
+ * Each workspace owns one table, and hands it to the {@link ABCParser}s that
+ * build its library scopes. Lookups of names that are already in the table
+ * don't lock, and additions only lock one of the table's segments, so the
+ * libraries can be read in parallel. The table only holds weak references, so
+ * a name is garbage collected once no definition refers to it.
+ */
+public final class SymbolTable
+{
+    /**
+     * Create a table that can be updated by as many threads as there are
+     * processors without contention.
+     */
+    public SymbolTable()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param concurrencyLevel The number of threads that are expected to add
+     * names at the same time.
+     */
+    public SymbolTable(int concurrencyLevel)
+    {
+        names = Interners.newBuilder().weak().concurrencyLevel(Math.max(1, concurrencyLevel)).build();
+    }
+
+    private final Interner<String> names;
+
+    /**
+     * @param name A name, or <code>null</code>.
+     * @return The canonical instance of the name, or <code>null</code>.
+     */
+    public String intern(String name)
+    {
+        if (name == null)
+            return null;
+        return names.intern(name);
+    }
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.royale.compiler.Messages;
@@ -34,12 +35,15 @@ import org.apache.royale.compiler.config.ICompilerSettingsConstants;
 import org.apache.royale.compiler.exceptions.ConfigurationException;
 import org.apache.royale.compiler.internal.projects.RoyaleProjectConfigurator;
 import org.apache.royale.compiler.internal.targets.SWFTarget;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
 import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.problems.MissingRequirementConfigurationProblem;
 import org.apache.royale.compiler.targets.ISWCTarget;
 import org.apache.royale.compiler.targets.ITargetSettings;
 import org.apache.royale.compiler.targets.ITarget.TargetType;
 import org.apache.royale.swc.ISWC;
+import org.apache.royale.swc.ISWCFileEntry;
+import org.apache.royale.swc.SWC;
 import org.apache.royale.swc.io.ISWCWriter;
 import org.apache.royale.swc.io.SWCDirectoryWriter;
 import org.apache.royale.swc.io.SWCWriter;
@@ -93,6 +97,38 @@ public class COMPC extends MXMLC implements FlexTool
      * SWC file.
      */
     private String swcOutputMessage;
+
+    public COMPC()
+    {
+        super();
+    }
+
+    /**
+     * Creates a compiler that builds in the specified workspace. A shared
+     * workspace is not closed when the compilation completes.
+     * 
+     * @param sharedWorkspace The workspace to build in, or <code>null</code>
+     * to create a workspace for this compilation only.
+     */
+    public COMPC(Workspace sharedWorkspace)
+    {
+        super(sharedWorkspace);
+    }
+
+    private final List<ISWCFileEntry> additionalFiles = new ArrayList<ISWCFileEntry>();
+
+    /**
+     * Adds files that were generated by another compiler, such as the
+     * JavaScript files of a hybrid SWC. They are written into the SWC with
+     * the library and listed in its catalog, so that the SWC doesn't have
+     * to be rewritten afterwards.
+     * 
+     * @param files The files to add to the SWC.
+     */
+    public void addFiles(Collection<ISWCFileEntry> files)
+    {
+        additionalFiles.addAll(files);
+    }
     
     @Override
     public boolean configure(String[] args)
@@ -170,6 +206,11 @@ public class COMPC extends MXMLC implements FlexTool
             	System.out.println("got errors creating target in compc");
             return;
         }
+
+        for (ISWCFileEntry file : additionalFiles)
+        {
+            ((SWC)swc).addFile(file);
+        }
         
         boolean useCompression = targetSettings.useCompression();
         if (config.getOutputSwcAsDirectory())
@@ -79,7 +79,6 @@ import org.apache.royale.compiler.problems.FileIOProblem;
 import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.problems.InternalCompilerProblem;
 import org.apache.royale.compiler.problems.UnableToBuildSWFProblem;
-import org.apache.royale.compiler.projects.ICompilerProject;
 import org.apache.royale.compiler.targets.ISWFTarget;
 import org.apache.royale.compiler.targets.ITargetReport;
 import org.apache.royale.compiler.targets.ITargetSettings;
@@ -398,12 +397,35 @@ public class MXMLC implements FlexTool
 
     public MXMLC()
     {
-        workspace = new Workspace();
-        project = new RoyaleProject(workspace);
+        this(null);
+    }
+
+    /**
+     * Creates a compiler that builds in the specified workspace. A shared
+     * workspace is not closed when the compilation completes, and neither is
+     * the project, so the next compilation by the same compiler reuses the
+     * libraries and the compilation units of the files that did not change.
+     * 
+     * @param sharedWorkspace The workspace to build in, or <code>null</code>
+     * to create a workspace for this compilation only.
+     */
+    public MXMLC(Workspace sharedWorkspace)
+    {
+        isWorkspaceShared = sharedWorkspace != null;
+        workspace = isWorkspaceShared ? sharedWorkspace : new Workspace();
+        if (isWorkspaceShared)
+            project = (RoyaleProject) workspace.getSharedProject(getClass().getName());
+        if (project == null)
+        {
+            project = new RoyaleProject(workspace);
+            if (isWorkspaceShared)
+                workspace.setSharedProject(getClass().getName(), project);
+        }
         problems = new ProblemQuery();
     }
 
     protected Workspace workspace;
+    protected boolean isWorkspaceShared;
     protected RoyaleProject project;
     public Configuration config;
     public ProblemQuery problems;
@@ -434,15 +456,12 @@ public class MXMLC implements FlexTool
      */
     protected void waitAndClose()
     {
-        workspace.startIdleState();
-        try
-        {
-            workspace.close();
-        }
-        finally
-        {
-            workspace.endIdleState(Collections.<ICompilerProject, Set<ICompilationUnit>>emptyMap());
-        }
+        // the next compilation in a shared project creates a new generated
+        // main compilation unit, so this one must not stay in the project
+        if (isWorkspaceShared && (mainCU instanceof StyleModuleCompilationUnit
+                || mainCU instanceof ResourceModuleCompilationUnit))
+            project.removeCompilationUnits(Collections.singleton(mainCU));
+        workspace.endCompilation(project, isWorkspaceShared);
     }
 
     /**
@@ -474,6 +493,8 @@ public class MXMLC implements FlexTool
     public boolean configure(final String[] args)
     {
         projectConfigurator = createConfigurator();
+        if (isWorkspaceShared)
+            projectConfigurator.setConfigurationCache(workspace.getConfigurationCache());
         
         try
         {
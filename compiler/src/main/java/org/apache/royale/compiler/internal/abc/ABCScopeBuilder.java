@@ -32,6 +32,7 @@ import java.util.Vector;
 
 import org.apache.royale.abc.ABCConstants;
 import org.apache.royale.abc.ABCParser;
+import org.apache.royale.abc.SymbolTable;
 import org.apache.royale.abc.semantics.ClassInfo;
 import org.apache.royale.abc.semantics.InstanceInfo;
 import org.apache.royale.abc.semantics.MethodInfo;
@@ -183,6 +184,26 @@ public class ABCScopeBuilder extends NilABCVisitor
                            final byte[] abcData,
                            final String path,
                            final IFileScopeProvider fileScopeProvider)
+    {
+        this(workspace, abcData, 0, path, fileScopeProvider);
+    }
+
+    /**
+     * Create an ABCScopeBuilder from ABC byte code data that is a range of a
+     * larger array, such as the body of a library SWF.
+     * 
+     * @param workspace workspace
+     * @param abcData array that contains the ABC byte code data.
+     * @param abcOffset index of the first byte of the ABC byte code data.
+     * @param path path of the file that contains the abc data.
+     * @param fileScopeProvider callback that creates {@code ASFileScope}
+     * objects.
+     */
+    public ABCScopeBuilder(final IWorkspace workspace,
+                           final byte[] abcData,
+                           final int abcOffset,
+                           final String path,
+                           final IFileScopeProvider fileScopeProvider)
     {
         checkNotNull(workspace, "Workspace can't be null.");
         checkNotNull(abcData, "ABC data can't be null.");
@@ -191,7 +212,16 @@ public class ABCScopeBuilder extends NilABCVisitor
 
         scopes = new ArrayList<IASScope>();
         classDefinitions = new HashMap<ClassInfo, TypeDefinitionBase>();
-        abcParser = new ABCParser(abcData);
+        abcParser = new ABCParser(abcData, abcOffset);
+        // Only the definitions are needed to build the scopes. The method
+        // bodies are read from the ABC bytes again if the library is linked.
+        abcParser.setSkipMethodBodies(true);
+        // The names in the ABC end up in the definitions, which live as
+        // long as the workspace, so share them with the other libraries.
+        // Definitions built from source are not interned, because they are
+        // rebuilt whenever the file changes.
+        symbolTable = ((Workspace)workspace).getSymbolTable();
+        abcParser.setSymbolTable(symbolTable);
         namespacesMap = new HashMap<Namespace, INamespaceDefinition>();
         nameMap = new HashMap<Name, IReference>();
         this.workspace = workspace;
@@ -201,6 +231,7 @@ public class ABCScopeBuilder extends NilABCVisitor
 
     private final IFileScopeProvider fileScopeProvider;
     private final ABCParser abcParser;
+    private final SymbolTable symbolTable;
     private final List<IASScope> scopes;
 
     // This is the class definition pool.
@@ -325,7 +356,7 @@ public class ABCScopeBuilder extends NilABCVisitor
             else
             {
                 String classNSURI = namespace.getName();
-                protectedNSURI = (classNSURI.isEmpty() ? "" : classNSURI + ":") + typeName;
+                protectedNSURI = symbolTable.intern((classNSURI.isEmpty() ? "" : classNSURI + ":") + typeName);
             }
             NamespaceDefinition.IProtectedNamespaceDefinition protectedNSDefinition = NamespaceDefinition.createProtectedNamespaceDefinition(protectedNSURI);
             
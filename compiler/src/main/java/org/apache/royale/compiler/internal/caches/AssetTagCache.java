@@ -27,7 +27,6 @@ import org.apache.royale.swc.ISWC;
 import org.apache.royale.swc.ISWCScript;
 import org.apache.royale.swc.SWCManager;
 import org.apache.royale.swf.ITagContainer;
-import org.apache.royale.swf.TagType;
 import org.apache.royale.swf.tags.ICharacterReferrer;
 import org.apache.royale.swf.tags.ICharacterTag;
 import org.apache.royale.swf.tags.ITag;
@@ -163,13 +162,13 @@ public class AssetTagCache extends ConcurrentCacheStoreBase<AssetTagCache.AssetT
      */
     private static SymbolClassTag getSymbolClass(ITagContainer tagContainer)
     {
-        for (ITag tag : tagContainer)
-        {
-            if (tag.getTagType() == TagType.SymbolClass)
-                return (SymbolClassTag)tag;
-        }
+        // Don't iterate over the container, so that the tags before the
+        // SymbolClass tag aren't decoded by a lazy reader.
+        final Collection<SymbolClassTag> symbolClassTags = SWFCache.findAllSymbolClassTags(tagContainer);
+        if (symbolClassTags.isEmpty())
+            return null;
 
-        return null;
+        return symbolClassTags.iterator().next();
     }
 
     /**
@@ -113,7 +113,8 @@ public class FileScopeCache extends ConcurrentCacheStoreBase<Collection<IASScope
             {
                 final ABCScopeBuilder abcScopeBuilder = new ABCScopeBuilder(
                         swcManager.getWorkspace(), 
-                        abcTag.getABCData(), 
+                        abcTag.getABCDataBuffer(), 
+                        abcTag.getABCDataOffset(),
                         fileScopeCacheKey.swc.getSWCFile().getCanonicalPath(),
                         SWCFileScopeProvider.getInstance());
                 return abcScopeBuilder.build();
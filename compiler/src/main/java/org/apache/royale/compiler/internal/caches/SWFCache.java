@@ -191,6 +191,9 @@ public class SWFCache extends ConcurrentCacheStoreBase<ITagContainer> implements
     {
         assert (abcName != null && !"".equals(abcName)) : "expect ABC name.";
 
+        if (tags instanceof SWFReader)
+            return ((SWFReader)tags).getDoABCTag(abcName);
+
         for (final ITag tag : tags)
         {
             if (tag instanceof DoABCTag)
@@ -214,6 +217,9 @@ public class SWFCache extends ConcurrentCacheStoreBase<ITagContainer> implements
      */
     public static Collection<SymbolClassTag> findAllSymbolClassTags(ITagContainer tags)
     {
+        if (tags instanceof SWFReader)
+            return ((SWFReader)tags).getSymbolClassTags();
+
         List<SymbolClassTag> symbolTags = new ArrayList<SymbolClassTag>();
         for (final ITag tag : tags)
         {
@@ -246,7 +252,10 @@ public class SWFCache extends ConcurrentCacheStoreBase<ITagContainer> implements
 
         try
         {
-            final SWFReader swfReader = new SWFReader(false); // Need not to build SWF frames.
+            // Need not to build SWF frames. Only the DoABC and SymbolClass
+            // tags are usually needed, so the other tags are not decoded
+            // unless they are used.
+            final SWFReader swfReader = new SWFReader(false, true);
             readInputStream(swfReader, (SWFCacheKey)key);
             return swfReader;
         }
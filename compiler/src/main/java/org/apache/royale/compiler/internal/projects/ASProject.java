@@ -29,7 +29,6 @@ import java.util.Set;
 
 import org.apache.royale.compiler.asdoc.IASDocBundleDelegate;
 import org.apache.royale.compiler.common.IFileSpecificationGetter;
-import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.internal.projects.SourcePathManager.QNameFile;
 import org.apache.royale.compiler.internal.units.CompilationUnitBase;
 import org.apache.royale.compiler.internal.units.InvisibleCompilationUnit;
@@ -230,16 +229,7 @@ public abstract class ASProject extends CompilerProject implements IASProject
     {
         assert toRemove != null;
         assert toAdd != null;
-        removeCompilationUnits(toRemove);
-        addCompilationUnits(toAdd);
-
-        for (ICompilationUnit unit : toAdd)
-        {
-            for (IDefinition definitionPromise : unit.getDefinitionPromises())
-            {
-                getScope().addDefinition(definitionPromise);
-            }
-        }
+        replaceCompilationUnits(toRemove, toAdd);
     }
 
     @Override
@@ -364,6 +354,27 @@ public abstract class ASProject extends CompilerProject implements IASProject
         return asDocBundleDelegate;
     }
     
+    private boolean preloadLibraryScopes = false;
+
+    /**
+     * @return true if the library SWFs and file scopes of all the libraries
+     * are loaded eagerly when the library path changes.
+     */
+    public boolean getPreloadLibraryScopes()
+    {
+        return preloadLibraryScopes;
+    }
+
+    /**
+     * Sets whether the library SWFs of all the libraries are decoded, and
+     * their file scopes built, eagerly and in parallel when the library path
+     * changes. The SWC catalogs are always loaded in parallel.
+     */
+    public void setPreloadLibraryScopes(boolean value)
+    {
+        preloadLibraryScopes = value;
+    }
+
     @Override
     public void setLibraries(List<File> libraries)
     {
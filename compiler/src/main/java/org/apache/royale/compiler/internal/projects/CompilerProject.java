@@ -311,6 +311,31 @@ public abstract class CompilerProject implements ICompilerProject
         }
     }
 
+    /**
+     * Replaces a set of {@link ICompilationUnit}'s in the project with
+     * another. The definitions of the removed compilation units are replaced
+     * by the definition promises of the added ones in a single update of the
+     * project scope.
+     * 
+     * @param unitsToRemove {@link ICompilationUnit}'s to remove.
+     * @param unitsToAdd {@link ICompilationUnit}'s to add.
+     */
+    public void replaceCompilationUnits(Collection<ICompilationUnit> unitsToRemove, Collection<ICompilationUnit> unitsToAdd)
+    {
+        List<IDefinition> definitionPromises = new ArrayList<IDefinition>();
+        for (ICompilationUnit unit : unitsToAdd)
+        {
+            definitionPromises.addAll(unit.getDefinitionPromises());
+        }
+        projectScope.replaceCompilationUnits(unitsToRemove, definitionPromises);
+
+        for (ICompilationUnit unit : unitsToRemove)
+        {
+            removeCompilationUnit(unit);
+        }
+        addCompilationUnits(unitsToAdd);
+    }
+
     /**
      * Don't call this from production code. Normally library managers take care of this.
      * This function is only for unit tests.
@@ -43,6 +43,7 @@ import org.apache.royale.compiler.internal.caches.CacheStoreKeyBase;
 import org.apache.royale.compiler.internal.caches.SWFCache;
 import org.apache.royale.compiler.internal.units.ResourceBundleCompilationUnit;
 import org.apache.royale.compiler.internal.units.SWCCompilationUnit;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
 import org.apache.royale.compiler.problems.DuplicateSourceFileProblem;
 import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.projects.IRoyaleProject;
@@ -165,6 +166,7 @@ public final class LibraryPathManager
         int order = 0;
         final List<ICompilationUnit> result = new LinkedList<ICompilationUnit>();
         final ISWCManager swcManager = flashProject.getWorkspace().getSWCManager();
+        preloadLibraries(swcFilePaths);
         for (final String swcFilePath : swcFilePaths)
         {
             // it is possible for the SWC to not exist on disk, if this method
@@ -178,6 +180,37 @@ public final class LibraryPathManager
         return result;
     }
 
+    /**
+     * Load the given SWC files in parallel on the workspace's executor, so
+     * that the total time is closer to the time it takes to load the largest
+     * SWC than to the sum of all of them.
+     * 
+     * @param swcFilePaths SWC file paths
+     */
+    private void preloadLibraries(final Collection<String> swcFilePaths)
+    {
+        if (swcFilePaths.size() < 2)
+            return;
+        final List<File> swcFiles = new ArrayList<File>(swcFilePaths.size());
+        for (final String swcFilePath : swcFilePaths)
+        {
+            final File swcFile = new File(swcFilePath);
+            if (swcFile.exists())
+                swcFiles.add(swcFile);
+        }
+        final Workspace workspace = flashProject.getWorkspace();
+        final ISWCManager swcManager = workspace.getSWCManager();
+        try
+        {
+            swcManager.preload(swcFiles, flashProject.getPreloadLibraryScopes(), workspace.getExecutorService());
+        }
+        catch (InterruptedException e)
+        {
+            // the SWCs will be loaded on demand instead
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Create {@code SWCCompilationUnit} objects from the given ISWC. These
      * compilation units will be added to the project.
@@ -271,6 +271,7 @@ public class RoyaleProjectConfigurator extends Configurator
             project.setAllowImportAliases(configuration.getCompilerAllowImportAliases());
             project.setAllowAbstractClasses(configuration.getCompilerAllowAbstractClasses());
             project.setAllowPrivateConstructors(configuration.getCompilerAllowPrivateConstructors());
+            project.setPreloadLibraryScopes(configuration.getCompilerPreloadLibraryScopes());
 
             project.setStrictIdentifierNames(configuration.getCompilerStrictIdentifierNames());
             
@@ -159,37 +159,63 @@ public class ASProjectScope extends ASScopeBase
     }
 
     /**
-     * Adds public and internal definitions of the specified scope to this
-     * ASProjectScope scope.
+     * Collects the public and internal definitions of the specified scopes.
+     * This only reads the file scopes, so it does not need to be called with
+     * the write lock held.
      * 
-     * @param cu {@link ICompilationUnit} that contains the specified scope.
      * @param scopes ASScopes from which to collect externally-visible
      * definitions.
+     * @return The externally-visible definitions.
      */
-    private void addExternallyVisibleDefinitionsToProjectScope(ICompilationUnit cu, IASScope[] scopes)
+    private static List<IDefinition> collectExternallyVisibleDefinitions(IASScope[] scopes)
     {
+        ArrayList<IDefinition> externallVisibleDefs = new ArrayList<IDefinition>();
         if (scopes != null)
         {
             for (IASScope iasScope : scopes)
             {
                 IFileScope scope = (IFileScope)iasScope;
                 if (scope != null)
-                {
-                    final Collection<IASScope> compilationUnitScopeList = compilationUnitToScopeList.getUnchecked(cu);
-                    assert compilationUnitScopeList != null;
-                    compilationUnitScopeList.add(scope);
-                    ArrayList<IDefinition> externallVisibleDefs = new ArrayList<IDefinition>();
                     scope.collectExternallyVisibleDefinitions(externallVisibleDefs, false);
-                    for (IDefinition d : externallVisibleDefs)
-                        addDefinition(d);
-                }
             }
         }
+        return externallVisibleDefs;
+    }
+
+    /**
+     * Adds public and internal definitions of the specified scope to this
+     * ASProjectScope scope. Must be called with the write lock held.
+     * 
+     * @param cu {@link ICompilationUnit} that contains the specified scope.
+     * @param scopes ASScopes that contain the specified definitions.
+     * @param externallyVisibleDefs definitions collected from the scopes by
+     * {@link #collectExternallyVisibleDefinitions(IASScope[])}.
+     */
+    private void addExternallyVisibleDefinitionsToProjectScope(ICompilationUnit cu, IASScope[] scopes, List<IDefinition> externallyVisibleDefs)
+    {
+        if (scopes != null)
+        {
+            final Collection<IASScope> compilationUnitScopeList = compilationUnitToScopeList.getUnchecked(cu);
+            assert compilationUnitScopeList != null;
+            for (IASScope scope : scopes)
+            {
+                if (scope != null)
+                    compilationUnitScopeList.add(scope);
+            }
+        }
+
+        for (IDefinition d : externallyVisibleDefs)
+            addDefinition(d);
     }
 
     /**
      * Adds public and internal definitions of the specified scope requests to
      * this ASProjectScope scope.
+     * <p>
+     * All the scope requests are waited on and their definitions collected
+     * before the write lock is taken, so the lock is held only while the
+     * definition store is updated, and readers never see a partially
+     * registered batch.
      * 
      * @param scopeRequests a list of scope requests that will have their
      * externally visible definitions added to this project scope.
@@ -199,6 +225,7 @@ public class ASProjectScope extends ASScopeBase
         int size = scopeRequests.size();
         ICompilationUnit[] comps = new ICompilationUnit[size];
         IASScope[][] scopes = new IASScope[size][];
+        List<List<IDefinition>> defs = new ArrayList<List<IDefinition>>(size);
 
         for (int i = 0; i < size; ++i)
         {
@@ -206,6 +233,7 @@ public class ASProjectScope extends ASScopeBase
             IRequest<IFileScopeRequestResult, ICompilationUnit> scopeRequest = scopeRequests.get(i);
             scopes[i] = scopeRequest.get().getScopes();
             comps[i] = scopeRequest.getRequestee();
+            defs.add(collectExternallyVisibleDefinitions(scopes[i]));
         }
         // Hold the lock until we're done adding all the definitions
         // so that no look ups occur when we're in the middle of adding definitions to the project.
@@ -213,7 +241,7 @@ public class ASProjectScope extends ASScopeBase
         try
         {
             for (int i = 0; i < size; ++i)
-                addExternallyVisibleDefinitionsToProjectScope(comps[i], scopes[i]);
+                addExternallyVisibleDefinitionsToProjectScope(comps[i], scopes[i], defs.get(i));
             
         }
         finally
@@ -319,7 +347,39 @@ public class ASProjectScope extends ASScopeBase
         return definitionPromise;
     }
 
-    private IDefinitionSet replacePromisesWithDefinitions(IDefinitionSet definitionSet)
+    /**
+     * Gets the actual definitions for a list of promises. Must be called
+     * without holding the writeLock, otherwise we can deadlock on the
+     * getFileScopeRequest().
+     */
+    private static IDefinition[] resolvePromises(List<DefinitionPromise> promises)
+    {
+        int n = promises.size();
+        if (n > 1)
+        {
+            // Start all the file scope requests before waiting on the first
+            // one, so that they can be built concurrently.
+            for (DefinitionPromise promise : promises)
+            {
+                ICompilationUnit compilationUnit = promise.getCompilationUnit();
+                if (compilationUnit != null)
+                    compilationUnit.getFileScopeRequest();
+            }
+        }
+
+        IDefinition[] definitions = new IDefinition[n];
+        for (int i = 0; i < n; i++)
+            definitions[i] = promises.get(i).getActualDefinition();
+        return definitions;
+    }
+
+    /**
+     * Replaces promises with the actual definitions that were resolved for
+     * them by {@link #resolvePromises(List)}. Must be called with the
+     * writeLock held.
+     */
+    private IDefinitionSet replacePromisesWithDefinitions(IDefinitionSet definitionSet,
+            List<DefinitionPromise> promises, IDefinition[] definitions)
     {
         // If the existing definition set is a SmallDefinitionSet or a LargeDefinitionSet,
         // we can return the same set with the promises replaced by actual definitions.
@@ -334,36 +394,22 @@ public class ASProjectScope extends ASScopeBase
             IDefinition definition = definitionSet.getDefinition(i);
             if (definition instanceof DefinitionPromise)
             {
-                DefinitionPromise promise = (DefinitionPromise)definition;
-
-                // Release the writeLock before calling getActualDefinition(),
-                // otherwise we can deadlock on the getFileScopeRequest().
-                writeLock.unlock();
-                try
-                {
-                    definition = promise.getActualDefinition();
-                }
-                finally
-                {
-                    writeLock.lock();
-                }
+                // The set may have changed since the promises were collected,
+                // so only replace the promises that were actually resolved.
+                int promiseIndex = indexOfPromise(promises, (DefinitionPromise)definition);
+                if (promiseIndex == -1)
+                    continue;
 
+                definition = definitions[promiseIndex];
                 if (definition != null)
                 {
-                    // Before replacing the promise, we need to check that the
-                    // promise hasn't already been replaced by another thread
-                    // between giving up the write lock, parsing, and getting
-                    // the lock again.
-                    if (definitionSet.getDefinition(i) == promise)
-                    {
-                        if (definitionSet.getMaxSize() == 1)
-                            returnedDefinitionSet = (DefinitionBase)definition;
-                        else
-                            ((IMutableDefinitionSet)definitionSet).replaceDefinition(i, definition);
-                        
-                        if (shouldBeCached(definition))
-                            setBuiltinDefinition(definition);
-                    }
+                    if (definitionSet.getMaxSize() == 1)
+                        returnedDefinitionSet = (DefinitionBase)definition;
+                    else
+                        ((IMutableDefinitionSet)definitionSet).replaceDefinition(i, definition);
+                    
+                    if (shouldBeCached(definition))
+                        setBuiltinDefinition(definition);
                 }
             }
         }
@@ -371,11 +417,22 @@ public class ASProjectScope extends ASScopeBase
         return returnedDefinitionSet;
     }
 
+    private static int indexOfPromise(List<DefinitionPromise> promises, DefinitionPromise promise)
+    {
+        int n = promises.size();
+        for (int i = 0; i < n; i++)
+        {
+            if (promises.get(i) == promise)
+                return i;
+        }
+        return -1;
+    }
+
     @Override
     public IDefinitionSet getLocalDefinitionSetByName(String name)
     {
         IDefinitionSet definitionSet = null;
-        boolean containsPromise = false;
+        List<DefinitionPromise> promises = null;
 
         readLock.lock();
         try
@@ -392,8 +449,9 @@ public class ASProjectScope extends ASScopeBase
                     IDefinition definition = definitionSet.getDefinition(i);
                     if (definition instanceof DefinitionPromise)
                     {
-                        containsPromise = true;
-                        break;
+                        if (promises == null)
+                            promises = new ArrayList<DefinitionPromise>(n);
+                        promises.add((DefinitionPromise)definition);
                     }
                 }
             }
@@ -403,25 +461,32 @@ public class ASProjectScope extends ASScopeBase
             readLock.unlock();
         }
 
-        IDefinitionSet returnedDefinitionSet = definitionSet;
+        if (promises == null)
+            return definitionSet;
+
+        // Resolve all of the promises before taking the writeLock, so that
+        // the lock is taken once no matter how many promises are in the set.
+        IDefinition[] definitions = resolvePromises(promises);
 
-        if (containsPromise)
+        // Note that we lock for writing only if there is a promise to replace.
+        writeLock.lock();
+        try
         {
-            // Note that we lock for writing only if there is a promise to replace.
-            writeLock.lock();
-            try
-            {
-                returnedDefinitionSet = replacePromisesWithDefinitions(definitionSet);
-                if (returnedDefinitionSet != definitionSet)
-                    definitionStore.putDefinitionSetByName(name, returnedDefinitionSet);
-            }
-            finally
-            {
-                writeLock.unlock();
-            }
-        }
+            // Another thread may have replaced the promises, or changed the set,
+            // while we were resolving them, so look the set up again.
+            definitionSet = super.getLocalDefinitionSetByName(name);
+            if (definitionSet == null)
+                return null;
 
-        return returnedDefinitionSet;
+            IDefinitionSet returnedDefinitionSet = replacePromisesWithDefinitions(definitionSet, promises, definitions);
+            if (returnedDefinitionSet != definitionSet)
+                definitionStore.putDefinitionSetByName(name, returnedDefinitionSet);
+            return returnedDefinitionSet;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
     }
 
     private static boolean referenceMatchesQName(IWorkspace workspace, IResolvedQualifiersReference reference, String qualifiedName)
@@ -937,6 +1002,29 @@ public class ASProjectScope extends ASScopeBase
         }
     }
 
+    /**
+     * Adds a batch of definitions to this scope while holding the write lock
+     * once, instead of acquiring it again for every definition.
+     *
+     * @param defs The definitions to add.
+     */
+    public void addDefinitions(Collection<? extends IDefinition> defs)
+    {
+        if (defs.isEmpty())
+            return;
+
+        writeLock.lock();
+        try
+        {
+            for (IDefinition def : defs)
+                addDefinition(def);
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
     @Override
     protected void addDefinitionToStore(IDefinition def)
     {
@@ -1424,6 +1512,33 @@ public class ASProjectScope extends ASScopeBase
         }
     }
 
+    /**
+     * Replaces the definitions of a set of {@link ICompilationUnit}'s with a
+     * batch of new definitions, usually the definition promises of the
+     * compilation units that replace them.
+     * <p>
+     * The write lock is held once for the removal and the additions, so
+     * readers see either the old definitions or the new ones, and never a
+     * project scope in which both are missing.
+     * 
+     * @param compilationUnitsToRemove The compilation units whose definitions
+     * are removed.
+     * @param definitionsToAdd The definitions to add.
+     */
+    public void replaceCompilationUnits(Collection<ICompilationUnit> compilationUnitsToRemove, Collection<? extends IDefinition> definitionsToAdd)
+    {
+        writeLock.lock();
+        try
+        {
+            removeCompilationUnits(compilationUnitsToRemove);
+            addDefinitions(definitionsToAdd);
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
     @Override
     public IASScope getContainingScope()
     {
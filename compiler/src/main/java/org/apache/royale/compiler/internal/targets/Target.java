@@ -27,12 +27,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.apache.royale.compiler.common.DependencyTypeSet;
 import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.definitions.references.IResolvedQualifiersReference;
 import org.apache.royale.compiler.definitions.references.ReferenceFactory;
@@ -217,9 +220,14 @@ public abstract class Target implements ITarget
         assert problems != null : "Expected problem collection.";
 
         project.collectProblems(problems);
+
+        // Start the units that the most other units depend on, and the most
+        // expensive ones, first, so that they don't stretch out the end of
+        // the build.
+        final List<ICompilationUnit> orderedCompilationUnits = prioritizeCompilationUnits(compilationUnits);
         
         // Parallelize the building of compilation units.
-        for (final ICompilationUnit cu : compilationUnits)
+        for (final ICompilationUnit cu : orderedCompilationUnits)
         {
             if(isCanceled())
                 throw new BuildCanceledException();
@@ -241,7 +249,7 @@ public abstract class Target implements ITarget
         int totalCompUnitWorkCompleted = compilationUnits.size();
 
         // Wait for all compilation units to finish building.
-        for (final ICompilationUnit cu : compilationUnits)
+        for (final ICompilationUnit cu : orderedCompilationUnits)
         {
             waitForCompilationUnitToFinish(cu, problems);
             
@@ -251,6 +259,57 @@ public abstract class Target implements ITarget
         }
     }
 
+    /**
+     * Orders compilation units so the ones that should be built first come
+     * first.
+     * <p>
+     * The workspace's thread pool runs requests on the calling thread when
+     * all of its threads are busy, so a unit that is started late may be
+     * built on this thread after every other unit has finished. Units with
+     * many dependents are started first, because the units that depend on
+     * them wait on their file scopes. Ties are broken by an estimate of the
+     * cost of building the unit: the size of its source file. SWC units have
+     * no cost, because their ABC is already compiled.
+     * 
+     * @param compilationUnits Compilation units to order.
+     * @return A new list of the compilation units, in the order they should
+     * be started.
+     */
+    protected List<ICompilationUnit> prioritizeCompilationUnits(Collection<ICompilationUnit> compilationUnits)
+    {
+        final DependencyTypeSet allDependencyTypes = DependencyTypeSet.allOf();
+        final Map<ICompilationUnit, long[]> priorities = new HashMap<ICompilationUnit, long[]>(compilationUnits.size());
+        for (ICompilationUnit cu : compilationUnits)
+        {
+            long fanIn = project.getDirectReverseDependencies(cu, allDependencyTypes).size();
+            long cost = 0;
+            if (cu.getCompilationUnitType() != ICompilationUnit.UnitType.SWC_UNIT)
+            {
+                String fileName = cu.getAbsoluteFilename();
+                if (fileName != null)
+                    cost = new File(fileName).length();
+            }
+            priorities.put(cu, new long[] { fanIn, cost });
+        }
+
+        List<ICompilationUnit> result = new ArrayList<ICompilationUnit>(compilationUnits);
+        Collections.sort(result, new Comparator<ICompilationUnit>()
+        {
+            @Override
+            public int compare(ICompilationUnit o1, ICompilationUnit o2)
+            {
+                long[] p1 = priorities.get(o1);
+                long[] p2 = priorities.get(o2);
+                if (p1[0] != p2[0])
+                    return p1[0] > p2[0] ? -1 : 1;
+                if (p1[1] != p2[1])
+                    return p1[1] > p2[1] ? -1 : 1;
+                return 0;
+            }
+        });
+        return result;
+    }
+
     @Override
     public ITargetSettings getTargetSettings()
     {
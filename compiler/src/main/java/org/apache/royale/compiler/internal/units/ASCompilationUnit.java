@@ -316,6 +316,21 @@ public class ASCompilationUnit extends CompilationUnitBase
                 this);
     }
 
+    @Override
+    protected Collection<IRequest<?, ?>> getRequestPrerequisites(Operation operation)
+    {
+        switch (operation)
+        {
+            case GET_FILESCOPE:
+            case GET_ABC_BYTES:
+                return Collections.<IRequest<?, ?>>singletonList(getSyntaxTreeRequest());
+            case GET_SWF_TAGS:
+                return Collections.<IRequest<?, ?>>singletonList(getABCBytesRequest());
+            default:
+                return super.getRequestPrerequisites(operation);
+        }
+    }
+
     @Override
     protected ISyntaxTreeRequestResult handleSyntaxTreeRequest() throws InterruptedException
     {
@@ -250,8 +250,14 @@ public abstract class CompilationUnitBase implements ICompilationUnit
     private final boolean scopeBuiltFromSyntaxTree;
 
     private static final RequestMaker<ISyntaxTreeRequestResult, ICompilationUnit, CompilationUnitBase> syntaxTreeRequestMaker =
-        new RequestMaker<ISyntaxTreeRequestResult, ICompilationUnit, CompilationUnitBase>()
+        new RequestMaker<ISyntaxTreeRequestResult, ICompilationUnit, CompilationUnitBase>("syntax tree")
         {
+            @Override
+            protected Collection<IRequest<?, ?>> getPrerequisites(CompilationUnitBase u)
+            {
+                return u.getRequestPrerequisites(Operation.GET_SYNTAX_TREE);
+            }
+
             @Override
             protected Callable<ISyntaxTreeRequestResult> getCallable(final CompilationUnitBase u)
             {
@@ -275,8 +281,14 @@ public abstract class CompilationUnitBase implements ICompilationUnit
         };
         
     private static final RequestMaker<IFileScopeRequestResult, ICompilationUnit, CompilationUnitBase> fileScopeRequestMaker =
-        new RequestMaker<IFileScopeRequestResult, ICompilationUnit, CompilationUnitBase>()
+        new RequestMaker<IFileScopeRequestResult, ICompilationUnit, CompilationUnitBase>("file scope")
         {
+            @Override
+            protected Collection<IRequest<?, ?>> getPrerequisites(CompilationUnitBase u)
+            {
+                return u.getRequestPrerequisites(Operation.GET_FILESCOPE);
+            }
+
             @Override
             protected Callable<IFileScopeRequestResult> getCallable(final CompilationUnitBase u)
             {
@@ -300,8 +312,14 @@ public abstract class CompilationUnitBase implements ICompilationUnit
         };
 
     private static final RequestMaker<IABCBytesRequestResult, ICompilationUnit, CompilationUnitBase> abcBytesRequestMaker =
-        new RequestMaker<IABCBytesRequestResult, ICompilationUnit, CompilationUnitBase>()
+        new RequestMaker<IABCBytesRequestResult, ICompilationUnit, CompilationUnitBase>("ABC bytes")
         {
+            @Override
+            protected Collection<IRequest<?, ?>> getPrerequisites(CompilationUnitBase u)
+            {
+                return u.getRequestPrerequisites(Operation.GET_ABC_BYTES);
+            }
+
             @Override
             protected Callable<IABCBytesRequestResult> getCallable(final CompilationUnitBase u)
             {
@@ -325,8 +343,14 @@ public abstract class CompilationUnitBase implements ICompilationUnit
 
 
     private static final RequestMaker<ISWFTagsRequestResult, ICompilationUnit, CompilationUnitBase> swfTagsRequestMaker =
-        new RequestMaker<ISWFTagsRequestResult, ICompilationUnit, CompilationUnitBase>()
+        new RequestMaker<ISWFTagsRequestResult, ICompilationUnit, CompilationUnitBase>("SWF tags")
         {
+            @Override
+            protected Collection<IRequest<?, ?>> getPrerequisites(CompilationUnitBase u)
+            {
+                return u.getRequestPrerequisites(Operation.GET_SWF_TAGS);
+            }
+
             @Override
             protected Callable<ISWFTagsRequestResult> getCallable(final CompilationUnitBase u)
             {
@@ -375,7 +399,7 @@ public abstract class CompilationUnitBase implements ICompilationUnit
         };
 
     private static final RequestMaker<IOutgoingDependenciesRequestResult, ICompilationUnit, CompilationUnitBase> outgoingDependenciesRequestMaker =
-        new RequestMaker<IOutgoingDependenciesRequestResult, ICompilationUnit, CompilationUnitBase>()
+        new RequestMaker<IOutgoingDependenciesRequestResult, ICompilationUnit, CompilationUnitBase>("outgoing dependencies")
         {
             @Override
             protected Callable<IOutgoingDependenciesRequestResult> getCallable(final CompilationUnitBase u)
@@ -606,6 +630,24 @@ public abstract class CompilationUnitBase implements ICompilationUnit
      */
     protected abstract IOutgoingDependenciesRequestResult handleOutgoingDependenciesRequest () throws InterruptedException;
 
+    /**
+     * Gets the requests that the handler of the specified operation waits for
+     * before doing anything else. The request for the operation is only
+     * scheduled once these requests are done, instead of parking a thread of
+     * the workspace's executor until they are.
+     * <p>
+     * Sub-classes should only return requests their handler would otherwise
+     * wait for unconditionally, and must not return a request that waits for
+     * the specified operation.
+     * 
+     * @param operation The operation being requested.
+     * @return The requests the operation depends on. By default, none.
+     */
+    protected Collection<IRequest<?, ?>> getRequestPrerequisites(Operation operation)
+    {
+        return Collections.emptyList();
+    }
+
     @Override
     public IRequest<ISyntaxTreeRequestResult, ICompilationUnit> getSyntaxTreeRequest()
     {
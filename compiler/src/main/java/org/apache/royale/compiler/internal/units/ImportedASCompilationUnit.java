@@ -19,12 +19,16 @@
 
 package org.apache.royale.compiler.internal.units;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.apache.royale.compiler.internal.projects.CompilerProject;
 import org.apache.royale.compiler.internal.projects.DefinitionPriority.BasePriority;
 import org.apache.royale.compiler.internal.units.requests.ABCBytesRequestResult;
 import org.apache.royale.compiler.problems.ICompilerProblem;
 import org.apache.royale.compiler.units.requests.IABCBytesRequestResult;
 import org.apache.royale.compiler.units.requests.IOutgoingDependenciesRequestResult;
+import org.apache.royale.compiler.units.requests.IRequest;
 
 /**
  * A compilation unit for AS files that are imported into ASC using the
@@ -41,6 +45,15 @@ public class ImportedASCompilationUnit extends ASCompilationUnit
         super(project, path, basePriority);
     }
 
+    @Override
+    protected Collection<IRequest<?, ?>> getRequestPrerequisites(Operation operation)
+    {
+        // The ABC bytes are empty, so they don't wait for the syntax tree.
+        if (operation == Operation.GET_ABC_BYTES)
+            return Collections.emptyList();
+        return super.getRequestPrerequisites(operation);
+    }
+
     @Override
     protected IABCBytesRequestResult handleABCBytesRequest() throws InterruptedException
     {
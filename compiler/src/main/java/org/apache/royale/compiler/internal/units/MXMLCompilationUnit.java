@@ -23,6 +23,7 @@ package org.apache.royale.compiler.internal.units;
 import static com.google.common.collect.Collections2.transform;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import org.apache.royale.compiler.css.ICSSDocument;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
@@ -51,6 +52,7 @@ import org.apache.royale.compiler.tree.mxml.IMXMLStyleNode;
 import org.apache.royale.compiler.units.requests.IABCBytesRequestResult;
 import org.apache.royale.compiler.units.requests.IFileScopeRequestResult;
 import org.apache.royale.compiler.units.requests.IOutgoingDependenciesRequestResult;
+import org.apache.royale.compiler.units.requests.IRequest;
 import org.apache.royale.compiler.units.requests.ISWFTagsRequestResult;
 import org.apache.royale.compiler.units.requests.ISyntaxTreeRequestResult;
 import com.google.common.base.Function;
@@ -81,6 +83,20 @@ public class MXMLCompilationUnit extends CompilationUnitBase
         return UnitType.MXML_UNIT;
     }
 
+    @Override
+    protected Collection<IRequest<?, ?>> getRequestPrerequisites(Operation operation)
+    {
+        switch (operation)
+        {
+            case GET_ABC_BYTES:
+                return Collections.<IRequest<?, ?>>singletonList(getSyntaxTreeRequest());
+            case GET_SWF_TAGS:
+                return Collections.<IRequest<?, ?>>singletonList(getABCBytesRequest());
+            default:
+                return super.getRequestPrerequisites(operation);
+        }
+    }
+
     @Override
     protected ISyntaxTreeRequestResult handleSyntaxTreeRequest() throws InterruptedException
     {
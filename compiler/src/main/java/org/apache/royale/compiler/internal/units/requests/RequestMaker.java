@@ -19,14 +19,19 @@
 
 package org.apache.royale.compiler.internal.units.requests;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 import org.apache.royale.compiler.internal.workspaces.Workspace;
 import org.apache.royale.compiler.units.requests.IRequest;
@@ -56,28 +61,36 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
     
     private static class Request<V extends IRequestResult, W> implements IRequest<V, W>
     {
-        private Future<V> future;
-        private Lock lock;
-        private Condition haveFuture;
+        private final CompletableFuture<V> future;
         private final long timestamp;
         private final W requestee;
+        private final String requestType;
 
-        public Request(W requestee)
+        /**
+         * Runnables to run once the request is done, or null once they have
+         * been run. Guarded by this.
+         */
+        private List<Runnable> continuations;
+
+        public Request(W requestee, String requestType)
         {
-            lock = new ReentrantLock();
-            haveFuture = lock.newCondition();
+            future = new CompletableFuture<V>();
+            continuations = new ArrayList<Runnable>();
             timestamp = System.currentTimeMillis();
             this.requestee = requestee;
+            this.requestType = requestType;
         }
 
         @Override
         public V get() throws InterruptedException
         {
             V result = null;
+            final boolean recordWait = RequestStatistics.ENABLED && !isDone();
+            final long waitStart = recordWait ? System.nanoTime() : 0;
             try
             {
                 // blocks till request is done
-                result = getFuture().get();
+                result = future.get();
             }
             catch (ExecutionException executionException)
             {
@@ -88,11 +101,17 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
                  * We don't expect to ever get an ExecutionException because we
                  * eat all the Throwable's that are not the InterruptedException
                  * in the Callable we wrap around the Callable we got from the
-                 * abstract getCallable method.
+                 * abstract getCallable method. The only exception is a request
+                 * that could not be submitted because the executor was shut down.
                  */
-                assert false : "Unexpected ExecutionException!";
+                assert cause instanceof RejectedExecutionException : "Unexpected ExecutionException!";
                 executionException.printStackTrace();
             }
+            finally
+            {
+                if (recordWait)
+                    RequestStatistics.getInstance().recordWait(requestType, System.nanoTime() - waitStart);
+            }
 
             return result;
         }
@@ -100,46 +119,76 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
         @Override
         public boolean isDone()
         {
-            lock.lock();
-            try
-            {
-                if (future == null)
-                    return false;
-                return future.isDone();
-            }
-            finally
+            return future.isDone();
+        }
+
+        @Override
+        public CompletionStage<V> toCompletionStage()
+        {
+            // Hand out a dependent stage, so that consumers can't complete
+            // the request themselves.
+            return future.thenApply(Function.<V>identity());
+        }
+
+        /**
+         * Runs the specified Runnable once this request is done, on the thread
+         * that completes it, or right away if it is already done.
+         */
+        private void whenDone(Runnable continuation)
+        {
+            synchronized (this)
             {
-                lock.unlock();
+                if (continuations != null)
+                {
+                    continuations.add(continuation);
+                    return;
+                }
             }
+            continuation.run();
         }
 
-        private Future<V> getFuture()
+        /**
+         * Computes the result of this request on the current thread.
+         */
+        private void run(Callable<V> callable)
         {
-            lock.lock();
             try
             {
-                while (future == null)
-                    haveFuture.awaitUninterruptibly();
-                return future;
+                future.complete(callable.call());
             }
-            finally
+            catch (Throwable t)
             {
-                lock.unlock();
+                future.completeExceptionally(t);
             }
+            runContinuations();
         }
 
-        private void setFuture(Future<V> future)
+        /**
+         * Completes this request with the specified Throwable, for a request
+         * that could not be run.
+         */
+        private void fail(Throwable t)
         {
-            lock.lock();
-            try
-            {
-                this.future = future;
-                haveFuture.signalAll();
-            }
-            finally
+            future.completeExceptionally(t);
+            runContinuations();
+        }
+
+        /**
+         * Runs the continuations once the future is complete, so that all the
+         * threads waiting in {@link #get()} have been released before a
+         * continuation that the executor's {@code CallerRunsPolicy} runs on
+         * this thread blocks it.
+         */
+        private void runContinuations()
+        {
+            final List<Runnable> toRun;
+            synchronized (this)
             {
-                lock.unlock();
+                toRun = continuations;
+                continuations = null;
             }
+            for (Runnable continuation : toRun)
+                continuation.run();
         }
 
         @Override
@@ -155,6 +204,26 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
         }
     }
 
+    private final String requestType;
+
+    /**
+     * Creates a request maker whose requests are reported to
+     * {@link RequestStatistics} under the name of its class.
+     */
+    protected RequestMaker()
+    {
+        this(null);
+    }
+
+    /**
+     * @param requestType The name under which the requests are reported to
+     * {@link RequestStatistics}.
+     */
+    protected RequestMaker(String requestType)
+    {
+        this.requestType = (requestType != null) ? requestType : getClass().getName();
+    }
+
     /**
      * Gets a reference to a request object, by either creating a new IRequest
      * or returning an existing one from the specified AtomicReference.
@@ -181,11 +250,22 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
         {
             workspace.startRequest(isNeededForFileScope);
             
-            final Request<ResultType, RequesteeInterfaceType> request = new Request<ResultType, RequesteeInterfaceType>(u);
+            final Request<ResultType, RequesteeInterfaceType> request = new Request<ResultType, RequesteeInterfaceType>(u, requestType);
             if (atomicRef.compareAndSet(null, request))
             {
-                ExecutorService exec = workspace.getExecutorService();
-                request.setFuture(exec.submit(wrapCallable(u, getCallable(u), workspace)));
+                final ExecutorService exec = workspace.getExecutorService();
+                final Callable<ResultType> callable = wrapCallable(u, getCallable(u), workspace);
+                final TimedCallable timer = RequestStatistics.ENABLED ? new TimedCallable(callable) : null;
+                final Callable<ResultType> task = (timer != null) ? timer : callable;
+                final Runnable runnable = new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        request.run(task);
+                    }
+                };
+                schedule(exec, workspace, request, runnable, timer, getPrerequisites(u));
             }
             else
             {
@@ -200,6 +280,77 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
         }
     }
 
+    /**
+     * Submits the specified Runnable to the executor once all the specified
+     * requests are done. Nothing waits for the prerequisites: the Runnable is
+     * submitted by whichever thread completes the last of them, or right away
+     * if they are already done. If the executor rejects the Runnable, the
+     * request is completed with the {@link RejectedExecutionException}, so
+     * that nothing waits for it forever.
+     * <p>
+     * If the specified timer is not null, it is told when the Runnable is
+     * submitted.
+     * <p>
+     * The prerequisites must be requests made by a RequestMaker. Any other
+     * request is not waited for, so the Runnable blocks in its get method.
+     */
+    private static void schedule(final ExecutorService exec, final Workspace workspace,
+            final Request<?, ?> request, final Runnable runnable, final RequestMaker<?, ?, ?>.TimedCallable timer,
+            Collection<? extends IRequest<?, ?>> prerequisites)
+    {
+        final Runnable submit = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (timer != null)
+                    timer.submitted();
+                try
+                {
+                    exec.execute(runnable);
+                }
+                catch (RejectedExecutionException e)
+                {
+                    reject(workspace, request, e);
+                }
+            }
+        };
+
+        final List<Request<?, ?>> pending = new ArrayList<Request<?, ?>>(prerequisites.size());
+        for (IRequest<?, ?> prerequisite : prerequisites)
+        {
+            if (prerequisite instanceof Request && !prerequisite.isDone())
+                pending.add((Request<?, ?>)prerequisite);
+        }
+        if (pending.isEmpty())
+        {
+            submit.run();
+            return;
+        }
+
+        // The request is run even if a prerequisite failed, so that its
+        // handler reports the problem the way it always has.
+        final AtomicInteger remaining = new AtomicInteger(pending.size());
+        final Runnable countDown = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (remaining.decrementAndGet() == 0)
+                    submit.run();
+            }
+        };
+        for (Request<?, ?> prerequisite : pending)
+            prerequisite.whenDone(countDown);
+    }
+
+    private static void reject(Workspace workspace, Request<?, ?> request, Throwable t)
+    {
+        // The wrapped Callable that would have ended the request never runs.
+        workspace.endRequest();
+        request.fail(t);
+    }
+
     /**
      * Creates a new Callable that calls the specified Callable and catches any
      * Throwable's except for a InterruptedException that were not caught by the
@@ -249,6 +400,66 @@ public abstract class RequestMaker<ResultType extends IRequestResult, RequesteeI
         };
     }
 
+    /**
+     * A Callable that calls another Callable and reports to
+     * {@link RequestStatistics} how long the request waited for its
+     * prerequisites, how long it was queued and how long it ran. It must be
+     * created when the request is made.
+     */
+    private final class TimedCallable implements Callable<ResultType>
+    {
+        private final Callable<ResultType> callable;
+        private final long made;
+        private volatile long submitted;
+
+        TimedCallable(Callable<ResultType> callable)
+        {
+            this.callable = callable;
+            made = System.nanoTime();
+            submitted = made;
+        }
+
+        /**
+         * Called when the prerequisites of the request are done and it is
+         * submitted to the executor.
+         */
+        void submitted()
+        {
+            submitted = System.nanoTime();
+        }
+
+        @Override
+        public ResultType call() throws Exception
+        {
+            final long started = System.nanoTime();
+            try
+            {
+                return callable.call();
+            }
+            finally
+            {
+                final long submitted = this.submitted;
+                RequestStatistics.getInstance().recordCompute(requestType,
+                        submitted - made, started - submitted, System.nanoTime() - started,
+                        RequestStatistics.CallerRunsPolicy.isCallerRunning());
+            }
+        }
+    }
+
+    /**
+     * Called to get the requests that the Callable returned from getCallable
+     * waits for before doing anything else. The Callable is only submitted to
+     * the workspace's executor once these requests are done, so that no thread
+     * of the executor is blocked waiting for them.
+     * 
+     * @param u Parameter that was passed to getRequest.
+     * @return The requests to wait for. By default, none.
+     */
+    protected Collection<? extends IRequest<?, ?>> getPrerequisites(RequesteeType u)
+    {
+        return Collections.emptyList();
+    }
+
     /**
      * Called to get the callable that computes the result of the request.
      * 
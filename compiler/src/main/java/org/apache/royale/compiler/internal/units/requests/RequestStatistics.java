@@ -0,0 +1,390 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.units.requests;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Formatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+/**
+ * A singleton class that collects timings of the requests made through
+ * {@link RequestMaker}, for each type of request:
+ * <ul>
+ * <li>how long a request waited for the requests it needs before it was
+ * submitted,</li>
+ * <li>how long a request was queued before a thread started computing it,</li>
+ * <li>how long it took to compute,</li>
+ * <li>how long callers were blocked waiting for a result that was not
+ * computed yet,</li>
+ * <li>how many requests were computed on the thread that submitted them,
+ * because the workspace's executor had no thread left.</li>
+ * </ul>
+ * The timings are only collected when the {@value #ENABLED_PROPERTY} system
+ * property is <code>true</code>. The statistics are then registered with the
+ * platform MBean server as {@value #OBJECT_NAME}, and printed to
+ * <code>System.err</code> when the VM exits.
+ */
+public final class RequestStatistics implements RequestStatisticsMBean
+{
+    public static final String ENABLED_PROPERTY = "royale.requestStatistics";
+
+    public static final String OBJECT_NAME = "org.apache.royale.compiler:type=RequestStatistics";
+
+    /**
+     * Flag that enables collecting request statistics.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * Gets the singleton instance of this class.
+     */
+    public static RequestStatistics getInstance()
+    {
+        return instance;
+    }
+
+    // Storage for the singleton instance.
+    private static final RequestStatistics instance = new RequestStatistics();
+
+    static
+    {
+        if (ENABLED)
+            instance.register();
+    }
+
+    /**
+     * A {@code CallerRunsPolicy} that lets the task it runs on the submitting
+     * thread find out that it was rejected by the executor.
+     */
+    public static final class CallerRunsPolicy extends ThreadPoolExecutor.CallerRunsPolicy
+    {
+        private static final ThreadLocal<Boolean> callerRuns = new ThreadLocal<Boolean>();
+
+        /**
+         * @return true if the current thread is running a task that an
+         * executor rejected.
+         */
+        public static boolean isCallerRunning()
+        {
+            return callerRuns.get() == Boolean.TRUE;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor e)
+        {
+            final Boolean previous = callerRuns.get();
+            callerRuns.set(Boolean.TRUE);
+            try
+            {
+                super.rejectedExecution(r, e);
+            }
+            finally
+            {
+                callerRuns.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Counts durations in buckets whose bounds are powers of two, in
+     * microseconds, so that recording a duration doesn't allocate or lock.
+     */
+    static final class Histogram
+    {
+        private static final int BUCKET_COUNT = 40;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos)
+        {
+            if (nanos < 0)
+                nanos = 0;
+            final long micros = nanos / 1000;
+            final int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+                max = maxNanos.get();
+        }
+
+        long getCount()
+        {
+            return count.sum();
+        }
+
+        long getTotalNanos()
+        {
+            return totalNanos.sum();
+        }
+
+        long getMaxNanos()
+        {
+            return maxNanos.get();
+        }
+
+        /**
+         * @return The upper bound of the bucket that contains the specified
+         * percentile, which is at most twice the actual value.
+         */
+        long getPercentileNanos(double percentile)
+        {
+            final long total = getCount();
+            if (total == 0)
+                return 0;
+            final long rank = (long)Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++)
+            {
+                seen += buckets.get(i);
+                if (seen >= rank)
+                    return Math.min((1L << i) * 1000, getMaxNanos());
+            }
+            return getMaxNanos();
+        }
+    }
+
+    /**
+     * The statistics of one type of request.
+     */
+    static final class Timings
+    {
+        final LongAdder callerRuns = new LongAdder();
+        final Histogram prerequisiteTime = new Histogram();
+        final Histogram queueTime = new Histogram();
+        final Histogram computeTime = new Histogram();
+        final Histogram waitTime = new Histogram();
+    }
+
+    // Package private constructor, for the tests.
+    RequestStatistics()
+    {
+    }
+
+    private final ConcurrentMap<String, Timings> timings = new ConcurrentHashMap<String, Timings>();
+
+    private Timings getTimings(String requestType)
+    {
+        Timings result = timings.get(requestType);
+        if (result == null)
+        {
+            final Timings newTimings = new Timings();
+            result = timings.putIfAbsent(requestType, newTimings);
+            if (result == null)
+                result = newTimings;
+        }
+        return result;
+    }
+
+    /**
+     * Records that a request was computed.
+     *
+     * @param requestType The type of the request.
+     * @param prerequisiteNanos The time between the request being made and
+     * the requests it needs being done.
+     * @param queueNanos The time between the request being submitted to the
+     * executor and a thread starting to compute it.
+     * @param computeNanos The time it took to compute the request.
+     * @param callerRuns true if the executor rejected the request, so that it
+     * was computed on the thread that submitted it.
+     */
+    public void recordCompute(String requestType, long prerequisiteNanos, long queueNanos,
+            long computeNanos, boolean callerRuns)
+    {
+        final Timings t = getTimings(requestType);
+        t.prerequisiteTime.record(prerequisiteNanos);
+        t.queueTime.record(queueNanos);
+        t.computeTime.record(computeNanos);
+        if (callerRuns)
+            t.callerRuns.increment();
+    }
+
+    /**
+     * Records that a caller blocked waiting for the result of a request.
+     *
+     * @param requestType The type of the request.
+     * @param waitNanos The time the caller was blocked.
+     */
+    public void recordWait(String requestType, long waitNanos)
+    {
+        getTimings(requestType).waitTime.record(waitNanos);
+    }
+
+    @Override
+    public String[] getRequestTypes()
+    {
+        final String[] result = timings.keySet().toArray(new String[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public long getTotalRequestCount()
+    {
+        long result = 0;
+        for (Timings t : timings.values())
+            result += t.computeTime.getCount();
+        return result;
+    }
+
+    @Override
+    public long getTotalCallerRunsCount()
+    {
+        long result = 0;
+        for (Timings t : timings.values())
+            result += t.callerRuns.sum();
+        return result;
+    }
+
+    @Override
+    public long getRequestCount(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? t.computeTime.getCount() : 0;
+    }
+
+    @Override
+    public long getCallerRunsCount(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? t.callerRuns.sum() : 0;
+    }
+
+    @Override
+    public double getPrerequisiteTime(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? toMillis(t.prerequisiteTime.getTotalNanos()) : 0;
+    }
+
+    @Override
+    public double getQueueTime(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? toMillis(t.queueTime.getTotalNanos()) : 0;
+    }
+
+    @Override
+    public double getComputeTime(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? toMillis(t.computeTime.getTotalNanos()) : 0;
+    }
+
+    @Override
+    public long getWaitCount(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? t.waitTime.getCount() : 0;
+    }
+
+    @Override
+    public double getWaitTime(String requestType)
+    {
+        final Timings t = timings.get(requestType);
+        return t != null ? toMillis(t.waitTime.getTotalNanos()) : 0;
+    }
+
+    @Override
+    public String getReport()
+    {
+        final Formatter formatter = new Formatter();
+        formatter.format("%-24s %9s %9s   %-26s   %-26s   %-26s %9s   %-26s%n",
+                "request (times in ms)", "count", "caller", "prereq total/p90/max",
+                "queue total/p90/max", "compute total/p90/max", "waits", "wait total/p90/max");
+        for (String requestType : getRequestTypes())
+        {
+            final Timings t = timings.get(requestType);
+            formatter.format("%-24s %9d %9d   %-26s   %-26s   %-26s %9d   %-26s%n",
+                    requestType,
+                    t.computeTime.getCount(),
+                    t.callerRuns.sum(),
+                    format(t.prerequisiteTime),
+                    format(t.queueTime),
+                    format(t.computeTime),
+                    t.waitTime.getCount(),
+                    format(t.waitTime));
+        }
+        return formatter.toString();
+    }
+
+    @Override
+    public void reset()
+    {
+        timings.clear();
+    }
+
+    /**
+     * Prints the report to the specified stream, unless no request was
+     * recorded.
+     */
+    public void dump(PrintStream out)
+    {
+        if (timings.isEmpty())
+            return;
+        out.print(getReport());
+    }
+
+    private void register()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch (Exception e)
+        {
+            // The statistics are still printed when the VM exits.
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread("RequestStatistics")
+        {
+            @Override
+            public void run()
+            {
+                dump(System.err);
+            }
+        });
+    }
+
+    private static String format(Histogram histogram)
+    {
+        return String.format("%.1f/%.1f/%.1f",
+                toMillis(histogram.getTotalNanos()),
+                toMillis(histogram.getPercentileNanos(90)),
+                toMillis(histogram.getMaxNanos()));
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / 1000000.0;
+    }
+}
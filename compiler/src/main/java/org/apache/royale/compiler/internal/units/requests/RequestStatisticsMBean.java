@@ -0,0 +1,75 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.units.requests;
+
+/**
+ * Management interface of {@link RequestStatistics}. All times are in
+ * milliseconds.
+ */
+public interface RequestStatisticsMBean
+{
+    /**
+     * @return The types of the requests that were made, in alphabetical order.
+     */
+    String[] getRequestTypes();
+
+    /**
+     * @return The number of requests of all types that were computed.
+     */
+    long getTotalRequestCount();
+
+    /**
+     * @return The number of requests of all types that were computed on the
+     * thread that submitted them, because the executor had no thread left.
+     */
+    long getTotalCallerRunsCount();
+
+    long getRequestCount(String requestType);
+
+    long getCallerRunsCount(String requestType);
+
+    /**
+     * @return The time requests of the specified type spent waiting for the
+     * requests they need, before they were submitted to the executor.
+     */
+    double getPrerequisiteTime(String requestType);
+
+    double getQueueTime(String requestType);
+
+    double getComputeTime(String requestType);
+
+    /**
+     * @return The number of times a caller blocked on a result of the
+     * specified type that was not computed yet.
+     */
+    long getWaitCount(String requestType);
+
+    double getWaitTime(String requestType);
+
+    /**
+     * @return A table of the statistics of each request type.
+     */
+    String getReport();
+
+    /**
+     * Discards all statistics collected so far.
+     */
+    void reset();
+}
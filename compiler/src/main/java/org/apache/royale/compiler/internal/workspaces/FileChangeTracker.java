@@ -0,0 +1,216 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.workspaces;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.royale.compiler.filespecs.FileSpecification;
+import org.apache.royale.utils.FilenameNormalization;
+
+/**
+ * Finds the files that changed between two builds that share a
+ * {@link Workspace}, and reports them to the workspace.
+ * <p>
+ * Each call scans the roots and compares the size and modification time of
+ * every file with the ones from the previous scan. Files that are only under
+ * roots that were not scanned before are not reported as added, and files
+ * that are not under any of the roots of a call are not reported as removed,
+ * so that builds of unrelated projects can share a tracker.
+ */
+public class FileChangeTracker
+{
+    /**
+     * The files that were added, changed or removed since the previous call to
+     * {@link FileChangeTracker#update(Collection)}.
+     */
+    public static final class Changes
+    {
+        private final List<String> added = new ArrayList<String>();
+        private final List<String> changed = new ArrayList<String>();
+        private final List<String> removed = new ArrayList<String>();
+
+        public List<String> getAdded()
+        {
+            return added;
+        }
+
+        public List<String> getChanged()
+        {
+            return changed;
+        }
+
+        public List<String> getRemoved()
+        {
+            return removed;
+        }
+
+        public int size()
+        {
+            return added.size() + changed.size() + removed.size();
+        }
+
+        /**
+         * Reports the changes to the specified workspace.
+         */
+        public void applyTo(Workspace workspace)
+        {
+            for (String path : changed)
+                workspace.fileChanged(new FileSpecification(path));
+            for (String path : removed)
+                workspace.fileRemoved(new FileSpecification(path));
+            for (String path : added)
+                workspace.fileAdded(new FileSpecification(path));
+        }
+    }
+
+    /**
+     * The size and modification time of a file.
+     */
+    private static final class Stamp
+    {
+        private final long length;
+        private final long lastModified;
+
+        Stamp(File file)
+        {
+            length = file.length();
+            lastModified = file.lastModified();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Stamp))
+                return false;
+            Stamp other = (Stamp)obj;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (int)(length ^ lastModified);
+        }
+    }
+
+    /**
+     * The stamps of the files seen so far, keyed by normalized path.
+     */
+    private final Map<String, Stamp> stamps = new HashMap<String, Stamp>();
+
+    /**
+     * The roots that were scanned so far.
+     */
+    private final Set<String> scannedRoots = new HashSet<String>();
+
+    /**
+     * Finds the files under the specified roots that were added, changed or
+     * removed since the previous call. Nothing is reported by the first call.
+     *
+     * @param rootFiles The source path, library path and source list entries
+     * of the build. Directories are searched recursively.
+     * @return The changes.
+     */
+    public Changes update(Collection<File> rootFiles)
+    {
+        final List<String> roots = new ArrayList<String>(rootFiles.size());
+        final Map<String, Stamp> current = new HashMap<String, Stamp>();
+        for (File rootFile : rootFiles)
+        {
+            roots.add(normalize(rootFile));
+            collectStamps(rootFile, current);
+        }
+
+        final Changes changes = new Changes();
+        for (Map.Entry<String, Stamp> e : current.entrySet())
+        {
+            final Stamp previous = stamps.put(e.getKey(), e.getValue());
+            if (previous == null)
+            {
+                if (isUnderRoot(e.getKey(), scannedRoots))
+                    changes.added.add(e.getKey());
+            }
+            else if (!previous.equals(e.getValue()))
+            {
+                changes.changed.add(e.getKey());
+            }
+        }
+        for (Iterator<String> it = stamps.keySet().iterator(); it.hasNext();)
+        {
+            final String path = it.next();
+            if (!current.containsKey(path) && isUnderRoot(path, roots))
+            {
+                it.remove();
+                changes.removed.add(path);
+            }
+        }
+        scannedRoots.addAll(roots);
+        return changes;
+    }
+
+    /**
+     * Forgets all the files seen so far.
+     */
+    public void clear()
+    {
+        stamps.clear();
+        scannedRoots.clear();
+    }
+
+    private static boolean isUnderRoot(String path, Collection<String> roots)
+    {
+        for (String root : roots)
+        {
+            if (path.equals(root) || path.startsWith(root + File.separator))
+                return true;
+        }
+        return false;
+    }
+
+    private static void collectStamps(File file, Map<String, Stamp> result)
+    {
+        if (file.isDirectory())
+        {
+            File[] children = file.listFiles();
+            if (children != null)
+            {
+                for (File child : children)
+                    collectStamps(child, result);
+            }
+        }
+        else if (file.isFile())
+        {
+            result.put(normalize(file), new Stamp(file));
+        }
+    }
+
+    private static String normalize(File file)
+    {
+        return FilenameNormalization.normalize(file.getAbsolutePath());
+    }
+}
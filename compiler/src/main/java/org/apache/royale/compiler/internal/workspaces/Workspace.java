@@ -42,12 +42,14 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.royale.abc.SymbolTable;
 import org.apache.royale.compiler.asdoc.IASDocDelegate;
 import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.filespecs.FileSpecification;
 import org.apache.royale.compiler.filespecs.IBinaryFileSpecification;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
 import org.apache.royale.compiler.internal.caches.PackageNamespaceDefinitionCache;
+import org.apache.royale.compiler.internal.config.ConfigurationCache;
 import org.apache.royale.compiler.internal.definitions.references.ReferenceCache;
 import org.apache.royale.compiler.internal.embedding.EmbedData;
 import org.apache.royale.compiler.internal.mxml.MXMLDataManager;
@@ -59,6 +61,7 @@ import org.apache.royale.compiler.internal.scopes.ASProjectScope;
 import org.apache.royale.compiler.internal.units.CompilationUnitBase;
 import org.apache.royale.compiler.internal.units.StringToCompilationUnitMap;
 import org.apache.royale.compiler.internal.units.requests.RequestMaker;
+import org.apache.royale.compiler.internal.units.requests.RequestStatistics;
 import org.apache.royale.compiler.mxml.IMXMLDataManager;
 import org.apache.royale.compiler.projects.ICompilerProject;
 import org.apache.royale.compiler.projects.IASProject;
@@ -100,6 +103,7 @@ public final class Workspace implements IWorkspace
     private final SWCManager swcManager;
     private final MXMLDataManager mxmlDataManager;
     private final PackageNamespaceDefinitionCache packageNamespaceDefinitionCache;
+    private final ConfigurationCache configurationCache = new ConfigurationCache();
 
     private final Map<String, IFileSpecification> pathToFileSpecMap;
     private final StringToCompilationUnitMap pathToCompilationUnitMapping;
@@ -148,6 +152,13 @@ public final class Workspace implements IWorkspace
      */
     private IASDocDelegate asDocDelegate;
 
+    /**
+     * The projects that compilations in a shared workspace keep alive for the
+     * next compilation, keyed by the compiler that created them. The workspace
+     * only holds weak references to its other projects.
+     */
+    private final Map<String, ICompilerProject> sharedProjects = new HashMap<String, ICompilerProject>();
+
     /**
      * Constructor
      */
@@ -158,7 +169,7 @@ public final class Workspace implements IWorkspace
         this(new ThreadPoolExecutor(0, getNumberOfThreadToUse(),
                                     60L, TimeUnit.SECONDS,
                                     new SynchronousQueue<Runnable>(),
-                                    new ThreadPoolExecutor.CallerRunsPolicy()));
+                                    new RequestStatistics.CallerRunsPolicy()));
 
 //        this(Executors.newCachedThreadPool(), indexingDelegate);
     }
@@ -227,6 +238,17 @@ public final class Workspace implements IWorkspace
         return executorService;
     }
 
+    /**
+     * Gets the cache of the configurations processed by the compilations
+     * that share this workspace.
+     * 
+     * @return The {@link ConfigurationCache} of this workspace.
+     */
+    public ConfigurationCache getConfigurationCache()
+    {
+        return configurationCache;
+    }
+
     private CompilerProject[] getProjects()
     {
         return projects.keySet().toArray(new CompilerProject[0]);
@@ -343,6 +365,64 @@ public final class Workspace implements IWorkspace
         return packageNamespaceDefinitionCache;
     }
 
+    /**
+     * Called by the command line compilers when a compilation of the specified
+     * project ends. Waits for the build activity in this workspace to finish,
+     * then closes it. A workspace that is shared with later compilations
+     * outlives each of them, and so does the project, which the next
+     * compilation gets from {@link #getSharedProject(String)}. Its compilation
+     * units stay valid until the files they were built from are reported as
+     * changed.
+     * 
+     * @param project The project that was compiled.
+     * @param isShared true if this workspace is used by later compilations.
+     */
+    public void endCompilation(ICompilerProject project, boolean isShared)
+    {
+        startIdleState();
+        try
+        {
+            if (!isShared)
+                close();
+        }
+        finally
+        {
+            endIdleState(Collections.<ICompilerProject, Set<ICompilationUnit>>emptyMap());
+        }
+    }
+
+    /**
+     * Gets the project that an earlier compilation kept alive in this
+     * workspace.
+     * 
+     * @param key Identifies the compiler that created the project.
+     * @return The project, or null if there is none.
+     * @see #setSharedProject(String, ICompilerProject)
+     */
+    public ICompilerProject getSharedProject(String key)
+    {
+        synchronized (sharedProjects)
+        {
+            return sharedProjects.get(key);
+        }
+    }
+
+    /**
+     * Keeps the specified project alive in this workspace, so that the next
+     * compilation by the same compiler can build in it again instead of
+     * creating a new project.
+     * 
+     * @param key Identifies the compiler that created the project.
+     * @param project The project.
+     */
+    public void setSharedProject(String key, ICompilerProject project)
+    {
+        synchronized (sharedProjects)
+        {
+            sharedProjects.put(key, project);
+        }
+    }
+
     /**
      * Close the workspace. It is illegal to use the workspace after it has been
      * closed.
@@ -351,6 +431,11 @@ public final class Workspace implements IWorkspace
     {
         executorService.shutdown();
         executorService = null;
+        configurationCache.clear();
+        synchronized (sharedProjects)
+        {
+            sharedProjects.clear();
+        }
     }
 
     private final Collection<ICompilationUnit> collectAssociatedCompilationUnits(IFileSpecification file)
@@ -1004,6 +1089,8 @@ public final class Workspace implements IWorkspace
 
     private ReferenceCache refCache = new ReferenceCache();
 
+    private final SymbolTable symbolTable = new SymbolTable();
+
 
     /**
      * Get the ReferenceCache used by this workspace.  This is to facilitate caching
@@ -1017,6 +1104,17 @@ public final class Workspace implements IWorkspace
         return refCache;
     }
 
+    /**
+     * Get the SymbolTable that the names read from the libraries in this
+     * workspace are interned in, so that a name declared by many libraries
+     * is only stored once.
+     * @return  the SymbolTable this workspace is using.
+     */
+    public SymbolTable getSymbolTable()
+    {
+        return symbolTable;
+    }
+
     /**
      * Delete the reference of compiler project from the workspace
      * 
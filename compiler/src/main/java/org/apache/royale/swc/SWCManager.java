@@ -21,6 +21,13 @@ package org.apache.royale.swc;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.royale.compiler.caches.IAssetTagCache;
 import org.apache.royale.compiler.caches.ICSSDocumentCache;
@@ -147,6 +154,70 @@ public class SWCManager extends ConcurrentCacheStoreBase<ISWC> implements ISWCMa
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The catalogs are read concurrently. When {@code includeLibraries} is
+     * true, the library SWFs of all the SWCs are then decoded and the file
+     * scopes of all their scripts are built in parallel.
+     * <p>
+     * Preloading only warms up the caches. Any error is ignored here, because
+     * it will be reported again when the SWC is used through the normal code
+     * path.
+     */
+    @Override
+    public void preload(Collection<File> files, final boolean includeLibraries, ExecutorService executor) throws InterruptedException
+    {
+        final List<Future<ISWC>> swcFutures = new ArrayList<Future<ISWC>>(files.size());
+        for (final File file : files)
+        {
+            swcFutures.add(executor.submit(new Callable<ISWC>()
+            {
+                @Override
+                public ISWC call()
+                {
+                    return get(file);
+                }
+            }));
+        }
+
+        final List<Future<?>> libraryFutures = new ArrayList<Future<?>>();
+        for (Future<ISWC> swcFuture : swcFutures)
+        {
+            final ISWC swc = getPreloaded(swcFuture);
+            if (swc == null || !includeLibraries)
+                continue;
+            for (final ISWCLibrary library : swc.getLibraries())
+            {
+                libraryFutures.add(executor.submit(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        final String librarySWFPath = library.getPath();
+                        swfCache.get(SWFCache.createKey(swc, librarySWFPath));
+                        for (ISWCScript script : library.getScripts())
+                            fileScopeCache.get(FileScopeCache.createKey(swc, librarySWFPath, script));
+                    }
+                }));
+            }
+        }
+        for (Future<?> libraryFuture : libraryFutures)
+            getPreloaded(libraryFuture);
+    }
+
+    private static <T> T getPreloaded(Future<T> future) throws InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (ExecutionException e)
+        {
+            return null;
+        }
+    }
+
     @Override
     public void remove(File file)
     {
@@ -70,6 +70,21 @@ public class InputBitStream extends InputStream implements IInputBitStream
         this.in = new ByteArrayInputStream(bytes);
     }
 
+    /**
+     * Create an {@code InputBitStream} over a range of a byte array.
+     * 
+     * @param bytes source bytes
+     * @param offset index of the first byte in the array
+     * @param length number of bytes in the range
+     * @param streamOffset offset of the first byte in the stream the array
+     * was read from, returned by {@link #getOffset()} before anything is read
+     */
+    public InputBitStream(byte[] bytes, int offset, int length, long streamOffset)
+    {
+        this.in = new ByteArrayInputStream(bytes, offset, length);
+        this.offset = streamOffset;
+    }
+
     /**
      * Discard the data left in the bit value cache. Always call this method
      * after reading bit values and before reading other byte-aligned data.
@@ -89,18 +104,101 @@ public class InputBitStream extends InputStream implements IInputBitStream
     @Override
     public byte[] read(int length)
     {
+        byteAlign();
+        if (offset + length > readBoundary)
+        {
+            throw new RuntimeException(String.format("About to read over or reading over the boundary: %d -> %d.", offset + length, readBoundary));
+        }
+
+        // Read the whole block from the source instead of one byte at a
+        // time, because this is used for the large binary payloads.
         final byte[] data = new byte[length];
         try
         {
-            read(data);
+            int n = 0;
+            while (n < length)
+            {
+                final int count = in.read(data, n, length - n);
+                if (count == -1)
+                {
+                    offset += n;
+                    throw new RuntimeException("No more data to read.");
+                }
+                n += count;
+            }
         }
         catch (IOException e)
         {
             throw new RuntimeException(e);
         }
+        offset += length;
         return data;
     }
 
+    /**
+     * Skip bytes without reading them into an array.
+     * 
+     * @param length number of bytes to skip
+     */
+    public void skip(int length)
+    {
+        byteAlign();
+        if (offset + length > readBoundary)
+        {
+            throw new RuntimeException(String.format("About to read over or reading over the boundary: %d -> %d.", offset + length, readBoundary));
+        }
+
+        try
+        {
+            long n = 0;
+            while (n < length)
+            {
+                final long count = in.skip(length - n);
+                if (count <= 0)
+                {
+                    offset += n;
+                    throw new RuntimeException("No more data to read.");
+                }
+                n += count;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        offset += length;
+    }
+
+    /**
+     * Read all the remaining bytes of the source {@code InputStream},
+     * ignoring the read boundary.
+     * 
+     * @param sizeHint expected number of remaining bytes, or 0 if unknown
+     * @return remaining bytes
+     * @throws IOException error
+     */
+    public byte[] readToEnd(int sizeHint) throws IOException
+    {
+        byteAlign();
+        final DAByteArrayOutputStream buffer = new DAByteArrayOutputStream(Math.max(sizeHint, 32));
+        try
+        {
+            final byte[] chunk = new byte[8192];
+            int count;
+            while ((count = in.read(chunk)) != -1)
+            {
+                buffer.write(chunk, 0, count);
+                offset += count;
+            }
+            // no copy is made if the size hint was exact
+            return buffer.getDirectByteArray();
+        }
+        finally
+        {
+            IOUtils.closeQuietly(buffer);
+        }
+    }
+
     @Override
     public boolean readBit()
     {
@@ -21,12 +21,16 @@ package org.apache.royale.swf.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.apache.royale.compiler.problems.FileIOProblem;
 import org.apache.royale.compiler.problems.ICompilerProblem;
@@ -154,6 +158,56 @@ public class SWFReader implements ISWFReader, ITagContainer
         final int length;
     }
 
+    /**
+     * Position of a tag in the SWF body, and the tag model once it has been
+     * decoded. Only used in lazy mode.
+     */
+    private static class TagEntry
+    {
+        TagEntry(TagType type, int offset, int length)
+        {
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        final TagType type;
+        final int offset;
+        final int length;
+        ITag tag;
+        boolean decoded;
+    }
+
+    /**
+     * The types of the tags that define a character. The body of each of
+     * them starts with the UI16 character ID.
+     */
+    private static final Set<TagType> CHARACTER_TAG_TYPES = EnumSet.of(
+            TagType.DefineBinaryData,
+            TagType.DefineBits,
+            TagType.DefineBitsJPEG2,
+            TagType.DefineBitsJPEG3,
+            TagType.DefineBitsLossless,
+            TagType.DefineBitsLossless2,
+            TagType.DefineButton,
+            TagType.DefineButton2,
+            TagType.DefineEditText,
+            TagType.DefineFont,
+            TagType.DefineFont2,
+            TagType.DefineFont3,
+            TagType.DefineFont4,
+            TagType.DefineMorphShape,
+            TagType.DefineMorphShape2,
+            TagType.DefineShape,
+            TagType.DefineShape2,
+            TagType.DefineShape3,
+            TagType.DefineShape4,
+            TagType.DefineSound,
+            TagType.DefineSprite,
+            TagType.DefineText,
+            TagType.DefineText2,
+            TagType.DefineVideoStream);
+
     /**
      * Mask on the TagCodeAndLength field to get the lower 6 bits of tag length.
      */
@@ -196,6 +250,27 @@ public class SWFReader implements ISWFReader, ITagContainer
 
     protected final Collection<ICompilerProblem> problems = new ArrayList<ICompilerProblem>();
 
+    // Flag for whether tag bodies are decoded on first access.
+    private final boolean lazy;
+
+    // In lazy mode, the uncompressed SWF data that follows the header. It is
+    // released once every tag has been decoded.
+    private byte[] body;
+
+    // Offset of the body in the uncompressed SWF.
+    private long bodyOffset;
+
+    // In lazy mode, the tags in the order they appear in the SWF.
+    private final List<TagEntry> tagEntries;
+
+    // In lazy mode, the first tag defining each character ID.
+    private final Map<Integer, TagEntry> characterEntries;
+
+    // In lazy mode, the first DoABC tag with each name.
+    private final Map<String, TagEntry> doABCEntries;
+
+    private int undecodedTagCount;
+
     /**
      * Create a SWFReader and initialize field members.
      */
@@ -212,9 +287,35 @@ public class SWFReader implements ISWFReader, ITagContainer
      */
     public SWFReader(boolean isBuildFrames)
     {
+        this(isBuildFrames, false);
+    }
+
+    /**
+     * Create a SWFReader and initialize field members.
+     * <p>
+     * In lazy mode, {@link #readFrom} only reads the header of each tag, and
+     * keeps the uncompressed SWF in memory. A tag body is decoded the first
+     * time the tag is accessed, so tags that are never used, such as the
+     * images and sounds in a library SWF, are never decoded. Problems found
+     * in a tag body are added when the tag is decoded. Frames can't be built
+     * in lazy mode.
+     * 
+     * @param isBuildFrames if true, the reader will build SWF frames from tags
+     * read
+     * @param isLazy if true, tag bodies are decoded on first access
+     */
+    public SWFReader(boolean isBuildFrames, boolean isLazy)
+    {
+        if (isBuildFrames && isLazy)
+            throw new IllegalArgumentException("Frames can't be built in lazy mode.");
+
         this.buildFrames = isBuildFrames;
+        this.lazy = isLazy;
         tags = new ArrayList<ITag>();
         dictionary = new HashMap<Integer, ICharacterTag>();
+        tagEntries = new ArrayList<TagEntry>();
+        characterEntries = new HashMap<Integer, TagEntry>();
+        doABCEntries = new HashMap<String, TagEntry>();
         swf = new SWF();
     }
 
@@ -228,7 +329,12 @@ public class SWFReader implements ISWFReader, ITagContainer
         try
         {
             if (readHeader())
-                readTags();
+            {
+                if (lazy)
+                    indexTags();
+                else
+                    readTags();
+            }
         }
         catch (IOException e)
         {
@@ -262,6 +368,14 @@ public class SWFReader implements ISWFReader, ITagContainer
     @Override
     public Collection<ICompilerProblem> getProblems()
     {
+        // In lazy mode, problems are added whenever a tag is decoded.
+        if (lazy)
+        {
+            synchronized (this)
+            {
+                return new ArrayList<ICompilerProblem>(problems);
+            }
+        }
         return problems;
     }
 
@@ -309,6 +423,201 @@ public class SWFReader implements ISWFReader, ITagContainer
         while (tag == null || tag.getTagType() != TagType.End);
     }
 
+    /**
+     * Read the rest of the SWF into memory and index the type, offset and
+     * length of each tag without decoding the tag bodies. Stop at the End
+     * tag.
+     * 
+     * @throws IOException error
+     */
+    protected void indexTags() throws IOException
+    {
+        bodyOffset = bitStream.getOffset();
+        final long swfLength = swf.getHeader().getLength();
+        final int sizeHint = swfLength > bodyOffset ? (int)(swfLength - bodyOffset) : 0;
+        body = bitStream.readToEnd(sizeHint);
+
+        int offset = 0;
+        TagType tagType;
+        do
+        {
+            if (offset + UI16_LENGTH > body.length)
+            {
+                problems.add(new SWFUnexpectedEndOfFileProblem(swfPath));
+                break;
+            }
+            final int tagCodeAndLength = readUI16(body, offset);
+            offset += UI16_LENGTH;
+            tagType = TagType.getTagType(tagCodeAndLength >>> BITS_TAG_LENGTH);
+            int tagLength = tagCodeAndLength & MASK_TAG_LENGTH;
+            if (tagLength == MASK_TAG_LENGTH)
+            {
+                if (offset + SI32_LENGTH > body.length)
+                {
+                    problems.add(new SWFUnexpectedEndOfFileProblem(swfPath));
+                    break;
+                }
+                // long tag header uses an SI32 field for tag length
+                tagLength = readUI16(body, offset) | (readUI16(body, offset + UI16_LENGTH) << 16);
+                offset += SI32_LENGTH;
+            }
+            if (tagLength < 0 || tagLength > body.length - offset)
+            {
+                problems.add(new SWFUnexpectedEndOfFileProblem(swfPath));
+                break;
+            }
+
+            addTagEntry(new TagEntry(tagType, offset, tagLength));
+            offset += tagLength;
+        }
+        while (tagType != TagType.End);
+
+        if (undecodedTagCount == 0)
+            body = null;
+    }
+
+    /**
+     * Add a tag to the index. The character ID of a character tag and the
+     * name of a DoABC tag are read from the tag body so that these tags can
+     * be found without decoding the other tags.
+     */
+    private void addTagEntry(TagEntry entry)
+    {
+        tagEntries.add(entry);
+        undecodedTagCount++;
+
+        if (CHARACTER_TAG_TYPES.contains(entry.type) && entry.length >= UI16_LENGTH)
+        {
+            final Integer id = readUI16(body, entry.offset);
+            if (!characterEntries.containsKey(id))
+                characterEntries.put(id, entry);
+        }
+        else if (entry.type == TagType.DoABC && entry.length > SI32_LENGTH)
+        {
+            // skip the UI32 flags and read the null-terminated name
+            final int nameStart = entry.offset + SI32_LENGTH;
+            final int end = entry.offset + entry.length;
+            int nameEnd = nameStart;
+            while (nameEnd < end && body[nameEnd] != 0)
+                nameEnd++;
+            try
+            {
+                final String name = new String(body, nameStart, nameEnd - nameStart, "UTF-8");
+                if (!doABCEntries.containsKey(name))
+                    doABCEntries.put(name, entry);
+            }
+            catch (UnsupportedEncodingException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static int readUI16(byte[] bytes, int offset)
+    {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+    }
+
+    /**
+     * Decode the body of an indexed tag if it has not been decoded yet.
+     * 
+     * @param entry index entry of the tag
+     * @return tag model or null if the tag is invalid.
+     */
+    private synchronized ITag getTag(TagEntry entry)
+    {
+        if (!entry.decoded)
+        {
+            // Decoding a tag can decode the tags it refers to, so restore
+            // the stream of the outer tag when done.
+            final InputBitStream outerBitStream = bitStream;
+            bitStream = new InputBitStream(body, entry.offset, entry.length, bodyOffset + entry.offset);
+            try
+            {
+                entry.tag = readTag(new TagHeader(entry.type, entry.length));
+            }
+            catch (IOException e)
+            {
+                problems.add(new FileIOProblem(e));
+            }
+            finally
+            {
+                bitStream = outerBitStream;
+            }
+            entry.decoded = true;
+
+            if (entry.tag instanceof ICharacterTag)
+            {
+                final ICharacterTag characterTag = (ICharacterTag)entry.tag;
+                if (!dictionary.containsKey(characterTag.getCharacterID()))
+                    addToDictionary(characterTag);
+            }
+
+            // The decoded tags have their own copy of their data, except
+            // for the DoABC tags, which keep the body alive themselves.
+            if (--undecodedTagCount == 0)
+                body = null;
+        }
+        return entry.tag;
+    }
+
+    /**
+     * Find a {@code DoABC} tag by name. In lazy mode, only that tag is
+     * decoded.
+     * 
+     * @param abcName abc name
+     * @return {@code DoABCTag} or null
+     */
+    public DoABCTag getDoABCTag(String abcName)
+    {
+        if (lazy)
+        {
+            final TagEntry entry = doABCEntries.get(abcName);
+            if (entry == null)
+                return null;
+            final ITag tag = getTag(entry);
+            return tag instanceof DoABCTag ? (DoABCTag)tag : null;
+        }
+
+        for (final ITag tag : tags)
+        {
+            if (tag instanceof DoABCTag && ((DoABCTag)tag).getName().equals(abcName))
+                return (DoABCTag)tag;
+        }
+        return null;
+    }
+
+    /**
+     * Find all the {@code SymbolClass} tags. In lazy mode, only these tags
+     * and the characters they refer to are decoded.
+     * 
+     * @return A Collection of {@code SymbolClassTag}
+     */
+    public Collection<SymbolClassTag> getSymbolClassTags()
+    {
+        final List<SymbolClassTag> symbolTags = new ArrayList<SymbolClassTag>();
+        if (lazy)
+        {
+            for (final TagEntry entry : tagEntries)
+            {
+                if (entry.type != TagType.SymbolClass)
+                    continue;
+                final ITag tag = getTag(entry);
+                if (tag instanceof SymbolClassTag)
+                    symbolTags.add((SymbolClassTag)tag);
+            }
+        }
+        else
+        {
+            for (final ITag tag : tags)
+            {
+                if (tag instanceof SymbolClassTag)
+                    symbolTags.add((SymbolClassTag)tag);
+            }
+        }
+        return symbolTags;
+    }
+
     /**
      * Read the next tag's header field and get the tag length and type.
      * 
@@ -499,6 +808,13 @@ public class SWFReader implements ISWFReader, ITagContainer
 
     private ICharacterTag getTagById(int id, TagType tagType) throws MalformedTagException
     {
+        if (lazy && !dictionary.containsKey(id))
+        {
+            final TagEntry entry = characterEntries.get(id);
+            if (entry != null)
+                getTag(entry);
+        }
+
         if (dictionary.containsKey(id))
         {
             return dictionary.get(id);
@@ -525,9 +841,45 @@ public class SWFReader implements ISWFReader, ITagContainer
     @Override
     public Iterator<ITag> iterator()
     {
+        if (lazy)
+            return new LazyTagIterator();
         return tags.iterator();
     }
 
+    /**
+     * Iterates over the indexed tags, decoding each tag when it is reached.
+     * Invalid tags are skipped, like they are when tags are read eagerly.
+     */
+    private class LazyTagIterator implements Iterator<ITag>
+    {
+        private int index = 0;
+        private ITag next;
+
+        @Override
+        public boolean hasNext()
+        {
+            while (next == null && index < tagEntries.size())
+                next = getTag(tagEntries.get(index++));
+            return next != null;
+        }
+
+        @Override
+        public ITag next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            final ITag result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private CXFormWithAlpha readColorTransformWithAlpha()
     {
         bitStream.byteAlign();
@@ -742,6 +1094,15 @@ public class SWFReader implements ISWFReader, ITagContainer
     {
         final long flag = bitStream.readUI32();
         final String name = bitStream.readString();
+        if (lazy && body != null)
+        {
+            // The tag refers to its bytecode in the body instead of copying
+            // it, so the bytecode is only held once.
+            final int abcOffset = (int)(bitStream.getOffset() - bodyOffset);
+            final int abcLength = (int)(bitStream.getReadBoundary() - bitStream.getOffset());
+            bitStream.skip(abcLength);
+            return new DoABCTag(flag, name, body, abcOffset, abcLength);
+        }
         final byte[] abcData = bitStream.readToBoundary();
         return new DoABCTag(flag, name, abcData);
     }
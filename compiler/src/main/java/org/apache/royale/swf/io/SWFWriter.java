@@ -681,7 +681,7 @@ public class SWFWriter implements ISWFWriter
         assert swf.getUseAS3() : "DoABC tag requires FileAttributes.Actionscript3=true.";
         tagBuffer.writeUI32(tag.getFlags());
         tagBuffer.writeString(tag.getName());
-        tagBuffer.write(tag.getABCData());
+        tagBuffer.write(tag.getABCDataBuffer(), tag.getABCDataOffset(), tag.getABCDataLength());
     }
 
     private void writeEnableDebugger2(EnableDebugger2Tag tag)
@@ -0,0 +1,181 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.abc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.royale.abc.instructionlist.InstructionList;
+import org.apache.royale.abc.semantics.MethodBodyInfo;
+import org.apache.royale.abc.semantics.MethodInfo;
+import org.apache.royale.abc.semantics.Name;
+import org.apache.royale.abc.visitors.IMethodBodyVisitor;
+import org.apache.royale.abc.visitors.IMethodVisitor;
+import org.apache.royale.abc.visitors.IScriptVisitor;
+import org.apache.royale.abc.visitors.ITraitVisitor;
+import org.apache.royale.abc.visitors.ITraitsVisitor;
+import org.apache.royale.abc.visitors.NilABCVisitor;
+import org.apache.royale.abc.visitors.NilMethodBodyVisitor;
+import org.apache.royale.abc.visitors.NilMethodVisitor;
+import org.apache.royale.abc.visitors.NilScriptVisitor;
+import org.apache.royale.abc.visitors.NilTraitsVisitor;
+import org.junit.Test;
+
+public class ABCParserTests
+{
+    /**
+     * Records the script traits and the method bodies that are visited.
+     */
+    private static class RecordingVisitor extends NilABCVisitor
+    {
+        final List<String> traitNames = new ArrayList<String>();
+        int methodCount = 0;
+        int methodEndCount = 0;
+        int bodyCount = 0;
+
+        @Override
+        public IScriptVisitor visitScript()
+        {
+            return new NilScriptVisitor()
+            {
+                @Override
+                public ITraitsVisitor visitTraits()
+                {
+                    return new NilTraitsVisitor()
+                    {
+                        @Override
+                        public ITraitVisitor visitSlotTrait(int kind, Name name, int slotId, Name slotType, Object slotValue)
+                        {
+                            traitNames.add(name.getBaseName());
+                            return null;
+                        }
+                    };
+                }
+            };
+        }
+
+        @Override
+        public IMethodVisitor visitMethod(MethodInfo minfo)
+        {
+            methodCount++;
+            return new NilMethodVisitor()
+            {
+                @Override
+                public IMethodBodyVisitor visitBody(MethodBodyInfo mbi)
+                {
+                    bodyCount++;
+                    return new NilMethodBodyVisitor();
+                }
+
+                @Override
+                public void visitEnd()
+                {
+                    methodEndCount++;
+                }
+            };
+        }
+    }
+
+    private static byte[] createABC() throws Exception
+    {
+        final ABCEmitter emitter = new ABCEmitter();
+        emitter.visit(ABCConstants.VERSION_ABC_MAJOR_FP10, ABCConstants.VERSION_ABC_MINOR_FP10);
+
+        final MethodInfo init = new MethodInfo();
+        final IMethodVisitor mv = emitter.visitMethod(init);
+        mv.visit();
+        final MethodBodyInfo mbi = new MethodBodyInfo();
+        mbi.setMethodInfo(init);
+        final IMethodBodyVisitor mbv = mv.visitBody(mbi);
+        mbv.visit();
+        final InstructionList body = new InstructionList();
+        body.addInstruction(ABCConstants.OP_getlocal0);
+        body.addInstruction(ABCConstants.OP_pushscope);
+        body.addInstruction(ABCConstants.OP_returnvoid);
+        mbv.visitInstructionList(body);
+        mbv.visitEnd();
+        mv.visitEnd();
+
+        final IScriptVisitor sv = emitter.visitScript();
+        sv.visit();
+        final ITraitsVisitor tv = sv.visitTraits();
+        tv.visit();
+        tv.visitSlotTrait(ABCConstants.TRAIT_Var, new Name("x"), 0, new Name("int"), ABCConstants.UNDEFINED_VALUE);
+        tv.visitEnd();
+        sv.visitInit(init);
+        sv.visitEnd();
+
+        emitter.visitEnd();
+        return emitter.emit();
+    }
+
+    @Test
+    public void testReadMethodBodies() throws Exception
+    {
+        final RecordingVisitor visitor = new RecordingVisitor();
+        new ABCParser(createABC()).parseABC(visitor);
+
+        assertEquals(1, visitor.traitNames.size());
+        assertEquals(1, visitor.methodCount);
+        assertEquals(1, visitor.bodyCount);
+        assertEquals(1, visitor.methodEndCount);
+    }
+
+    @Test
+    public void testSkipMethodBodies() throws Exception
+    {
+        final RecordingVisitor visitor = new RecordingVisitor();
+        final ABCParser parser = new ABCParser(createABC());
+        parser.setSkipMethodBodies(true);
+        parser.parseABC(visitor);
+
+        assertEquals("x", visitor.traitNames.get(0));
+        assertEquals(1, visitor.methodCount);
+        assertEquals(0, visitor.bodyCount);
+        assertEquals(1, visitor.methodEndCount);
+    }
+
+    @Test
+    public void testInternStrings() throws Exception
+    {
+        final byte[] abc = createABC();
+        final SymbolTable symbolTable = new SymbolTable();
+
+        final RecordingVisitor first = new RecordingVisitor();
+        final ABCParser firstParser = new ABCParser(abc);
+        firstParser.setSymbolTable(symbolTable);
+        firstParser.parseABC(first);
+
+        final RecordingVisitor second = new RecordingVisitor();
+        final ABCParser secondParser = new ABCParser(abc);
+        secondParser.setSymbolTable(symbolTable);
+        secondParser.parseABC(second);
+
+        final RecordingVisitor notInterned = new RecordingVisitor();
+        new ABCParser(abc).parseABC(notInterned);
+
+        assertSame(first.traitNames.get(0), second.traitNames.get(0));
+        assertNotSame(first.traitNames.get(0), notInterned.traitNames.get(0));
+    }
+}
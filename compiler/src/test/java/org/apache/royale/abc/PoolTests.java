@@ -0,0 +1,85 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.abc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PoolTests
+{
+    @Test
+    public void testAddAndId()
+    {
+        Pool<String> pool = new Pool<String>(Pool.DefaultType.HasDefaultZero);
+        assertEquals(0, pool.add(null));
+        assertEquals(0, pool.getNominalSize());
+
+        // enough entries to force the lookup table to grow several times
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i + 1, pool.add("s" + i));
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i + 1, pool.add("s" + i));
+            assertEquals(i + 1, pool.id("s" + i));
+        }
+
+        assertEquals(1001, pool.size());
+        assertEquals(1001, pool.getNominalSize());
+        assertEquals("s999", pool.getValues().get(999));
+    }
+
+    @Test
+    public void testNoDefaultZero()
+    {
+        Pool<Integer> pool = new Pool<Integer>(Pool.DefaultType.NoDefaultZero);
+        assertEquals(0, pool.getNominalSize());
+        assertEquals(0, pool.add(42));
+        assertEquals(1, pool.add(-42));
+        assertEquals(0, pool.id(42));
+        assertEquals(2, pool.getNominalSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownId()
+    {
+        Pool<String> pool = new Pool<String>(Pool.DefaultType.HasDefaultZero);
+        pool.add("a");
+        pool.id("b");
+    }
+
+    @Test
+    public void testWriteUTF8()
+    {
+        String[] strings = { "", "abc", "\u00e9t\u00e9", "\u4e2d\u6587", "\ud83d\ude00", "a\ud800b", "\udc00" };
+        for (String s : strings)
+        {
+            ABCEmitter.ABCWriter w = new ABCEmitter.ABCWriter();
+            w.write(1);
+            w.writeUTF8(s);
+            byte[] expected = s.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            assertEquals(expected.length, ABCEmitter.ABCWriter.sizeOfUTF8(s));
+            byte[] actual = w.getDirectByteArray();
+            assertEquals(expected.length + 1, actual.length);
+            for (int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], actual[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.royale.compiler.config.Configuration;
+import org.apache.royale.compiler.config.ConfigurationPathResolver;
+import org.apache.royale.compiler.config.Configurator;
+import org.apache.royale.compiler.config.ICompilerSettingsConstants;
+import org.apache.royale.compiler.problems.ICompilerProblem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigurationCacheTests
+{
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        dir = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+    }
+
+    @After
+    public void tearDown()
+    {
+        File[] children = dir.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+                child.delete();
+        }
+        dir.delete();
+    }
+
+    private static File write(File file, String text) throws IOException
+    {
+        FileWriter writer = new FileWriter(file);
+        writer.write(text);
+        writer.close();
+        return file;
+    }
+
+    private static ConfigurationCache.Entry createEntry(File... files)
+    {
+        return new ConfigurationCache.Entry(null, Collections.<ICompilerProblem>emptyList(),
+                Collections.<String>emptyList(), Arrays.asList(files));
+    }
+
+    @Test
+    public void testHitWhenFilesAreUnchanged() throws Exception
+    {
+        File config = write(new File(dir, "a-config.xml"), "<royale-config/>");
+        ConfigurationCache cache = new ConfigurationCache();
+        ConfigurationCache.Entry entry = createEntry(config);
+        cache.put("key", entry);
+
+        assertSame(entry, cache.get("key"));
+        assertNull(cache.get("other"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testHitWhenFileIsOnlyTouched() throws Exception
+    {
+        File config = write(new File(dir, "a-config.xml"), "<royale-config/>");
+        ConfigurationCache cache = new ConfigurationCache();
+        ConfigurationCache.Entry entry = createEntry(config);
+        cache.put("key", entry);
+
+        write(config, "<royale-config/>");
+        config.setLastModified(config.lastModified() + 10000);
+
+        assertSame(entry, cache.get("key"));
+    }
+
+    @Test
+    public void testMissWhenFileChanges() throws Exception
+    {
+        File config = write(new File(dir, "a-config.xml"), "<royale-config/>");
+        ConfigurationCache cache = new ConfigurationCache();
+        cache.put("key", createEntry(config));
+
+        write(config, "<royale-config></royale-config>");
+        config.setLastModified(config.lastModified() + 10000);
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testHitWhenFileChangesBack() throws Exception
+    {
+        File config = write(new File(dir, "a-config.xml"), "<royale-config/>");
+        ConfigurationCache cache = new ConfigurationCache();
+        ConfigurationCache.Entry first = createEntry(config);
+        cache.put("key", first);
+
+        write(config, "<royale-config></royale-config>");
+        config.setLastModified(config.lastModified() + 10000);
+        assertNull(cache.get("key"));
+        ConfigurationCache.Entry second = createEntry(config);
+        cache.put("key", second);
+        assertEquals(2, cache.size());
+        assertSame(second, cache.get("key"));
+
+        write(config, "<royale-config/>");
+        config.setLastModified(config.lastModified() + 20000);
+        assertSame(first, cache.get("key"));
+    }
+
+    @Test
+    public void testMissWhenMissingFileIsCreated() throws Exception
+    {
+        File config = new File(dir, "a-config.xml");
+        ConfigurationCache cache = new ConfigurationCache();
+        cache.put("key", createEntry(config));
+        assertNotNull(cache.get("key"));
+
+        write(config, "<royale-config/>");
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsDropped() throws Exception
+    {
+        ConfigurationCache cache = new ConfigurationCache(2);
+        cache.put("a", createEntry());
+        cache.put("b", createEntry());
+        cache.get("a");
+        cache.put("c", createEntry());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    private Configuration configure(ConfigurationCache cache, String... args)
+    {
+        Configurator configurator = new Configurator();
+        configurator.setConfigurationCache(cache);
+        configurator.setConfigurationPathResolver(new ConfigurationPathResolver(dir.getAbsolutePath()));
+        configurator.setConfiguration(args, ICompilerSettingsConstants.FILE_SPECS_VAR);
+        configurator.getCompilerProblemSettings();
+        return configurator.getConfiguration();
+    }
+
+    @Test
+    public void testConfiguratorReusesCommittedConfiguration() throws Exception
+    {
+        File main = write(new File(dir, "Main.as"), "package { public class Main {} }");
+        File projectConfig = write(new File(dir, "Main-config.xml"),
+                "<royale-config><compiler><debug>true</debug></compiler></royale-config>");
+        ConfigurationCache cache = new ConfigurationCache();
+
+        Configuration first = configure(cache, main.getAbsolutePath());
+        assertTrue(first.isDebuggingEnabled());
+        assertEquals(1, cache.size());
+
+        // same arguments and files: a new configuration is committed from
+        // the cached buffer, so changing one doesn't change the other
+        Configuration second = configure(cache, main.getAbsolutePath());
+        assertNotSame(first, second);
+        assertTrue(second.isDebuggingEnabled());
+        assertEquals(1, cache.getHitCount());
+        second.setCompilerDebug(null, false);
+        assertTrue(configure(cache, main.getAbsolutePath()).isDebuggingEnabled());
+
+        // different arguments
+        Configuration other = configure(cache, "-compiler.debug=false", main.getAbsolutePath());
+        assertNotSame(first, other);
+        assertTrue(!other.isDebuggingEnabled());
+
+        // different project configuration file
+        write(projectConfig, "<royale-config><compiler><debug>false</debug></compiler></royale-config>");
+        projectConfig.setLastModified(projectConfig.lastModified() + 10000);
+        Configuration changed = configure(cache, main.getAbsolutePath());
+        assertNotSame(first, changed);
+        assertTrue(!changed.isDebuggingEnabled());
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.units.requests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.royale.compiler.internal.workspaces.Workspace;
+import org.apache.royale.compiler.problems.ICompilerProblem;
+import org.apache.royale.compiler.units.requests.IRequest;
+import org.apache.royale.compiler.units.requests.IRequestResult;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class RequestMakerTests
+{
+    private static class Result implements IRequestResult
+    {
+        final String value;
+
+        Result(String value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public ICompilerProblem[] getProblems()
+        {
+            return new ICompilerProblem[0];
+        }
+    }
+
+    /**
+     * A requestee whose request waits for the request of another requestee.
+     */
+    private static class Node
+    {
+        final String name;
+        final Node prerequisite;
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> log;
+        final AtomicReference<IRequest<Result, Node>> request = new AtomicReference<IRequest<Result, Node>>();
+        Workspace prerequisiteWorkspace = workspace;
+
+        Node(String name, Node prerequisite, List<String> log)
+        {
+            this.name = name;
+            this.prerequisite = prerequisite;
+            this.log = log;
+        }
+
+        IRequest<Result, Node> getRequest(Workspace workspace)
+        {
+            return maker.getRequest(this, request, workspace, false);
+        }
+    }
+
+    private static final Workspace workspace = new Workspace();
+
+    private static final RequestMaker<Result, Node, Node> maker = new RequestMaker<Result, Node, Node>("test")
+    {
+        @Override
+        protected Collection<IRequest<?, ?>> getPrerequisites(Node u)
+        {
+            if (u.prerequisite == null)
+                return Collections.emptyList();
+            return Collections.<IRequest<?, ?>>singletonList(u.prerequisite.getRequest(u.prerequisiteWorkspace));
+        }
+
+        @Override
+        protected Callable<Result> getCallable(final Node u)
+        {
+            return new Callable<Result>()
+            {
+                @Override
+                public Result call() throws InterruptedException
+                {
+                    u.release.await();
+                    u.log.add(u.name);
+                    return new Result(u.name);
+                }
+            };
+        }
+
+        @Override
+        protected Result getResultForThrowable(Node u, Throwable t)
+        {
+            return new Result("error");
+        }
+    };
+
+    @AfterClass
+    public static void closeWorkspace()
+    {
+        workspace.close();
+    }
+
+    private static Workspace createShutDownWorkspace()
+    {
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        exec.shutdown();
+        return new Workspace(exec);
+    }
+
+    private static void assertRejected(IRequest<Result, Node> request) throws Exception
+    {
+        try
+        {
+            request.toCompletionStage().toCompletableFuture().get();
+            fail("Expected the request to be rejected");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertTrue(request.isDone());
+    }
+
+    @Test
+    public void testPrerequisiteIsDoneFirst() throws Exception
+    {
+        final List<String> log = Collections.synchronizedList(new ArrayList<String>());
+        final Node a = new Node("a", null, log);
+        final Node b = new Node("b", a, log);
+        b.release.countDown();
+
+        final IRequest<Result, Node> request = b.getRequest(workspace);
+        assertFalse(request.isDone());
+
+        a.release.countDown();
+        assertEquals("b", request.get().value);
+        assertTrue(a.request.get().isDone());
+        assertEquals(Arrays.asList("a", "b"), log);
+    }
+
+    @Test
+    public void testCompletionStageDoesNotCompleteRequest() throws Exception
+    {
+        final Node a = new Node("a", null, new ArrayList<String>());
+        final IRequest<Result, Node> request = a.getRequest(workspace);
+
+        request.toCompletionStage().toCompletableFuture().complete(new Result("other"));
+        a.release.countDown();
+
+        assertEquals("a", request.get().value);
+        assertEquals("a", request.toCompletionStage().toCompletableFuture().get().value);
+    }
+
+    @Test
+    public void testRejectedRequestIsCompleted() throws Exception
+    {
+        final Workspace shutDownWorkspace = createShutDownWorkspace();
+        try
+        {
+            final Node a = new Node("a", null, new ArrayList<String>());
+            a.release.countDown();
+
+            assertRejected(a.getRequest(shutDownWorkspace));
+        }
+        finally
+        {
+            shutDownWorkspace.close();
+        }
+    }
+
+    @Test
+    public void testRejectedRequestWithPrerequisiteIsCompleted() throws Exception
+    {
+        final Workspace shutDownWorkspace = createShutDownWorkspace();
+        try
+        {
+            final List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            final Node a = new Node("a", null, log);
+            final Node b = new Node("b", a, log);
+            b.release.countDown();
+
+            final IRequest<Result, Node> request = b.getRequest(shutDownWorkspace);
+            assertFalse(request.isDone());
+
+            a.release.countDown();
+            assertEquals("a", a.request.get().get().value);
+            assertRejected(request);
+            assertEquals(Arrays.asList("a"), log);
+        }
+        finally
+        {
+            shutDownWorkspace.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testWaitersAreReleasedBeforeDependentRuns() throws Exception
+    {
+        // The dependent request of b is run on the thread that completes the
+        // request of a, as the only thread of the executor is busy with it.
+        final Workspace singleThreadWorkspace = new Workspace(new ThreadPoolExecutor(1, 1, 0L,
+                TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy()));
+        try
+        {
+            final List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            final Node a = new Node("a", null, log);
+            final Node b = new Node("b", a, log);
+            b.prerequisiteWorkspace = singleThreadWorkspace;
+
+            // b can only finish once a thread waiting for a has been released.
+            final IRequest<Result, Node> requestA = a.getRequest(singleThreadWorkspace);
+            final Thread waiter = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        requestA.get();
+                        b.release.countDown();
+                    }
+                    catch (InterruptedException e)
+                    {
+                    }
+                }
+            };
+            waiter.start();
+            while (waiter.getState() != Thread.State.WAITING)
+                Thread.yield();
+
+            final IRequest<Result, Node> requestB = b.getRequest(singleThreadWorkspace);
+            a.release.countDown();
+            assertEquals("b", requestB.get().value);
+            assertEquals(Arrays.asList("a", "b"), log);
+        }
+        finally
+        {
+            singleThreadWorkspace.close();
+        }
+    }
+}
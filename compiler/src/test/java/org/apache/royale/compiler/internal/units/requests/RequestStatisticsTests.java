@@ -0,0 +1,112 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.units.requests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RequestStatisticsTests
+{
+    private static final long MILLISECOND = 1000000;
+
+    @Test
+    public void testRecordCompute()
+    {
+        final RequestStatistics statistics = new RequestStatistics();
+        statistics.recordCompute("syntax tree", 0, 2 * MILLISECOND, 10 * MILLISECOND, false);
+        statistics.recordCompute("syntax tree", 4 * MILLISECOND, 0, 20 * MILLISECOND, true);
+        statistics.recordCompute("file scope", 0, MILLISECOND, MILLISECOND, false);
+
+        assertArrayEquals(new String[] {"file scope", "syntax tree"}, statistics.getRequestTypes());
+        assertEquals(3, statistics.getTotalRequestCount());
+        assertEquals(1, statistics.getTotalCallerRunsCount());
+        assertEquals(2, statistics.getRequestCount("syntax tree"));
+        assertEquals(1, statistics.getCallerRunsCount("syntax tree"));
+        assertEquals(4.0, statistics.getPrerequisiteTime("syntax tree"), 0.001);
+        assertEquals(2.0, statistics.getQueueTime("syntax tree"), 0.001);
+        assertEquals(30.0, statistics.getComputeTime("syntax tree"), 0.001);
+        assertEquals(0, statistics.getRequestCount("ABC bytes"));
+    }
+
+    @Test
+    public void testRecordWait()
+    {
+        final RequestStatistics statistics = new RequestStatistics();
+        statistics.recordWait("ABC bytes", 5 * MILLISECOND);
+        statistics.recordWait("ABC bytes", 7 * MILLISECOND);
+
+        assertEquals(2, statistics.getWaitCount("ABC bytes"));
+        assertEquals(12.0, statistics.getWaitTime("ABC bytes"), 0.001);
+        assertEquals(0, statistics.getRequestCount("ABC bytes"));
+        assertTrue(statistics.getReport().contains("ABC bytes"));
+
+        statistics.reset();
+        assertEquals(0, statistics.getRequestTypes().length);
+    }
+
+    @Test
+    public void testHistogramPercentile()
+    {
+        final RequestStatistics.Histogram histogram = new RequestStatistics.Histogram();
+        for (int i = 0; i < 9; i++)
+            histogram.record(MILLISECOND);
+        histogram.record(100 * MILLISECOND);
+
+        // 1ms falls in the bucket that ends at 1024us
+        assertEquals(1024000, histogram.getPercentileNanos(90));
+        assertEquals(100 * MILLISECOND, histogram.getPercentileNanos(100));
+        assertEquals(100 * MILLISECOND, histogram.getMaxNanos());
+        assertEquals(109 * MILLISECOND, histogram.getTotalNanos());
+    }
+
+    @Test
+    public void testCallerRunsPolicy()
+    {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<Runnable>());
+        try
+        {
+            final boolean[] callerRuns = new boolean[1];
+            new RequestStatistics.CallerRunsPolicy().rejectedExecution(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    callerRuns[0] = RequestStatistics.CallerRunsPolicy.isCallerRunning();
+                }
+            }, executor);
+
+            assertTrue(callerRuns[0]);
+            assertFalse(RequestStatistics.CallerRunsPolicy.isCallerRunning());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.workspaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.royale.utils.FilenameNormalization;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileChangeTrackerTests
+{
+    private File root;
+    private FileChangeTracker tracker;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        root = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+        tracker = new FileChangeTracker();
+    }
+
+    @After
+    public void tearDown()
+    {
+        delete(root);
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+                delete(child);
+        }
+        file.delete();
+    }
+
+    private static File write(File file, String text) throws IOException
+    {
+        file.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(file);
+        writer.write(text);
+        writer.close();
+        return file;
+    }
+
+    private static String path(File file)
+    {
+        return FilenameNormalization.normalize(file.getAbsolutePath());
+    }
+
+    @Test
+    public void testFirstUpdateReportsNothing() throws Exception
+    {
+        write(new File(root, "A.as"), "a");
+
+        assertEquals(0, tracker.update(Collections.singletonList(root)).size());
+        assertEquals(0, tracker.update(Collections.singletonList(root)).size());
+    }
+
+    @Test
+    public void testChangedFile() throws Exception
+    {
+        File a = write(new File(root, "a/A.as"), "a");
+        write(new File(root, "b/B.as"), "b");
+        List<File> roots = Collections.singletonList(root);
+        tracker.update(roots);
+
+        write(a, "changed");
+        a.setLastModified(a.lastModified() + 10000);
+
+        FileChangeTracker.Changes changes = tracker.update(roots);
+        assertEquals(Arrays.asList(path(a)), changes.getChanged());
+        assertTrue(changes.getAdded().isEmpty());
+        assertTrue(changes.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void testAddedAndRemovedFiles() throws Exception
+    {
+        File a = write(new File(root, "a/A.as"), "a");
+        List<File> roots = Collections.singletonList(root);
+        tracker.update(roots);
+
+        File b = write(new File(root, "new/dir/B.as"), "b");
+        assertTrue(a.delete());
+
+        FileChangeTracker.Changes changes = tracker.update(roots);
+        assertEquals(Arrays.asList(path(b)), changes.getAdded());
+        assertEquals(Arrays.asList(path(a)), changes.getRemoved());
+        assertTrue(changes.getChanged().isEmpty());
+    }
+
+    @Test
+    public void testFileRoot() throws Exception
+    {
+        File a = write(new File(root, "A.as"), "a");
+        File b = write(new File(root, "B.as"), "b");
+        List<File> roots = Collections.singletonList(a);
+        tracker.update(roots);
+
+        write(b, "changed");
+        b.setLastModified(b.lastModified() + 10000);
+        write(a, "changed");
+        a.setLastModified(a.lastModified() + 10000);
+
+        // B.as is next to the root, but is not part of the build
+        FileChangeTracker.Changes changes = tracker.update(roots);
+        assertEquals(Arrays.asList(path(a)), changes.getChanged());
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void testChangedSize() throws Exception
+    {
+        File a = write(new File(root, "A.as"), "a");
+        List<File> roots = Collections.singletonList(root);
+        tracker.update(roots);
+
+        long lastModified = a.lastModified();
+        write(a, "longer");
+        a.setLastModified(lastModified);
+
+        FileChangeTracker.Changes changes = tracker.update(roots);
+        assertEquals(Arrays.asList(path(a)), changes.getChanged());
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void testNewRootsAreNotReported() throws Exception
+    {
+        File a = write(new File(root, "a/A.as"), "a");
+        File b = write(new File(root, "b/B.as"), "b");
+        tracker.update(Collections.singletonList(a.getParentFile()));
+
+        // the files of a new root were not seen by an earlier build
+        assertEquals(0, tracker.update(Arrays.asList(a.getParentFile(), b.getParentFile())).size());
+
+        // and the files of a root that is left out are not removed
+        write(b, "changed");
+        b.setLastModified(b.lastModified() + 10000);
+        assertEquals(0, tracker.update(Collections.singletonList(a.getParentFile())).size());
+        FileChangeTracker.Changes changes = tracker.update(Collections.singletonList(b.getParentFile()));
+        assertEquals(Arrays.asList(path(b)), changes.getChanged());
+        assertEquals(1, changes.size());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.compiler.internal.workspaces;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.apache.royale.compiler.internal.projects.RoyaleProject;
+import org.junit.Test;
+
+public class WorkspaceTests
+{
+    @Test
+    public void testEndCompilationKeepsSharedWorkspace()
+    {
+        Workspace workspace = new Workspace();
+        try
+        {
+            RoyaleProject project = new RoyaleProject(workspace);
+            workspace.setSharedProject("test", project);
+            workspace.endCompilation(project, true);
+            assertNotNull(workspace.getExecutorService());
+
+            // the next build reuses the workspace and the project
+            assertSame(project, workspace.getSharedProject("test"));
+            workspace.endCompilation(project, true);
+            assertNotNull(workspace.getExecutorService());
+            assertSame(project, workspace.getSharedProject("test"));
+        }
+        finally
+        {
+            workspace.close();
+        }
+        assertNull(workspace.getSharedProject("test"));
+    }
+
+    @Test
+    public void testEndCompilationClosesWorkspace()
+    {
+        Workspace workspace = new Workspace();
+        workspace.endCompilation(new RoyaleProject(workspace), false);
+        assertNull(workspace.getExecutorService());
+    }
+}
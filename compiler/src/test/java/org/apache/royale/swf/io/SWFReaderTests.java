@@ -0,0 +1,165 @@
+/*
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.apache.royale.swf.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.royale.swf.Header;
+import org.apache.royale.swf.SWF;
+import org.apache.royale.swf.SWFFrame;
+import org.apache.royale.swf.TagType;
+import org.apache.royale.swf.tags.DefineBinaryDataTag;
+import org.apache.royale.swf.tags.DoABCTag;
+import org.apache.royale.swf.tags.ITag;
+import org.apache.royale.swf.tags.SymbolClassTag;
+import org.junit.Test;
+
+public class SWFReaderTests
+{
+    private static final byte[] ABC_A = new byte[] {1, 2, 3};
+    private static final byte[] ABC_B = new byte[] {4, 5, 6, 7};
+    private static final byte[] ASSET = new byte[] {8, 9};
+
+    private static byte[] createSWF(Header.Compression compression)
+    {
+        final SWFFrame frame = new SWFFrame();
+        frame.addTag(new DoABCTag(1, "a", ABC_A));
+        final DefineBinaryDataTag asset = new DefineBinaryDataTag(ASSET);
+        frame.addTag(asset);
+        frame.defineSymbol(asset, "Asset");
+        frame.addTag(new DoABCTag(1, "b", ABC_B));
+
+        final SWF swf = new SWF();
+        swf.setUseAS3(true);
+        swf.addFrame(frame);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new SWFWriter(swf, compression).writeTo(output);
+        return output.toByteArray();
+    }
+
+    private static SWFReader read(byte[] bytes, boolean lazy)
+    {
+        final SWFReader reader = new SWFReader(false, lazy);
+        reader.readFrom(new ByteArrayInputStream(bytes), "test.swf");
+        return reader;
+    }
+
+    private static List<TagType> getTagTypes(SWFReader reader)
+    {
+        final List<TagType> types = new ArrayList<TagType>();
+        for (ITag tag : reader)
+            types.add(tag.getTagType());
+        return types;
+    }
+
+    @Test
+    public void testLazyReadsSameTagsAsEager()
+    {
+        for (Header.Compression compression : new Header.Compression[] {Header.Compression.NONE, Header.Compression.ZLIB})
+        {
+            final byte[] bytes = createSWF(compression);
+            final SWFReader eager = read(bytes, false);
+            final SWFReader lazy = read(bytes, true);
+
+            assertTrue(eager.getProblems().isEmpty());
+            assertTrue(lazy.getProblems().isEmpty());
+            assertEquals(getTagTypes(eager), getTagTypes(lazy));
+        }
+    }
+
+    @Test
+    public void testLazyDoABCLookup()
+    {
+        final SWFReader reader = read(createSWF(Header.Compression.ZLIB), true);
+
+        final DoABCTag b = reader.getDoABCTag("b");
+        assertEquals("b", b.getName());
+        assertArrayEquals(ABC_B, b.getABCData());
+        assertSame(b, reader.getDoABCTag("b"));
+        assertArrayEquals(ABC_A, reader.getDoABCTag("a").getABCData());
+        assertNull(reader.getDoABCTag("c"));
+    }
+
+    @Test
+    public void testLazyDoABCSharesBody()
+    {
+        final SWFReader reader = read(createSWF(Header.Compression.ZLIB), true);
+
+        final DoABCTag a = reader.getDoABCTag("a");
+        final DoABCTag b = reader.getDoABCTag("b");
+        assertSame(a.getABCDataBuffer(), b.getABCDataBuffer());
+        assertEquals(ABC_B.length, b.getABCDataLength());
+        assertArrayEquals(ABC_B, Arrays.copyOfRange(b.getABCDataBuffer(),
+                b.getABCDataOffset(), b.getABCDataOffset() + b.getABCDataLength()));
+
+        // writing the tag only writes its range of the body
+        final SWFFrame frame = new SWFFrame();
+        frame.addTag(b);
+        final SWF swf = new SWF();
+        swf.setUseAS3(true);
+        swf.addFrame(frame);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new SWFWriter(swf, Header.Compression.NONE).writeTo(output);
+        assertArrayEquals(ABC_B, read(output.toByteArray(), false).getDoABCTag("b").getABCData());
+    }
+
+    @Test
+    public void testLazySymbolClassLookup()
+    {
+        final SWFReader reader = read(createSWF(Header.Compression.NONE), true);
+
+        final Collection<SymbolClassTag> symbolClassTags = reader.getSymbolClassTags();
+        assertEquals(1, symbolClassTags.size());
+        final DefineBinaryDataTag asset =
+                (DefineBinaryDataTag)symbolClassTags.iterator().next().getSymbol("Asset");
+        assertArrayEquals(ASSET, asset.getData());
+        assertTrue(reader.getProblems().isEmpty());
+    }
+
+    @Test
+    public void testLazyTruncatedSWF()
+    {
+        final byte[] bytes = createSWF(Header.Compression.NONE);
+        final byte[] truncated = new byte[bytes.length - 8];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        final SWFReader reader = read(truncated, true);
+        assertEquals(1, reader.getProblems().size());
+        assertArrayEquals(ABC_A, reader.getDoABCTag("a").getABCData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyCannotBuildFrames()
+    {
+        new SWFReader(true, true);
+    }
+}
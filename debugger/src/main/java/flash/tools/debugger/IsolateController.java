@@ -101,6 +101,17 @@ public interface IsolateController {
 	 */
 	public Value getValueWorker(long valueId, int isolateId) throws NotSuspendedException, NoResponseException, NotConnectedException;
 
+	/**
+	 * @see flash.tools.debugger.Session#getValues(long[])
+	 */
+	public default Value[] getValuesWorker(long[] valueIds, int isolateId) throws NotSuspendedException, NoResponseException, NotConnectedException
+	{
+		Value[] values = new Value[valueIds.length];
+		for (int i = 0; i < valueIds.length; i++)
+			values[i] = getValueWorker(valueIds[i], isolateId);
+		return values;
+	}
+
 	/**
 	 * @see flash.tools.debugger.Session#getGlobal(String)
 	 */
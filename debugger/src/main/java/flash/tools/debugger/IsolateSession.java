@@ -95,6 +95,17 @@ public interface IsolateSession {
 	 */
 	public Value getValue(long valueId) throws NotSuspendedException, NoResponseException, NotConnectedException;
 
+	/**
+	 * @see flash.tools.debugger.Session#getValues(long[])
+	 */
+	public default Value[] getValues(long[] valueIds) throws NotSuspendedException, NoResponseException, NotConnectedException
+	{
+		Value[] values = new Value[valueIds.length];
+		for (int i = 0; i < valueIds.length; i++)
+			values[i] = getValue(valueIds[i]);
+		return values;
+	}
+
 	/**
 	 * @see flash.tools.debugger.Session#getGlobal(String)
 	 */
@@ -255,6 +255,37 @@ public interface Session
 	 * @throws NoResponseException if times out
 	 */
 	public SwfInfo[] getSwfs() throws NoResponseException;
+
+	/**
+	 * Returns the swf which contains the given source file, if the session
+	 * can tell without searching through all of the swfs.  By default, the
+	 * session can't tell, and callers search the swfs for the file using
+	 * SwfInfo.containsSource().
+	 * 
+	 * @param fileId the id of the source file, from SourceFile.getId()
+	 * @param isolateId the isolate the swf was loaded into
+	 * @return null if unknown
+	 */
+	public default SwfInfo getSwfInfoForSource(int fileId, int isolateId)
+	{
+		return null;
+	}
+
+	/**
+	 * Returns the offset within its swf of the given line of the given
+	 * source file.  By default, this is the offset the source file itself
+	 * recorded for the line; sessions that index the line records of each
+	 * swf look the line up there instead.
+	 * 
+	 * @param file the source file
+	 * @param line the line within the source file
+	 * @param isolateId the isolate the swf was loaded into
+	 * @return 0 if unknown
+	 */
+	public default int getOffsetForLine(SourceFile file, int line, int isolateId)
+	{
+		return file.getOffsetForLine(line);
+	}
 	
 	/**
 	 * Get a list of the current breakpoints.  No specific ordering
@@ -413,6 +444,28 @@ public interface Session
 	 * @throws NotConnectedException if Player is disconnected from Session
 	 */
 	public Value getValue(long valueId) throws NotSuspendedException, NoResponseException, NotConnectedException;
+
+	/**
+	 * Returns the values for several identifiers at once.  Sessions that
+	 * can do so request any values that are not already known, along with
+	 * their members, from the Player in a single round trip, rather than one
+	 * round trip per value; by default, each value is looked up with
+	 * getValue().  The values are cached until the Player resumes.
+	 * @param valueIds identifiers from Value class or
+	 * from calls to Value.getId()
+	 * @return an array with the same length as valueIds, containing
+	 * null for each value that cannot be found.
+	 * @throws NoResponseException if times out
+	 * @throws NotSuspendedException if Player is running
+	 * @throws NotConnectedException if Player is disconnected from Session
+	 */
+	public default Value[] getValues(long[] valueIds) throws NotSuspendedException, NoResponseException, NotConnectedException
+	{
+		Value[] values = new Value[valueIds.length];
+		for (int i = 0; i < valueIds.length; i++)
+			values[i] = getValue(valueIds[i]);
+		return values;
+	}
 	
 	/**
 	 * Looks up a global name, like "MyClass", "String", etc.
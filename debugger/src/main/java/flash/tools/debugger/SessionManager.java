@@ -84,6 +84,9 @@ public interface SessionManager
 	 * are relevant when performing WiFi debugging. 
 	 * This is -1 by default to indicate no timeout 
 	 * (for backward compatibility).
+	 * Set this before calling <code>startListening()</code>, because
+	 * the connections accepted by a socket that was opened without a
+	 * timeout don't support one.
 	 */
 	public static final String PREF_SOCKET_TIMEOUT			= "$sockettimeout"; //$NON-NLS-1$
 
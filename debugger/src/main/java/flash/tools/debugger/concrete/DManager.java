@@ -154,6 +154,11 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 													 * WARNING: accessed from
 													 * multiple threads
 													 */
+		public final Map<Integer, DSwfInfo> m_sourceSwfs; /*
+														 * swf of each source
+														 * file, guarded by
+														 * m_source
+														 */
 		private final ArrayList<DSwfInfo> m_swfInfo; /*
 													 * WARNING: accessed from
 													 * multiple threads
@@ -189,6 +194,7 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 
 		public DManagerIsolateState() {
 			m_source = new HashMap<Integer, DModule>();
+			m_sourceSwfs = new HashMap<Integer, DSwfInfo>();
 			m_values = new HashMap<Long, DValue>();
 			m_previousValues = new HashMap<Long, DValue>();
 			m_frames = new ArrayList<DStackContext>();
@@ -424,6 +430,10 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 					// this is ok, it means the scripts are coming...
 				} else {
 					info.addSource(i, m);
+					Map<Integer, DModule> source = getIsolateState(isolateId).m_source;
+					synchronized (source) {
+						getIsolateState(isolateId).m_sourceSwfs.put(i, info);
+					}
 				}
 			}
 		}
@@ -461,6 +471,7 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 					swf = getOrCreateSwfInfo(swfIndex, isolateId);
 
 				swf.addSource(moduleId, s);
+				getIsolateState(isolateId).m_sourceSwfs.put(moduleId, swf);
 
 				return true;
 			}
@@ -482,6 +493,7 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 		synchronized (source) {
 			try {
 				source.remove(id);
+				getIsolateState(isolateId).m_sourceSwfs.remove(id);
 			} catch (Exception e) {
 				return false;
 			}
@@ -496,6 +508,26 @@ public class DManager implements DProtocolNotifierIF, SourceLocator {
 		}
 	}
 
+	/**
+	 * @return the swf which contains the given source file, or null if
+	 *         unknown.
+	 */
+	public DSwfInfo getSwfInfoForSource(int id, int isolateId) {
+		Map<Integer, DModule> source = getIsolateState(isolateId).m_source;
+		synchronized (source) {
+			return getIsolateState(isolateId).m_sourceSwfs.get(id);
+		}
+	}
+
+	/**
+	 * @return the offset within its swf of the given line of the given
+	 *         source file, from the line index of the swf, or 0 if unknown.
+	 */
+	public int getOffsetForLine(int id, int line, int isolateId) {
+		DSwfInfo swf = getSwfInfoForSource(id, isolateId);
+		return (swf == null) ? 0 : swf.getOffsetForLine(id, line);
+	}
+
 	// @deprecated
 	public DModule[] getSources() {
 		Map<Integer, DModule> source = getIsolateState(Isolate.DEFAULT_ID).m_source;
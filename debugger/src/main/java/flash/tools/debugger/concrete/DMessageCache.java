@@ -36,7 +36,9 @@ package flash.tools.debugger.concrete;
  *
  * Very large DMessages are currently not cached.
  * 
- * This is class is a singleton.
+ * This is class is a singleton.  Messages are allocated by the thread that
+ * receives messages as well as by threads that send them, so access to the
+ * cache is synchronized.
  */
 public class DMessageCache
 {
@@ -48,7 +50,7 @@ public class DMessageCache
 	/**
 	 * Obtain a DMessage from the cache if possible, otherwise make one for me.
 	 */
-	public static DMessage alloc(int size)
+	public static synchronized DMessage alloc(int size)
 	{
 		DMessage msg;
 
@@ -86,7 +88,7 @@ public class DMessageCache
 	/**
 	 * Put a DMessage into the cache for reuse
 	 */
-	public static void free(DMessage msg)
+	public static synchronized void free(DMessage msg)
 	{
 		int index = size2Index(msg.getSize());
 
@@ -24,6 +24,9 @@ import java.io.InterruptedIOException;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
 import java.util.EnumMap;
 
 import flash.tools.debugger.SessionManager;
@@ -43,6 +46,14 @@ import flash.util.Trace;
  * Messages that are received via this class are packaged in a DMessage and then
  * provided to any listeners if requested.   Filtering of incoming messages 
  * at this level is not supported.
+ * 
+ * If the socket has a channel, incoming messages are decoded from a direct
+ * buffer that the channel reads into, rather than from the socket's input
+ * stream.  The input stream of a socket with a channel must not be read,
+ * because each read blocks writes to the socket until it returns.  Channel
+ * reads don't time out, so broken sockets are only detected with a socket
+ * timeout for sockets without a channel, which is why PlayerSessionManager
+ * only opens sockets with channels when there is no socket timeout.
  */
 public class DProtocol implements Runnable
 {
@@ -61,6 +72,10 @@ public class DProtocol implements Runnable
 	private volatile Exception m_disconnectCause;
 	private volatile Socket m_socket;
 	private boolean m_detectBrokenSocket;
+	private SocketChannel m_channel;	// null unless messages are read from the channel
+	private ByteBuffer m_rxBuffer;		// only used by the receive thread
+
+	private static final int RX_BUFFER_SIZE = 64 * 1024;
 
 	public enum ListenerIndex
 	{
@@ -94,7 +109,14 @@ public class DProtocol implements Runnable
 	{
 		this(in, out);
 		m_socket = s;
-		m_detectBrokenSocket = detectBrokenSocket;
+		m_detectBrokenSocket = detectBrokenSocket && s.getChannel() == null;
+		if (s.getChannel() != null)
+		{
+			m_channel = s.getChannel();
+			m_rxBuffer = ByteBuffer.allocateDirect(RX_BUFFER_SIZE);
+			m_rxBuffer.order(ByteOrder.LITTLE_ENDIAN);
+			m_rxBuffer.limit(0);
+		}
 	}
 	
 	
@@ -142,7 +164,10 @@ public class DProtocol implements Runnable
 		applyBaseSocketSettings(s);
 		int socketTimeout = sessionManager.getPreference(SessionManager.PREF_SOCKET_TIMEOUT);
 		boolean checkSocket = false;
-		if (socketTimeout > 0)
+		// a socket with a channel is read from the channel, which ignores
+		// the timeout; this only happens if the timeout was set after
+		// PlayerSessionManager started listening
+		if (socketTimeout > 0 && s.getChannel() == null)
 		{
 			s.setSoTimeout(socketTimeout);
 			checkSocket = true;
@@ -348,6 +373,9 @@ public class DProtocol implements Runnable
      */
 	private DMessage rxMessage() throws IOException
 	{
+		if (m_channel != null)
+			return rxMessageFromChannel();
+
         int size = -1;
 		int command = 0;
 
@@ -446,6 +474,54 @@ public class DProtocol implements Runnable
 		return message;
 	}
 
+	/**
+	 * Get the next message from the channel.  The header is decoded directly
+	 * from the receive buffer, and the data is copied from it into a message
+	 * from the cache, so small messages don't allocate anything.
+	 */
+	private DMessage rxMessageFromChannel() throws IOException
+	{
+		fillRxBuffer(8);
+		int size = m_rxBuffer.getInt();
+		int command = m_rxBuffer.getInt();
+
+		if (size < 0)
+			throw new IOException("socket closed"); //$NON-NLS-1$
+
+		DMessage message = DMessageCache.alloc(size);
+		byte[] messageContent = message.getData();
+		int offset = 0;
+
+		/* messages larger than the buffer are copied a piece at a time */
+		while (offset < size)
+		{
+			if (!m_rxBuffer.hasRemaining())
+				fillRxBuffer(1);
+			int count = Math.min(size - offset, m_rxBuffer.remaining());
+			m_rxBuffer.get(messageContent, offset, count);
+			offset += count;
+		}
+
+		message.setType(command);
+		synchronized (this) { m_msgRx++; }
+		return message;
+	}
+
+	/**
+	 * Block until the receive buffer contains at least the given number of bytes
+	 */
+	private void fillRxBuffer(int count) throws IOException
+	{
+		while (m_rxBuffer.remaining() < count)
+		{
+			m_rxBuffer.compact();
+			int read = m_channel.read(m_rxBuffer);
+			m_rxBuffer.flip();
+			if (read < 0)
+				throw new IOException("socket closed"); //$NON-NLS-1$
+		}
+	}
+
 	void writeDWord(long dw) throws IOException
 	{
 		byte b0 = (byte)(dw & 0xff);
@@ -130,6 +130,7 @@ public class DStackContext implements Frame
 	void setOffset(int offset)					{ m_offset = offset; }
 	void setIsolateId(int id)					{ m_isolateId = id; }
 	void markStale()							{ m_populated = false; } // triggers a reload of variables.
+	void markPopulated()						{ m_populated = true; }
 
 	/**
 	 * Removes the specified variable from the list of locals, and
@@ -24,6 +24,7 @@ import flash.swf.debug.LineRecord;
 import flash.tools.ActionLocation;
 import flash.tools.debugger.InProgressException;
 import flash.tools.debugger.Isolate;
+import flash.tools.debugger.Location;
 import flash.tools.debugger.NoResponseException;
 import flash.tools.debugger.Session;
 import flash.tools.debugger.SourceFile;
@@ -57,6 +58,8 @@ public class DSwfInfo implements SwfInfo
 
 	private boolean						m_populated;	// set if we have already tried to load swf/swd for this info
 	private LineFunctionContainer		m_container;	// used for pulling out detailed info about the swf
+	private volatile SwfLineIndex		m_lineIndex;	// offset <-> line lookups, available once the swd has been parsed
+	private SwfLineIndex				m_newLineIndex;	// temporary while we parse
 
 	private final static String UNKNOWN = PlayerSessionManager.getLocalizationManager().getLocalizedTextString("unknown"); //$NON-NLS-1$
 
@@ -221,6 +224,46 @@ public class DSwfInfo implements SwfInfo
 		return m_container.locationLessOrEqualTo(offset);
 	}
 
+	/**
+	 * @return the index of line records for this swf, or null if the swf/swd
+	 * has not been parsed yet.
+	 */
+	public SwfLineIndex getLineIndex()
+	{
+		return m_lineIndex;
+	}
+
+	/**
+	 * Locate the source line of the given offset within the swf
+	 * 
+	 * @return null if the swf/swd has not been parsed yet, or if the offset
+	 * isn't within a known source file
+	 */
+	public Location locationForOffset(int offset)
+	{
+		SwfLineIndex index = m_lineIndex;
+		int i = (index == null) ? -1 : index.find(offset);
+		if (i < 0)
+			return null;
+
+		DModule module = (DModule) m_source.get(index.getModuleId(i));
+		if (module == null)
+			return null;
+
+		return new DLocation(module, index.getLine(i), m_isolateId);
+	}
+
+	/**
+	 * @return the lowest offset within the swf for the given line of the
+	 * given source file.  0 if unknown, or if the swf/swd has not been
+	 * parsed yet.
+	 */
+	public int getOffsetForLine(int fileId, int line)
+	{
+		SwfLineIndex index = m_lineIndex;
+		return (index == null) ? 0 : index.getOffsetForLine(fileId, line);
+	}
+
 	/**
 	 * Ask the container to locate the next line
 	 * record following the location specified in the 
@@ -276,8 +319,14 @@ public class DSwfInfo implements SwfInfo
 		// suck in the swf/swd into action lists and then walk the lists
 		// looking for LineRecords
 		m_container = new LineFunctionContainer(m_swf, m_swd);
+		m_newLineIndex = new SwfLineIndex();
 		m_container.combForLineRecords(this);
 
+		// the index is only published once it is complete
+		m_newLineIndex.freeze();
+		m_lineIndex = m_newLineIndex;
+		m_newLineIndex = null;
+
 		// we are done, sucess or no
 		setPopulated();
 
@@ -304,10 +353,14 @@ public class DSwfInfo implements SwfInfo
 			;
 		else if ( (id = local2Global(dm.id)) < 0 )
 			;
-		else if ( (module = m_manager.getSource(id, Isolate.DEFAULT_ID)) == null )
-			;
 		else
-			module.addLineFunctionInfo(where.actions.getOffset(where.at), line, func);
+		{
+			int offset = where.actions.getOffset(where.at);
+			m_newLineIndex.add(offset, id, line, func);
+
+			if ( (module = m_manager.getSource(id, Isolate.DEFAULT_ID)) != null )
+				module.addLineFunctionInfo(offset, line, func);
+		}
 	}
 
 	/* for debugging */
@@ -129,6 +129,12 @@ public class IsolatePlayerSession implements IsolateSession {
 		return fSession.getValueWorker(valueId, fIsolateId);
 	}
 
+	@Override
+	public Value[] getValues(long[] valueIds) throws NotSuspendedException,
+			NoResponseException, NotConnectedException {
+		return fSession.getValuesWorker(valueIds, fIsolateId);
+	}
+
 	@Override
 	public Value getGlobal(String name) throws NotSuspendedException,
 			NoResponseException, NotConnectedException {
@@ -26,10 +26,12 @@ import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -765,6 +767,27 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 		return getSwfsWorker(Isolate.DEFAULT_ID);
 	}
 
+	/*
+	 * @see flash.tools.debugger.Session#getSwfInfoForSource(int, int)
+	 */
+	@Override
+	public SwfInfo getSwfInfoForSource(int fileId, int isolateId)
+	{
+		return m_manager.getSwfInfoForSource(fileId, isolateId);
+	}
+
+	/*
+	 * @see flash.tools.debugger.Session#getOffsetForLine(flash.tools.debugger.SourceFile, int, int)
+	 */
+	@Override
+	public int getOffsetForLine(SourceFile file, int line, int isolateId)
+	{
+		int offset = m_manager.getOffsetForLine(file.getId(), line, isolateId);
+		if (offset == 0)
+			offset = file.getOffsetForLine(line);
+		return offset;
+	}
+
 	/**
 	 * Request information on a particular swf, used by DSwfInfo
 	 * to fill itself correctly
@@ -1041,23 +1064,20 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 
 		requestFrame(0, isolateId);  // our 0th frame gets our local context
 
-		// now let's request all of the special variables too
-		getValueWorker(Value.GLOBAL_ID, isolateId);
-		getValueWorker(Value.THIS_ID, isolateId);
-		getValueWorker(Value.ROOT_ID, isolateId);
-
-		// request as many levels as we can get
-		int i = 0;
-		Value v = null;
-		do
-		{
-			v = getValueWorker(Value.LEVEL_ID-i, isolateId);
-		}
-		while( i++ < 128 && v != null);
+		// now let's request all of the special variables too, along with as
+		// many levels as we can get, all at once
+		final int LEVEL_COUNT = 129;
+		long[] ids = new long[3 + LEVEL_COUNT];
+		ids[0] = Value.GLOBAL_ID;
+		ids[1] = Value.THIS_ID;
+		ids[2] = Value.ROOT_ID;
+		for (int i = 0; i < LEVEL_COUNT; i++)
+			ids[3 + i] = Value.LEVEL_ID - i;
+		getValuesWorker(ids, isolateId);
 
 		// now that we've primed the DManager we can request the base variable whose
 		// children are the variables that are available
-		v = m_manager.getValue(Value.BASE_ID, isolateId);
+		Value v = m_manager.getValue(Value.BASE_ID, isolateId);
 		if (v == null)
 			throw new VersionException();
 		return v.getMembers(this);
@@ -1093,6 +1113,11 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 			}
 
 			pullUpActivationObjectVariables(depth, isolateId);
+
+			// the frame now has its context, so it needn't ask for it again
+			// until the player resumes
+			if (depth < m_manager.getFrameCount(isolateId))
+				m_manager.getFrame(depth, isolateId).markPopulated();
 		}
 	}
 	
@@ -1228,6 +1253,41 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 		return val;
 	}
 
+	public Value[] getValues(long[] valueIds) throws NotSuspendedException, NoResponseException, NotConnectedException
+	{
+		return getValuesWorker(valueIds, Isolate.DEFAULT_ID);
+	}
+
+	public Value[] getValuesWorker(long[] valueIds, int isolateId) throws NotSuspendedException, NoResponseException, NotConnectedException
+	{
+		if (!isWorkerSuspended(isolateId))
+			throw new NotSuspendedException();
+
+		// find everything that isn't cached yet, so that it can all be
+		// requested at once.  members are fetched along with each value,
+		// because they are usually the next thing that will be asked for.
+		boolean needFrame = false;
+		Set<Long> requestIds = new LinkedHashSet<Long>();
+		for (long valueId : valueIds)
+		{
+			DValue val = m_manager.getValue(valueId, isolateId);
+			if (val == null && valueId < Value.UNKNOWN_ID)
+				needFrame = true;
+			else if (valueId > Value.UNKNOWN_ID && (val == null || !val.membersObtained()))
+				requestIds.add(valueId);
+		}
+
+		if (needFrame)
+			requestFrame(0, isolateId); // force our current frame to get populated, BASE_ID will be available
+		if (requestIds.size() > 0)
+			requestVariables(requestIds, isolateId);
+
+		Value[] result = new Value[valueIds.length];
+		for (int i = 0; i < valueIds.length; i++)
+			result[i] = m_manager.getValue(valueIds[i], isolateId);
+		return result;
+	}
+
 	/**
 	 * Returns the current value object for the given id; never requests it from the player.
 	 */
@@ -1550,6 +1610,38 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 			throw new NoResponseException(timeout);
 	}
 
+	/**
+	 * Requests several values, along with their members, in a single round
+	 * trip.  Getters are never fired.
+	 */
+	private void requestVariables(Collection<Long> ids, int isolateId) throws NoResponseException, NotConnectedException, NotSuspendedException
+	{
+		if (!isWorkerSuspended(isolateId))
+			throw new NotSuspendedException();
+
+		DMessage[] dms = new DMessage[ids.size()];
+		int i = 0;
+		for (long id : ids)
+		{
+			dms[i] = buildOutGetMessage(id, null, false, true);
+			dms[i].setTargetIsolate(isolateId);
+			i++;
+		}
+
+		m_manager.beginPlayerCodeExecution(isolateId);
+
+		int timeout = getPreference(SessionManager.PREF_GETVAR_RESPONSE_TIMEOUT);
+		timeout += 500; // give the player enough time to raise its timeout exception
+
+		boolean result = pipelinedRequestResponseMessages(dms, DMessage.InGetVariable, timeout);
+
+		// tell manager we're done; ignore returned FaultEvent
+		m_manager.endPlayerCodeExecution(isolateId);
+
+		if (!result)
+			throw new NoResponseException(timeout);
+	}
+
 	private DMessage buildOutGetMessage(long id, String name, boolean fireGetter, boolean alsoGetChildren)
 	{
 		final int FLAGS_SIZE = 4;
@@ -2116,6 +2208,20 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 	 * @return false is no response.
 	 */
 	boolean simpleRequestResponseMessage(DMessage msg, int msgType, int timeout)
+	{
+		return pipelinedRequestResponseMessages(new DMessage[] { msg }, msgType, timeout);
+	}
+
+	/**
+	 * Send all of our messages without waiting in between, and then wait until
+	 * a response has been received for each of them.  The player handles
+	 * messages in order, so this takes a single round trip instead of one
+	 * round trip per message.  All of the messages must target the same
+	 * isolate, and expect the same type of response.
+	 *
+	 * @return false if some of the messages had no response.
+	 */
+	boolean pipelinedRequestResponseMessages(DMessage[] msgs, int msgType, int timeout)
 	{
 		boolean response = false;
 
@@ -2126,12 +2232,13 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 
 		// note the number of messages of this type before our send
 		DMessageCounter msgCounter = getMessageCounter();
-		int isolate = msg.getTargetIsolate();
+		int isolate = msgs[0].getTargetIsolate();
 		long num = getMessageInCount(msgCounter, isolate, msgType);
-		long expect = num+1;
+		long expect = num+msgs.length;
 
-		// send the message
-		sendMessage(msg);
+		// send the messages
+		for (DMessage msg : msgs)
+			sendMessage(msg);
 
 		long startTime = System.currentTimeMillis();
 //		System.out.println("sending- "+DMessage.outTypeName(msg.getType())+",timeout="+timeout+",start="+start);
@@ -2173,7 +2280,7 @@ public class PlayerSession implements Session, DProtocolNotifierIF, Runnable, Is
 		if (getMessageInCount(msgCounter, isolate, msgType) >= expect)
 			response = true;
 		else if (timeout <= 0 && Trace.error)
-			Trace.trace("Timed-out waiting for "+DMessage.inTypeName(msgType)+" response to message "+msg.outToString()); //$NON-NLS-1$ //$NON-NLS-2$
+			Trace.trace("Timed-out waiting for "+DMessage.inTypeName(msgType)+" response to message "+msgs[msgs.length-1].outToString()); //$NON-NLS-1$ //$NON-NLS-2$
 
 //		long endTime = System.currentTimeMillis();
 //		System.out.println("    response- "+response+",timeout="+timeout+",elapsed="+(endTime-startTime));
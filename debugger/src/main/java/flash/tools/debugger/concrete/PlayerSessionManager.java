@@ -28,6 +28,8 @@ import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -129,8 +131,37 @@ public class PlayerSessionManager implements SessionManager2
 	 */
 	public void startListening() throws IOException 
 	{
-		if (m_serverSocket == null)
+		if (m_serverSocket == null && !useSocketChannels())
+		{
 			m_serverSocket = new ServerSocket(DProtocol.DEBUG_PORT);
+		}
+		else if (m_serverSocket == null)
+		{
+			// sockets accepted by a channel's server socket have channels,
+			// which allows DProtocol to read messages from the channel
+			ServerSocketChannel channel = ServerSocketChannel.open();
+			try
+			{
+				channel.socket().bind(new InetSocketAddress(DProtocol.DEBUG_PORT));
+			}
+			catch (IOException e)
+			{
+				channel.close();
+				throw e;
+			}
+			m_serverSocket = channel.socket();
+		}
+	}
+
+	/**
+	 * Sockets are only opened with channels when there is no socket timeout.
+	 * A socket with a channel can't time out while DProtocol reads it from
+	 * the channel, and reading it from its input stream instead would block
+	 * every write to the socket for as long as the read waits.
+	 */
+	private boolean useSocketChannels()
+	{
+		return getPreference(PREF_SOCKET_TIMEOUT) <= 0;
 	}
 
 	/*
@@ -931,7 +962,7 @@ public class PlayerSessionManager implements SessionManager2
 			try
 			{
 				InetSocketAddress localAddress = new InetSocketAddress(InetAddress.getByName(null), port);
-				s = new Socket();
+				s = useSocketChannels() ? SocketChannel.open().socket() : new Socket();
 				//save the socket for canceling connect
 				m_connectSocket = s;
 				//connect to loopback address at the specified port
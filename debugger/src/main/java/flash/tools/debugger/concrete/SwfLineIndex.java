@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package flash.tools.debugger.concrete;
+
+import java.util.Arrays;
+
+/**
+ * A compact index of the line records of a single swf.  Each record maps an
+ * offset within the swf to a source file id, a line and the name of the
+ * function that contains it.  The records are kept in parallel arrays, sorted
+ * by offset, and a second ordering sorted by file and line, so that both
+ * directions may be looked up with a binary search.
+ * 
+ * The index is filled while the swd is parsed, and then frozen.  Once frozen,
+ * it is never modified, so it may be read from any thread.
+ */
+public class SwfLineIndex
+{
+	private int			m_count;
+	private int[]		m_offsets = new int[64];
+	private int[]		m_modules = new int[64];
+	private int[]		m_lines = new int[64];
+	private String[]	m_functions = new String[64];
+	private int[]		m_byLine;		// record indices sorted by module and then by line
+	private boolean		m_frozen;
+
+	/**
+	 * Adds a line record.  May only be called before the index is frozen.
+	 */
+	void add(int offset, int module, int line, String function)
+	{
+		if (m_frozen)
+			throw new IllegalStateException();
+
+		if (m_count == m_offsets.length)
+		{
+			int size = m_count * 2;
+			m_offsets = Arrays.copyOf(m_offsets, size);
+			m_modules = Arrays.copyOf(m_modules, size);
+			m_lines = Arrays.copyOf(m_lines, size);
+			m_functions = Arrays.copyOf(m_functions, size);
+		}
+		m_offsets[m_count] = offset;
+		m_modules[m_count] = module;
+		m_lines[m_count] = line;
+		m_functions[m_count] = function;
+		m_count++;
+	}
+
+	/**
+	 * Sorts the records, after which no more records may be added.
+	 */
+	void freeze()
+	{
+		// sort the records by offset; the records usually arrive in order
+		// of offset already, so the sort is cheap
+		long[] keys = new long[m_count];
+		for (int i = 0; i < m_count; i++)
+			keys[i] = m_offsets[i];
+		int[] byOffset = sortedIndices(keys);
+		m_offsets = permute(m_offsets, byOffset);
+		m_modules = permute(m_modules, byOffset);
+		m_lines = permute(m_lines, byOffset);
+		String[] functions = new String[m_count];
+		for (int i = 0; i < m_count; i++)
+			functions[i] = m_functions[byOffset[i]];
+		m_functions = functions;
+
+		for (int i = 0; i < m_count; i++)
+			keys[i] = ((long)m_modules[i] << 32) | (m_lines[i] & 0xffffffffL);
+		m_byLine = sortedIndices(keys);
+		m_frozen = true;
+	}
+
+	public int		getCount()				{ return m_count; }
+	public int		getOffset(int i)		{ return m_offsets[i]; }
+	public int		getModuleId(int i)		{ return m_modules[i]; }
+	public int		getLine(int i)			{ return m_lines[i]; }
+	public String	getFunctionName(int i)	{ return m_functions[i]; }
+
+	/**
+	 * @return the index of the record with the largest offset that does not
+	 * exceed the given offset, or -1 if the offset comes before all records.
+	 */
+	public int find(int offset)
+	{
+		int lo = 0;
+		int hi = m_count - 1;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			int m = m_offsets[mid];
+			if (offset > m)
+				lo = mid + 1;
+			else if (offset < m)
+				hi = mid - 1;
+			else
+				return mid;
+		}
+		return lo - 1;
+	}
+
+	/**
+	 * @return the lowest offset of the given line of the given source file,
+	 * or 0 if there is no code for that line.
+	 */
+	public int getOffsetForLine(int module, int line)
+	{
+		long key = ((long)module << 32) | (line & 0xffffffffL);
+		int lo = 0;
+		int hi = m_count - 1;
+		int result = 0;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			int i = m_byLine[mid];
+			long k = ((long)m_modules[i] << 32) | (m_lines[i] & 0xffffffffL);
+			if (k < key)
+				lo = mid + 1;
+			else if (k > key)
+				hi = mid - 1;
+			else
+			{
+				// keep looking to the left for the first record of this line
+				result = m_offsets[i];
+				hi = mid - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the indices of the records sorted by the given keys.  The sort
+	 * is stable, so records with the same key stay in the order they are in
+	 * now.  The indices are merge sorted as plain ints rather than as boxed
+	 * Integers.
+	 */
+	private int[] sortedIndices(long[] keys)
+	{
+		int[] result = new int[m_count];
+		for (int i = 0; i < m_count; i++)
+			result[i] = i;
+		mergeSort(result, new int[m_count], keys, 0, m_count);
+		return result;
+	}
+
+	private static void mergeSort(int[] indices, int[] scratch, long[] keys, int from, int to)
+	{
+		if (to - from < 2)
+			return;
+		int mid = (from + to) >>> 1;
+		mergeSort(indices, scratch, keys, from, mid);
+		mergeSort(indices, scratch, keys, mid, to);
+
+		// the records usually arrive in order already, in which case the two
+		// halves need no merging
+		if (keys[indices[mid - 1]] <= keys[indices[mid]])
+			return;
+
+		System.arraycopy(indices, from, scratch, from, to - from);
+		int left = from;
+		int right = mid;
+		for (int i = from; i < to; i++)
+		{
+			if (right >= to || (left < mid && keys[scratch[left]] <= keys[scratch[right]]))
+				indices[i] = scratch[left++];
+			else
+				indices[i] = scratch[right++];
+		}
+	}
+
+	private static int[] permute(int[] values, int[] order)
+	{
+		int[] result = new int[order.length];
+		for (int i = 0; i < order.length; i++)
+			result[i] = values[order[i]];
+		return result;
+	}
+}
@@ -224,6 +224,14 @@ public class ThreadSafeIsolateSession extends ThreadSafeDebuggerObject
 		}
 	}
 
+	public Value[] getValues(long[] valueIds) throws NotSuspendedException,
+	NoResponseException, NotConnectedException
+	{
+		synchronized (getSyncObject()) {
+			return ThreadSafeValue.wrapArray(getSyncObject(), fSession.getValues(valueIds));
+		}
+	}
+
 	public Location setBreakpoint(int fileId, int lineNum)
 	throws NoResponseException, NotConnectedException {
 		synchronized (getSyncObject()) {
@@ -29,6 +29,7 @@ import flash.tools.debugger.NotSuspendedException;
 import flash.tools.debugger.PlayerDebugException;
 import flash.tools.debugger.Session;
 import flash.tools.debugger.SourceLocator;
+import flash.tools.debugger.SourceFile;
 import flash.tools.debugger.SuspendedException;
 import flash.tools.debugger.SwfInfo;
 import flash.tools.debugger.Value;
@@ -133,6 +134,18 @@ public class ThreadSafeSession extends ThreadSafeDebuggerObject implements Sessi
 		}
 	}
 
+	public SwfInfo getSwfInfoForSource(int fileId, int isolateId) {
+		synchronized (getSyncObject()) {
+			return ThreadSafeSwfInfo.wrap(getSyncObject(), fSession.getSwfInfoForSource(fileId, isolateId));
+		}
+	}
+
+	public int getOffsetForLine(SourceFile file, int line, int isolateId) {
+		synchronized (getSyncObject()) {
+			return fSession.getOffsetForLine(ThreadSafeSourceFile.getRaw(file), line, isolateId);
+		}
+	}
+
 	public String getURI() {
 		synchronized (getSyncObject()) {
 			return fSession.getURI();
@@ -147,6 +160,14 @@ public class ThreadSafeSession extends ThreadSafeDebuggerObject implements Sessi
 		}
 	}
 
+	public Value[] getValues(long[] valueIds) throws NotSuspendedException,
+			NoResponseException, NotConnectedException
+	{
+		synchronized (getSyncObject()) {
+			return ThreadSafeValue.wrapArray(getSyncObject(), fSession.getValues(valueIds));
+		}
+	}
+
 	/** @deprecated */
 	public Variable[] getVariableList() throws NotSuspendedException,
 			NoResponseException, NotConnectedException, VersionException {
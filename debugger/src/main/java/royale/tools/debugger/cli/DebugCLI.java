@@ -954,7 +954,7 @@ public class DebugCLI implements Runnable, SourceLocator {
 				String funcName = (file == null)
 						? getLocalizationManager().getLocalizedTextString("unknownBreakpointLocation") //$NON-NLS-1$
 						: file.getFunctionNameForLine(m_session, l.getLine());
-				int offset = adjustOffsetForUnitTests((file == null) ? 0 : file.getOffsetForLine(l.getLine()));
+				int offset = adjustOffsetForUnitTests((file == null) ? 0 : m_session.getOffsetForLine(file, l.getLine(), l.getIsolateId()));
 
 				sb.append("0x"); //$NON-NLS-1$
 				FieldFormat.formatLongToHex(sb, offset, 8);
@@ -1745,7 +1745,7 @@ public class DebugCLI implements Runnable, SourceLocator {
 			int hits = b.getHits();
 			String cond = b.getConditionString();
 			boolean silent = b.isSilent();
-			int offset = adjustOffsetForUnitTests((file == null) ? 0 : file.getOffsetForLine(l.getLine()));
+			int offset = adjustOffsetForUnitTests((file == null) ? 0 : m_session.getOffsetForLine(file, l.getLine(), l.getIsolateId()));
 
 			int num = b.getId();
 			FieldFormat.formatLong(sb, num, 3);
@@ -2263,7 +2263,7 @@ public class DebugCLI implements Runnable, SourceLocator {
 		Location l = bp.getLocations().last();
 		int which = bp.getId();
 		String name = l.getFile().getName();
-		int offset = adjustOffsetForUnitTests(l.getFile().getOffsetForLine(l.getLine()));
+		int offset = adjustOffsetForUnitTests(m_session.getOffsetForLine(l.getFile(), l.getLine(), l.getIsolateId()));
 
 		Map<String, Object> args = new HashMap<String, Object>();
 		args.put("breakpointNumber", Integer.toString(which)); //$NON-NLS-1$
@@ -3891,6 +3891,7 @@ public class DebugCLI implements Runnable, SourceLocator {
 		while (!done && proto != null) {
 			Variable[] members = proto.getMembers(m_session);
 			proto = null;
+			obtainMembers(members);
 
 			// see if we find an mc
 			for (int i = 0; i < members.length; i++) {
@@ -3911,7 +3912,30 @@ public class DebugCLI implements Runnable, SourceLocator {
 		}
 	}
 
-	StringBuilder treeResults(StringBuilder sb, List<Object> e, String memName, boolean fullName) {
+	/**
+	 * Ask the player for the members of all of the objects and movieclips
+	 * among the given variables at once, rather than one at a time as each
+	 * of them is traversed.
+	 */
+	void obtainMembers(Variable[] vars) throws NotSuspendedException, NoResponseException, NotConnectedException {
+		List<Long> ids = new ArrayList<Long>();
+		for (int i = 0; i < vars.length; i++) {
+			Value v = vars[i].getValue();
+			if ((v.getType() == VariableType.OBJECT || v.getType() == VariableType.MOVIECLIP) && v.getId() != Value.UNKNOWN_ID)
+				ids.add(v.getId());
+		}
+
+		// a single value gains nothing from being asked for up front
+		if (ids.size() < 2)
+			return;
+
+		long[] idArray = new long[ids.size()];
+		for (int i = 0; i < idArray.length; i++)
+			idArray[i] = ids.get(i);
+		m_session.getWorkerSession(vars[0].getIsolateId()).getValues(idArray);
+	}
+
+		StringBuilder treeResults(StringBuilder sb, List<Object> e, String memName, boolean fullName) {
 		// walk the list
 		Iterator<Object> i = e.iterator();
 		while (i.hasNext()) {
@@ -27,6 +27,7 @@ import flash.swf.tools.Disassembler;
 import flash.swf.types.ActionList;
 import flash.tools.ActionLocation;
 import flash.tools.debugger.Bootstrap;
+import flash.tools.debugger.Location;
 import flash.tools.debugger.NotConnectedException;
 import flash.tools.debugger.PlayerDebugException;
 import flash.tools.debugger.Session;
@@ -355,6 +356,11 @@ public class Extensions
  						throw new SuspendedException();
  
  					SwfInfo swf = fileInfo.getSwfs(isolateId)[which];
+
+ 					// if the swd has been parsed, we may still be able to show the source line
+ 					Location l = ((DSwfInfo)swf).locationForOffset(at);
+ 					if (l != null)
+ 						cli.outputSource(l.getFile().getId(), l.getLine(), l.getFile().getLine(l.getLine()));
  					outputAssembly(cli, (DSwfInfo)swf, at, until);
  					throw new AmbiguousException(getLocalizationManager().getLocalizedTextString("key27")); //$NON-NLS-1$
  				}
@@ -412,7 +418,7 @@ public class Extensions
  				else if (functionNamed)
  				{
  					// if we name a function just dump the whole thing without source.
- 					int offset = file.getOffsetForLine(line1);
+ 					int offset = session.getOffsetForLine(file, line1, cli.getActiveIsolateId());
  					lStart = swf.locate(offset);
  					if (lStart.function == null)
  						cli.err(getLocalizationManager().getLocalizedTextString("key30")); //$NON-NLS-1$
@@ -434,7 +440,7 @@ public class Extensions
  					ActionLocation lastEnd = null;
  					for(int i=line1; i<=line2; i++)
  					{
- 						int offset = file.getOffsetForLine(i);
+ 						int offset = session.getOffsetForLine(file, i, cli.getActiveIsolateId());
  
  						// locate the action list associated with this of the swf
  						if (offset != 0)
@@ -369,7 +369,10 @@ public class FileInfoCache implements Comparator<SourceFile>
 	{
 		// We use the id to determine which swf this source files resides in
 		int id = f.getId();
-		SwfInfo info = null;
+		SwfInfo info = m_session.getSwfInfoForSource(id, isolateId);
+		if (info != null)
+			return info;
+
 		SwfInfo[] swfs = getSwfs(isolateId);//getAllSwfs();
 		for(int i=0; ( i<swfs.length && (info == null) ); i++)
 		{
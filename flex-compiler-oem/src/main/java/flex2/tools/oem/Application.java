@@ -46,6 +46,7 @@ import flash.swf.tags.SetBackgroundColor;
 import flex2.compiler.CompilerException;
 import flex2.compiler.Source;
 import flex2.compiler.SourceList;
+import flex2.compiler.common.CompilerConfiguration;
 import flex2.compiler.io.FileUtil;
 import flex2.compiler.io.LocalFile;
 import flex2.compiler.io.VirtualFile;
@@ -632,7 +633,19 @@ public class Application implements Builder
     
             //Map licenseMap = OEMUtil.getLicenseMap(tempOEMConfiguration.configuration);
     
-            mxmljsc = new MXMLJSC();
+            if (applicationCache != null)
+            {
+                // Keep the workspace, and the libraries it has loaded, between
+                // incremental builds; only the files that changed are invalidated.
+                if (!incremental)
+                    applicationCache.clear();
+                applicationCache.invalidateChangedFiles(getInputPaths(tempOEMConfiguration));
+                mxmljsc = new MXMLJSC(applicationCache.getWorkspace());
+            }
+            else
+            {
+                mxmljsc = new MXMLJSC();
+            }
             mxmljsc.noLink = true;
             //int returnValue = mxmlc.mainCompileOnly(constructCommandLine2(tempOEMConfiguration.configuration), null);
             int returnValue = mxmljsc.mainNoExit(constructCommandLine(oemConfiguration), null, true);
@@ -659,6 +672,32 @@ public class Application implements Builder
         }
     }
 
+    /**
+     * @return The files and directories whose changes an incremental build
+     * has to pick up.
+     */
+    private List<VirtualFile> getInputPaths(OEMConfiguration config)
+    {
+        CompilerConfiguration compilerConfig =
+            ((ApplicationCompilerConfiguration)config.configuration).getCompilerConfiguration();
+        List<VirtualFile> paths = new ArrayList<VirtualFile>(files);
+        addPaths(paths, compilerConfig.getSourcePath());
+        addPaths(paths, compilerConfig.getLibraryPath());
+        addPaths(paths, compilerConfig.getExternalLibraryPath());
+        addPaths(paths, compilerConfig.getIncludeLibraries());
+        addPaths(paths, compilerConfig.getThemeFiles());
+        return paths;
+    }
+
+    private static void addPaths(List<VirtualFile> paths, VirtualFile[] files)
+    {
+        if (files != null)
+        {
+            for (VirtualFile file : files)
+                paths.add(file);
+        }
+    }
+
     public long link(OutputStream output)
     {
         return mxmljsc.writeSWF(output);
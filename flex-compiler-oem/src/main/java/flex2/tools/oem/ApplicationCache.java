@@ -19,6 +19,15 @@
 
 package flex2.tools.oem;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.royale.compiler.internal.workspaces.FileChangeTracker;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
+
+import flex2.compiler.io.VirtualFile;
 
 /**
  * A cache which allows SourceList, SourcePath, and ResourceContainer
@@ -28,14 +37,68 @@ package flex2.tools.oem;
  * calls Builder.clean() after writing out a PersistenceStore cache,
  * ApplicationCache.clear() should not be called.  Otherwise, the
  * benefit of the application cache would be lost.
+ * <p>
+ * The cache keeps the compiler's workspace alive between incremental
+ * builds, so the SWCs, SWFs and file scopes it has already loaded are
+ * reused. Before each incremental build, the files that were added, changed
+ * or removed since the previous build are reported to the workspace, so that
+ * only they, and the compilation units that depend on them, are
+ * invalidated.
  *
  * @since 4.5
  * @author Paul Reilly
  */
 public class ApplicationCache
 {
+    private Workspace workspace;
+
+    /**
+     * Finds the files that changed since the previous build.
+     */
+    private final FileChangeTracker changeTracker = new FileChangeTracker();
+
     public void clear()
     {
-        
+        if (workspace != null)
+        {
+            workspace.close();
+            workspace = null;
+        }
+        changeTracker.clear();
+    }
+
+    /**
+     * @return The workspace shared by the builds that use this cache.
+     */
+    Workspace getWorkspace()
+    {
+        if (workspace == null)
+            workspace = new Workspace();
+        return workspace;
+    }
+
+    /**
+     * Reports the files on the specified paths that were added, changed or
+     * removed since the previous build to the workspace. Directories are
+     * searched recursively.
+     *
+     * @param paths The source path, library path and source list entries
+     * of the build.
+     * @return The number of files that were invalidated.
+     */
+    int invalidateChangedFiles(Collection<VirtualFile> paths)
+    {
+        List<File> roots = new ArrayList<File>();
+        for (VirtualFile path : paths)
+        {
+            if (path != null)
+                roots.add(new File(path.getName()));
+        }
+
+        FileChangeTracker.Changes changes = changeTracker.update(roots);
+        if (workspace == null)
+            return 0;
+        changes.applyTo(workspace);
+        return changes.size();
     }
 }
@@ -29,6 +29,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -118,6 +123,9 @@ public class FORMATTER {
 	private List<File> inputFiles = new ArrayList<File>();
 	private boolean writeBackToInputFiles = false;
 	private boolean listChangedFiles = false;
+	private int threads = 1;
+	private String cacheFile = null;
+	private volatile FormattedDocument lastFormattedDocument;
 	private Configuration configuration;
 	private ConfigurationBuffer configBuffer;
 
@@ -150,22 +158,7 @@ public class FORMATTER {
 						System.out.println(formattedText);
 					}
 				} else {
-					for (File inputFile : inputFiles) {
-						String filePath = FilenameNormalization.normalize(inputFile.getAbsolutePath());
-						String fileText = FileUtils.readFileToString(inputFile, "utf8");
-						String formattedText = formatFileText(filePath, fileText);
-						if (!fileText.equals(formattedText)) {
-							if (listChangedFiles) {
-								System.out.println(filePath);
-							}
-							if (writeBackToInputFiles) {
-								FileUtils.write(inputFile, formattedText, "utf8");
-							}
-						}
-						if (!listChangedFiles && !writeBackToInputFiles) {
-							System.out.println(formattedText);
-						}
-					}
+					formatInputFiles();
 				}
 			} else if (problems.hasFilteredProblems()) {
 				exitCode = ExitCode.FAILED_WITH_CONFIG_PROBLEMS;
@@ -184,6 +177,157 @@ public class FORMATTER {
 		return exitCode.code;
 	}
 
+	private void formatInputFiles() throws Exception {
+		FormatterCache cache = null;
+		if (cacheFile != null) {
+			cache = new FormatterCache(new File(cacheFile), getSettingsHash());
+			cache.load();
+		}
+		final FormatterCache finalCache = cache;
+		List<Callable<FormattedFile>> tasks = new ArrayList<Callable<FormattedFile>>(inputFiles.size());
+		for (final File inputFile : inputFiles) {
+			tasks.add(new Callable<FormattedFile>() {
+				@Override
+				public FormattedFile call() throws IOException {
+					return formatInputFile(inputFile, finalCache);
+				}
+			});
+		}
+		ExecutorService executorService = null;
+		List<Future<FormattedFile>> futures = null;
+		if (threads > 1 && tasks.size() > 1) {
+			executorService = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+			futures = new ArrayList<Future<FormattedFile>>(tasks.size());
+			for (Callable<FormattedFile> task : tasks) {
+				futures.add(executorService.submit(task));
+			}
+		}
+		try {
+			// the results are always handled in the order of the input files,
+			// so the output is the same no matter how many threads are used
+			for (int i = 0; i < tasks.size(); i++) {
+				FormattedFile result = null;
+				if (futures != null) {
+					try {
+						result = futures.get(i).get();
+					} catch (ExecutionException e) {
+						Throwable cause = e.getCause();
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						}
+						throw e;
+					}
+				} else {
+					result = tasks.get(i).call();
+				}
+				boolean formattedOnDisk = !result.changed;
+				if (result.changed) {
+					if (listChangedFiles) {
+						System.out.println(result.filePath);
+					}
+					if (writeBackToInputFiles) {
+						FileUtils.write(result.file, result.formattedText, "utf8");
+						formattedOnDisk = true;
+					}
+				}
+				if (!listChangedFiles && !writeBackToInputFiles) {
+					System.out.println(result.formattedText);
+				}
+				if (cache != null) {
+					// a file that couldn't be parsed is returned unchanged, but
+					// it isn't formatted, so it must not be skipped next time
+					if (formattedOnDisk && !result.hasProblems) {
+						cache.setFormatted(result.filePath, FormatterCache.hash(result.formattedText));
+					} else {
+						cache.remove(result.filePath);
+					}
+				}
+			}
+		} finally {
+			if (executorService != null) {
+				executorService.shutdownNow();
+			}
+		}
+		if (cache != null) {
+			cache.save();
+		}
+	}
+
+	private FormattedFile formatInputFile(File inputFile, FormatterCache cache) throws IOException {
+		String filePath = FilenameNormalization.normalize(inputFile.getAbsolutePath());
+		String fileText = FileUtils.readFileToString(inputFile, "utf8");
+		if (cache != null && cache.isFormatted(filePath, FormatterCache.hash(fileText))) {
+			// already formatted with the same settings, so skip parsing
+			return new FormattedFile(inputFile, filePath, fileText, false, false);
+		}
+		List<ICompilerProblem> fileProblems = new ArrayList<ICompilerProblem>();
+		String formattedText = formatFileText(filePath, fileText, fileProblems);
+		return new FormattedFile(inputFile, filePath, formattedText, !fileText.equals(formattedText),
+				fileProblems.size() > 0);
+	}
+
+	/**
+	 * A hash of every setting that affects the formatted text. Files in the
+	 * cache are formatted again when any of these settings change.
+	 */
+	private String getSettingsHash() {
+		return FormatterCache.hash(VersionInfo.buildMessage() + "," + getSettingsKey());
+	}
+
+	private String getSettingsKey() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(tabSize);
+		builder.append(',').append(insertSpaces);
+		builder.append(',').append(insertFinalNewLine);
+		builder.append(',').append(placeOpenBraceOnNewLine);
+		builder.append(',').append(insertSpaceAfterSemicolonInForStatements);
+		builder.append(',').append(insertSpaceAfterKeywordsInControlFlowStatements);
+		builder.append(',').append(insertSpaceAfterFunctionKeywordForAnonymousFunctions);
+		builder.append(',').append(insertSpaceBeforeAndAfterBinaryOperators);
+		builder.append(',').append(insertSpaceAfterCommaDelimiter);
+		builder.append(',').append(insertSpaceBetweenMetadataAttributes);
+		builder.append(',').append(insertSpaceAtStartOfLineComment);
+		builder.append(',').append(maxPreserveNewLines);
+		builder.append(',').append(semicolons);
+		builder.append(',').append(ignoreProblems);
+		builder.append(',').append(collapseEmptyBlocks);
+		return builder.toString();
+	}
+
+	private static class FormattedDocument {
+		public FormattedDocument(String filePath, String settingsKey, String text, List<ICompilerProblem> problems,
+				List<TextEdit> edits) {
+			this.filePath = filePath;
+			this.settingsKey = settingsKey;
+			this.text = text;
+			this.problems = problems;
+			this.edits = edits;
+		}
+
+		public final String filePath;
+		public final String settingsKey;
+		public final String text;
+		public final List<ICompilerProblem> problems;
+		public final List<TextEdit> edits;
+	}
+
+	private static class FormattedFile {
+		public FormattedFile(File file, String filePath, String formattedText, boolean changed,
+				boolean hasProblems) {
+			this.file = file;
+			this.filePath = filePath;
+			this.formattedText = formattedText;
+			this.changed = changed;
+			this.hasProblems = hasProblems;
+		}
+
+		public final File file;
+		public final String filePath;
+		public final String formattedText;
+		public final boolean changed;
+		public final boolean hasProblems;
+	}
+
 	public String formatFile(File file, Collection<ICompilerProblem> problems) throws IOException {
 		String fileText = FileUtils.readFileToString(file, "utf8");
 		String filePath = file.getAbsolutePath();
@@ -212,6 +356,70 @@ public class FORMATTER {
 		return formatFileText(filePath, text, null);
 	}
 
+	/**
+	 * Formats the text of a file, and returns the edits that format the
+	 * specified range, instead of the whole formatted text. Edits that
+	 * overlap the range are included. The edits are sorted by offset, and
+	 * offsets refer to the original text.
+	 * <p>
+	 * The most recently formatted document is remembered, so formatting
+	 * several ranges of a document that hasn't changed between calls
+	 * formats it only once. The cache is keyed on the exact text of the
+	 * document: any change, even outside the range, causes the whole
+	 * document to be tokenized, parsed and formatted again. Tokens are not
+	 * reused across edits because indentation and blank line handling
+	 * depend on the tokens before and after the range.
+	 */
+	public List<TextEdit> formatFileTextRange(String filePath, String text, int start, int end,
+			Collection<ICompilerProblem> problems) {
+		filePath = FilenameNormalization.normalize(filePath);
+		String settingsKey = getSettingsKey();
+		FormattedDocument document = lastFormattedDocument;
+		if (document == null || !document.filePath.equals(filePath) || !document.settingsKey.equals(settingsKey)
+				|| !document.text.equals(text)) {
+			List<ICompilerProblem> documentProblems = new ArrayList<ICompilerProblem>();
+			String formattedText = formatFileText(filePath, text, documentProblems);
+			document = new FormattedDocument(filePath, settingsKey, text, documentProblems,
+					TextDiff.diff(text, formattedText));
+			lastFormattedDocument = document;
+		}
+		if (problems != null) {
+			problems.addAll(document.problems);
+		}
+		List<TextEdit> result = new ArrayList<TextEdit>();
+		for (TextEdit edit : document.edits) {
+			int editEnd = edit.getOffset() + edit.getLength();
+			if (edit.getOffset() > end) {
+				break;
+			}
+			if (editEnd >= start) {
+				result.add(edit);
+			}
+		}
+		return result;
+	}
+
+	public List<TextEdit> formatFileTextRange(String filePath, String text, int start, int end) {
+		return formatFileTextRange(filePath, text, start, end, null);
+	}
+
+	public List<TextEdit> formatActionScriptTextRange(String text, int start, int end,
+			Collection<ICompilerProblem> problems) {
+		return formatFileTextRange("stdin.as", text, start, end, problems);
+	}
+
+	public List<TextEdit> formatActionScriptTextRange(String text, int start, int end) {
+		return formatActionScriptTextRange(text, start, end, null);
+	}
+
+	public List<TextEdit> formatMXMLTextRange(String text, int start, int end, Collection<ICompilerProblem> problems) {
+		return formatFileTextRange("stdin.mxml", text, start, end, problems);
+	}
+
+	public List<TextEdit> formatMXMLTextRange(String text, int start, int end) {
+		return formatMXMLTextRange(text, start, end, null);
+	}
+
 	public String formatActionScriptText(String text, Collection<ICompilerProblem> problems) {
 		String filePath = FilenameNormalization.normalize("stdin.as");
 		return formatAS3TextInternal(filePath, text, problems);
@@ -322,6 +530,8 @@ public class FORMATTER {
 			semicolons = Semicolons.valueOf(configuration.getSemicolons().toUpperCase());
 			tabSize = configuration.getTabSize();
 			writeBackToInputFiles = configuration.getWriteFiles();
+			threads = configuration.getThreads();
+			cacheFile = configuration.getCacheFile();
 			for (String filePath : configuration.getFiles()) {
 				File inputFile = new File(filePath);
 				if (!inputFile.exists()) {
@@ -0,0 +1,127 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Remembers which files were already formatted, so that they can be skipped
+ * without parsing them. A file is skipped when the hash of its contents
+ * matches the hash recorded when it was last formatted, and the formatter
+ * settings haven't changed since then.
+ * <p>
+ * The cache file starts with a line containing the hash of the formatter
+ * settings, followed by one line for each file, with the hash of its contents
+ * and its path separated by a tab.
+ */
+public class FormatterCache {
+	private final File cacheFile;
+	private final String settingsHash;
+	private final Map<String, String> fileHashes = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * @param cacheFile    The file the cache is stored in.
+	 * @param settingsHash A hash of the formatter settings. If it doesn't match
+	 *                     the one in the cache file, the cache is discarded.
+	 */
+	public FormatterCache(File cacheFile, String settingsHash) {
+		this.cacheFile = cacheFile;
+		this.settingsHash = settingsHash;
+	}
+
+	public static String hash(String text) {
+		return Hashing.sha256().hashString(text, StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * Reads the cache file. A missing or unreadable cache file, or one that was
+	 * written with different settings, leaves the cache empty.
+	 */
+	public void load() {
+		fileHashes.clear();
+		if (!cacheFile.isFile()) {
+			return;
+		}
+		List<String> lines;
+		try {
+			lines = FileUtils.readLines(cacheFile, "utf8");
+		} catch (IOException e) {
+			return;
+		}
+		if (lines.size() == 0 || !settingsHash.equals(lines.get(0))) {
+			return;
+		}
+		for (int i = 1; i < lines.size(); i++) {
+			String line = lines.get(i);
+			int index = line.indexOf('\t');
+			if (index != -1) {
+				fileHashes.put(line.substring(index + 1), line.substring(0, index));
+			}
+		}
+	}
+
+	/**
+	 * Writes the cache file. The files are sorted by path, so that the cache
+	 * file doesn't change when the same files are formatted in a different
+	 * order.
+	 */
+	public void save() throws IOException {
+		List<String> lines = new ArrayList<String>(fileHashes.size() + 1);
+		lines.add(settingsHash);
+		for (Map.Entry<String, String> entry : new TreeMap<String, String>(fileHashes).entrySet()) {
+			lines.add(entry.getValue() + "\t" + entry.getKey());
+		}
+		FileUtils.writeLines(cacheFile, "utf8", lines, "\n");
+	}
+
+	/**
+	 * @return true if the file was formatted with the current settings, and its
+	 *         contents haven't changed since.
+	 */
+	public boolean isFormatted(String filePath, String textHash) {
+		return textHash.equals(fileHashes.get(filePath));
+	}
+
+	/**
+	 * Records that the file has been formatted, and that its formatted contents
+	 * have the specified hash.
+	 */
+	public void setFormatted(String filePath, String textHash) {
+		fileHashes.put(filePath, textHash);
+	}
+
+	/**
+	 * Forgets a file, because its formatted contents were not written.
+	 */
+	public void remove(String filePath) {
+		fileHashes.remove(filePath);
+	}
+}
@@ -0,0 +1,195 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the edits that turn one text into another. Both texts are split
+ * into runs of whitespace and runs of other characters, and the runs are
+ * compared with Myers' difference algorithm. The formatter mostly changes
+ * whitespace, so the number of differences is usually small, and the edits
+ * are found quickly even for large documents.
+ */
+class TextDiff {
+	private static final int MAX_DIFFERENCES = 2000;
+
+	private TextDiff() {
+	}
+
+	public static List<TextEdit> diff(String oldText, String newText) {
+		List<TextEdit> edits = new ArrayList<TextEdit>();
+		if (oldText.equals(newText)) {
+			return edits;
+		}
+
+		// the common prefix and suffix are skipped before splitting into runs
+		int prefix = 0;
+		int maxPrefix = Math.min(oldText.length(), newText.length());
+		while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		int maxSuffix = maxPrefix - prefix;
+		while (suffix < maxSuffix && oldText.charAt(oldText.length() - 1 - suffix) == newText
+				.charAt(newText.length() - 1 - suffix)) {
+			suffix++;
+		}
+
+		int[] oldRuns = splitRuns(oldText, prefix, oldText.length() - suffix);
+		int[] newRuns = splitRuns(newText, prefix, newText.length() - suffix);
+		int oldCount = oldRuns.length - 1;
+		int newCount = newRuns.length - 1;
+
+		// Myers' O(ND) algorithm, keeping the furthest reaching path of each
+		// diagonal for every value of D, so that the path can be traced back.
+		// if there are too many differences, the whole range is replaced
+		// instead, so that the trace doesn't use too much memory.
+		int max = oldCount + newCount;
+		int maxD = Math.min(max, MAX_DIFFERENCES);
+		int[] v = new int[2 * max + 2];
+		List<int[]> trace = new ArrayList<int[]>();
+		int finalD = -1;
+		for (int d = 0; d <= maxD && finalD == -1; d++) {
+			// only the diagonals that can be reached with d - 1 differences
+			// are needed to trace the path back
+			trace.add(Arrays.copyOfRange(v, max - d, max + d + 1));
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && v[max + k - 1] < v[max + k + 1])) {
+					x = v[max + k + 1];
+				} else {
+					x = v[max + k - 1] + 1;
+				}
+				int y = x - k;
+				while (x < oldCount && y < newCount
+						&& runEquals(oldText, oldRuns, x, newText, newRuns, y)) {
+					x++;
+					y++;
+				}
+				v[max + k] = x;
+				if (x >= oldCount && y >= newCount) {
+					finalD = d;
+					break;
+				}
+			}
+		}
+		if (finalD == -1) {
+			edits.add(createEdit(newText, oldRuns, 0, oldCount, newRuns, 0, newCount));
+			return edits;
+		}
+
+		// trace the path back from the end, and merge consecutive insertions
+		// and deletions into a single edit
+		int x = oldCount;
+		int y = newCount;
+		int editOldEnd = -1;
+		int editNewEnd = -1;
+		for (int d = finalD; d >= 0; d--) {
+			// previous[i] is the value of v for the diagonal k = i - d
+			int[] previous = trace.get(d);
+			int k = x - y;
+			int previousK;
+			if (d == 0) {
+				previousK = 0;
+			} else if (k == -d || (k != d && previous[k - 1 + d] < previous[k + 1 + d])) {
+				previousK = k + 1;
+			} else {
+				previousK = k - 1;
+			}
+			int previousX = d == 0 ? 0 : previous[previousK + d];
+			int previousY = previousX - previousK;
+			// the matching runs on the snake
+			while (x > previousX && y > previousY) {
+				if (editOldEnd != -1) {
+					edits.add(createEdit(newText, oldRuns, x, editOldEnd, newRuns, y, editNewEnd));
+					editOldEnd = -1;
+				}
+				x--;
+				y--;
+			}
+			if (d > 0) {
+				if (editOldEnd == -1) {
+					editOldEnd = x;
+					editNewEnd = y;
+				}
+				x = previousX;
+				y = previousY;
+			}
+		}
+		if (editOldEnd != -1) {
+			edits.add(createEdit(newText, oldRuns, x, editOldEnd, newRuns, y, editNewEnd));
+		}
+		// the edits were found from the end to the start
+		List<TextEdit> result = new ArrayList<TextEdit>(edits.size());
+		for (int i = edits.size() - 1; i >= 0; i--) {
+			result.add(edits.get(i));
+		}
+		return result;
+	}
+
+	private static TextEdit createEdit(String newText, int[] oldRuns, int oldStart, int oldEnd, int[] newRuns,
+			int newStart, int newEnd) {
+		int offset = oldRuns[oldStart];
+		int length = oldRuns[oldEnd] - offset;
+		return new TextEdit(offset, length, newText.substring(newRuns[newStart], newRuns[newEnd]));
+	}
+
+	/**
+	 * Returns the start offsets of the runs between the start and end, with
+	 * the end offset appended.
+	 */
+	private static int[] splitRuns(String text, int start, int end) {
+		int[] runs = new int[16];
+		int count = 0;
+		int i = start;
+		while (i < end) {
+			if (count == runs.length) {
+				runs = Arrays.copyOf(runs, count * 2);
+			}
+			runs[count++] = i;
+			boolean whitespace = isWhitespace(text.charAt(i));
+			i++;
+			while (i < end && isWhitespace(text.charAt(i)) == whitespace) {
+				i++;
+			}
+		}
+		runs = Arrays.copyOf(runs, count + 1);
+		runs[count] = end;
+		return runs;
+	}
+
+	private static boolean runEquals(String oldText, int[] oldRuns, int oldIndex, String newText, int[] newRuns,
+			int newIndex) {
+		int oldStart = oldRuns[oldIndex];
+		int length = oldRuns[oldIndex + 1] - oldStart;
+		int newStart = newRuns[newIndex];
+		if (length != newRuns[newIndex + 1] - newStart) {
+			return false;
+		}
+		return oldText.regionMatches(oldStart, newText, newStart, length);
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+}
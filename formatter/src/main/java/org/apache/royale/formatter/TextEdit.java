@@ -0,0 +1,71 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+/**
+ * A change to a document: the text between the offset and the offset plus
+ * the length is replaced with the new text.
+ */
+public class TextEdit {
+	public TextEdit(int offset, int length, String newText) {
+		this.offset = offset;
+		this.length = length;
+		this.newText = newText;
+	}
+
+	private int offset;
+
+	public int getOffset() {
+		return offset;
+	}
+
+	private int length;
+
+	public int getLength() {
+		return length;
+	}
+
+	private String newText;
+
+	public String getNewText() {
+		return newText;
+	}
+
+	/**
+	 * Applies a list of edits, sorted by offset and not overlapping, to the
+	 * original text.
+	 */
+	public static String apply(String text, Iterable<TextEdit> edits) {
+		StringBuilder builder = new StringBuilder();
+		int index = 0;
+		for (TextEdit edit : edits) {
+			builder.append(text, index, edit.offset);
+			builder.append(edit.newText);
+			index = edit.offset + edit.length;
+		}
+		builder.append(text, index, text.length());
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "TextEdit(" + offset + ", " + length + ", \"" + newText + "\")";
+	}
+}
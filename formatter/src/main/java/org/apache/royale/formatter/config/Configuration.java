@@ -454,6 +454,42 @@ public class Configuration {
         this.semicolons = Semicolons.valueOf(b.toUpperCase());
     }
 
+    //
+    // 'threads' option
+    //
+
+    private int threads = 1;
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    @Config(advanced = true)
+    @Mapping("threads")
+    public void setThreads(ConfigurationValue cv, int b)
+    {
+        this.threads = b;
+    }
+
+    //
+    // 'cache-file' option
+    //
+
+    private String cacheFile = null;
+
+    public String getCacheFile()
+    {
+        return cacheFile;
+    }
+
+    @Config(advanced = true)
+    @Mapping("cache-file")
+    public void setCacheFile(ConfigurationValue cv, String b)
+    {
+        this.cacheFile = b;
+    }
+
     //
     // 'ignore-parsing-problems' option
     //
@@ -0,0 +1,115 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.royale.utils.FilenameNormalization;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFormatInputFiles {
+	private static final int FILE_COUNT = 12;
+
+	private File tempDir;
+
+	@Before
+	public void setup() throws Exception {
+		tempDir = File.createTempFile("formatter", "");
+		tempDir.delete();
+		tempDir.mkdir();
+	}
+
+	@After
+	public void teardown() throws Exception {
+		FileUtils.deleteDirectory(tempDir);
+	}
+
+	private List<File> createFiles(String dirName) throws Exception {
+		File dir = new File(tempDir, dirName);
+		dir.mkdir();
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < FILE_COUNT; i++) {
+			File file = new File(dir, "File" + i + ".as");
+			FileUtils.write(file, "var a" + i + ":int=" + i + ";", "utf8");
+			files.add(file);
+		}
+		return files;
+	}
+
+	private int format(List<File> files, String... options) {
+		List<String> args = new ArrayList<String>();
+		args.add("-write-files");
+		for (String option : options) {
+			args.add(option);
+		}
+		for (File file : files) {
+			args.add(file.getAbsolutePath());
+		}
+		return new FORMATTER().execute(args.toArray(new String[0]));
+	}
+
+	private boolean isInCache(File cacheFile, File file) throws Exception {
+		String filePath = FilenameNormalization.normalize(file.getAbsolutePath());
+		for (String line : FileUtils.readLines(cacheFile, "utf8")) {
+			if (line.endsWith("\t" + filePath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testParallelFormatting() throws Exception {
+		List<File> serialFiles = createFiles("serial");
+		List<File> parallelFiles = createFiles("parallel");
+		assertEquals(0, format(serialFiles, "-threads=1"));
+		assertEquals(0, format(parallelFiles, "-threads=4"));
+		for (int i = 0; i < FILE_COUNT; i++) {
+			String parallelText = FileUtils.readFileToString(parallelFiles.get(i), "utf8");
+			assertEquals("var a" + i + ":int = " + i + ";", parallelText);
+			assertEquals(FileUtils.readFileToString(serialFiles.get(i), "utf8"), parallelText);
+		}
+	}
+
+	@Test
+	public void testFileWithProblemsNotCached() throws Exception {
+		List<File> files = createFiles("problems");
+		File invalidFile = files.get(FILE_COUNT / 2);
+		FileUtils.write(invalidFile, "var a:int = ;", "utf8");
+		File cacheFile = new File(tempDir, "formatter.cache");
+		assertEquals(0, format(files, "-threads=4", "-cache-file=" + cacheFile.getAbsolutePath()));
+		assertEquals("var a:int = ;", FileUtils.readFileToString(invalidFile, "utf8"));
+		assertFalse(isInCache(cacheFile, invalidFile));
+		for (File file : files) {
+			if (file != invalidFile) {
+				assertTrue(isInCache(cacheFile, file));
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFormatterCache {
+	private File cacheFile;
+
+	@Before
+	public void setup() throws Exception {
+		cacheFile = File.createTempFile("formatter", ".cache");
+		cacheFile.delete();
+	}
+
+	@After
+	public void teardown() {
+		cacheFile.delete();
+	}
+
+	@Test
+	public void testUnchangedFile() throws Exception {
+		FormatterCache cache = new FormatterCache(cacheFile, "settings");
+		cache.load();
+		cache.setFormatted("/src/A.as", FormatterCache.hash("var a:int;"));
+		cache.save();
+
+		cache = new FormatterCache(cacheFile, "settings");
+		cache.load();
+		assertTrue(cache.isFormatted("/src/A.as", FormatterCache.hash("var a:int;")));
+	}
+
+	@Test
+	public void testChangedFile() throws Exception {
+		FormatterCache cache = new FormatterCache(cacheFile, "settings");
+		cache.load();
+		cache.setFormatted("/src/A.as", FormatterCache.hash("var a:int;"));
+		cache.save();
+
+		cache = new FormatterCache(cacheFile, "settings");
+		cache.load();
+		assertFalse(cache.isFormatted("/src/A.as", FormatterCache.hash("var a:int = 1;")));
+		assertFalse(cache.isFormatted("/src/B.as", FormatterCache.hash("var a:int;")));
+	}
+
+	@Test
+	public void testChangedSettings() throws Exception {
+		FormatterCache cache = new FormatterCache(cacheFile, "settings");
+		cache.load();
+		cache.setFormatted("/src/A.as", FormatterCache.hash("var a:int;"));
+		cache.save();
+
+		cache = new FormatterCache(cacheFile, "other settings");
+		cache.load();
+		assertFalse(cache.isFormatted("/src/A.as", FormatterCache.hash("var a:int;")));
+	}
+}
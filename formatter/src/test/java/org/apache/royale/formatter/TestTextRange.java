@@ -0,0 +1,102 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//  Licensed to the Apache Software Foundation (ASF) under one or more
+//  contributor license agreements.  See the NOTICE file distributed with
+//  this work for additional information regarding copyright ownership.
+//  The ASF licenses this file to You under the Apache License, Version 2.0
+//  (the "License"); you may not use this file except in compliance with
+//  the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.apache.royale.formatter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestTextRange extends BaseFormatterTests {
+	@Test
+	public void testWholeDocument() {
+		FORMATTER formatter = new FORMATTER();
+		formatter.insertSpaceAfterKeywordsInControlFlowStatements = true;
+		formatter.placeOpenBraceOnNewLine = true;
+		formatter.insertSpaces = false;
+		// @formatter:off
+		String text =
+			"if(true)\n" +
+			"{\n" +
+			"}\n" +
+			"if(false)\n" +
+			"{\n" +
+			"}";
+		// @formatter:on
+		List<TextEdit> edits = formatter.formatActionScriptTextRange(text, 0, text.length(), problems);
+		assertEquals(formatter.formatActionScriptText(text, problems), TextEdit.apply(text, edits));
+	}
+
+	@Test
+	public void testRange() {
+		FORMATTER formatter = new FORMATTER();
+		formatter.insertSpaceAfterKeywordsInControlFlowStatements = true;
+		formatter.placeOpenBraceOnNewLine = true;
+		formatter.insertSpaces = false;
+		// @formatter:off
+		String text =
+			"if(true)\n" +
+			"{\n" +
+			"}\n" +
+			"if(false)\n" +
+			"{\n" +
+			"}";
+		// @formatter:on
+		int start = text.indexOf("if(false)");
+		List<TextEdit> edits = formatter.formatActionScriptTextRange(text, start, text.length(), problems);
+		assertEquals(
+		// @formatter:off
+				"if(true)\n" +
+				"{\n" +
+				"}\n" +
+				"if (false)\n" +
+				"{\n" +
+				"}",
+				// @formatter:on
+				TextEdit.apply(text, edits));
+	}
+
+	@Test
+	public void testNoChanges() {
+		FORMATTER formatter = new FORMATTER();
+		formatter.insertSpaceAfterKeywordsInControlFlowStatements = true;
+		formatter.placeOpenBraceOnNewLine = true;
+		formatter.insertSpaces = false;
+		// @formatter:off
+		String text =
+			"if (true)\n" +
+			"{\n" +
+			"}";
+		// @formatter:on
+		List<TextEdit> edits = formatter.formatActionScriptTextRange(text, 0, text.length(), problems);
+		assertEquals(0, edits.size());
+	}
+
+	@Test
+	public void testDiffMinimalEdits() {
+		List<TextEdit> edits = TextDiff.diff("a  b\nc", "a b\n\td");
+		assertEquals(2, edits.size());
+		assertEquals(2, edits.get(0).getOffset());
+		assertEquals(1, edits.get(0).getLength());
+		assertEquals("", edits.get(0).getNewText());
+		assertEquals("a b\n\td", TextEdit.apply("a  b\nc", edits));
+	}
+}
@@ -19,7 +19,9 @@
 
 package org.apache.royale.maven;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.royale.maven.utils.DependencyHelper;
+import org.apache.royale.maven.utils.FingerprintHelper;
 import org.apache.flex.tools.FlexTool;
 import org.apache.flex.tools.FlexToolGroup;
 import org.apache.flex.tools.FlexToolRegistry;
@@ -48,6 +50,12 @@ public abstract class BaseMojo
         extends AbstractMojo
 {
 
+    /**
+     * The argument that tells the compiler to build in a workspace that it
+     * keeps alive between compilations.
+     */
+    private static final String REUSE_WORKSPACE_ARG = "-reuse-workspace";
+
     @Parameter(defaultValue = "${project}", readonly = true)
     protected MavenProject project;
 
@@ -101,6 +109,27 @@ public abstract class BaseMojo
     @Parameter
     private String additionalCompilerOptions = null;
 
+    /**
+     * Skip the compilation if the compiler arguments, the generated config
+     * files, the sources and the libraries haven't changed since the last
+     * successful compilation, and the output is still there.
+     */
+    @Parameter(property = "royale.skipUnchanged", defaultValue = "false")
+    private boolean skipUnchanged;
+
+    /**
+     * Keep the compiler's workspace, with the libraries that it has already
+     * loaded, alive between the goals and modules of a build that run in the
+     * same JVM, such as a multi-module reactor build. Only the compile goals
+     * use it. In a parallel build, every build thread keeps a workspace of
+     * its own.
+     */
+    @Parameter(property = "royale.reuseWorkspace", defaultValue = "false")
+    private boolean reuseWorkspace;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
     @Component
     private ProjectDependenciesResolver projectDependenciesResolver;
 
@@ -379,9 +408,125 @@ public abstract class BaseMojo
         // Get an instance of the compiler and run the build.
         FlexTool tool = toolGroup.getFlexTool(getFlexTool());
         String[] args = getCompilerArgs(configFile).toArray(new String[0]);
+
+        // Skip the build if nothing changed since the last one.
+        File fingerprintFile = null;
+        String fingerprint = null;
+        if(skipUnchanged) {
+            fingerprintFile = new File(outputDirectory, getConfigFileName() + ".fingerprint");
+            fingerprint = getFingerprint(tool, args, configFile, manifestFile);
+            if(FingerprintHelper.isUpToDate(fingerprintFile, fingerprint, getOutput())) {
+                getLog().info("Skipping " + getFlexTool() + ", nothing has changed since the last build of " + getOutput().getPath());
+                return;
+            }
+            fingerprintFile.delete();
+        }
+
+        if(reuseWorkspace && isWorkspaceReuseSupported()) {
+            List<String> argList = new ArrayList<String>(Arrays.asList(args));
+            argList.add(REUSE_WORKSPACE_ARG);
+            args = argList.toArray(new String[0]);
+        }
         getLog().info("Executing " + getFlexTool() + " in tool group " + getToolGroupName() + " with args: " + Arrays.toString(args));
         int exitCode = tool.execute(args);
         handleExitCode(exitCode);
+
+        if(fingerprint != null) {
+            try {
+                FingerprintHelper.write(fingerprintFile, fingerprint, getOutput());
+            } catch (IOException e) {
+                getLog().warn("Could not write " + fingerprintFile.getPath());
+            }
+        }
+    }
+
+    /**
+     * @return a fingerprint of everything the compiler reads, so that the
+     * compilation can be skipped when it hasn't changed.
+     */
+    private String getFingerprint(FlexTool tool, String[] args, File configFile, File manifestFile) throws MojoExecutionException {
+        List<String> values = new ArrayList<String>();
+        values.add(getToolGroupName());
+        values.add(getFlexTool());
+        values.add(pluginVersion);
+        values.addAll(Arrays.asList(args));
+        try {
+            values.add(FileUtils.readFileToString(configFile, "utf8"));
+            values.add(FileUtils.readFileToString(manifestFile, "utf8"));
+            List<File> files = getInputFiles();
+            // the jars of the plugin and the compiler, so that a rebuilt
+            // snapshot of either isn't mistaken for the one that built the
+            // output
+            addIfNotNull(files, FingerprintHelper.getCodeSource(getClass()));
+            addIfNotNull(files, FingerprintHelper.getCodeSource(tool.getClass()));
+            // the config files and other files named by the arguments, such
+            // as the additionalCompilerOptions, other than the generated
+            // config file that was read above
+            for(File file : FingerprintHelper.getReferencedFiles(Arrays.asList(args), project.getBasedir())) {
+                if(!file.getAbsoluteFile().equals(configFile.getAbsoluteFile())) {
+                    files.add(file);
+                }
+            }
+            return FingerprintHelper.getFingerprint(values, files);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error computing the fingerprint of " + configFile.getPath(), e);
+        }
+    }
+
+    /**
+     * @return the files and directories that the compiler reads, besides
+     * the generated config files.
+     */
+    protected List<File> getInputFiles() throws MojoExecutionException {
+        List<File> files = new ArrayList<File>();
+        if(project.getFile() != null) {
+            files.add(project.getFile());
+        }
+        for(String sourcePath : getSourcePaths()) {
+            files.add(new File(sourcePath));
+        }
+        for(Artifact library : getFilteredLibraries()) {
+            if(library.getFile() != null) {
+                files.add(library.getFile());
+            }
+        }
+        for(Namespace namespace : getNamespaces()) {
+            if(namespace.getManifest() != null) {
+                files.add(getProjectFile(namespace.getManifest()));
+            }
+        }
+        if(includeFiles != null) {
+            for(IncludeFile includeFile : includeFiles) {
+                if(includeFile.getPath() != null) {
+                    files.add(getProjectFile(includeFile.getPath()));
+                }
+            }
+        }
+        return files;
+    }
+
+    private static void addIfNotNull(List<File> files, File file) {
+        if(file != null) {
+            files.add(file);
+        }
+    }
+
+    /**
+     * @return true if the tool accepts the argument that tells it to reuse
+     * its workspace. Only the MXMLC and COMPC tools of the Royale tool group
+     * do.
+     */
+    private boolean isWorkspaceReuseSupported() {
+        return "Royale".equals(getToolGroupName()) &&
+                (FlexTool.FLEX_TOOL_MXMLC.equals(getFlexTool()) || FlexTool.FLEX_TOOL_COMPC.equals(getFlexTool()));
+    }
+
+    protected File getProjectFile(String path) {
+        File file = new File(path);
+        if(!file.isAbsolute()) {
+            file = new File(project.getBasedir(), path);
+        }
+        return file;
     }
 
     protected void handleExitCode(int exitCode) throws MojoExecutionException {
@@ -391,6 +536,11 @@ public abstract class BaseMojo
         }
     }
 
+    protected List<Artifact> getFilteredLibraries() throws MojoExecutionException {
+        return getFilteredLibraries(DependencyHelper.getAllLibraries(
+                project, repositorySystemSession, projectDependenciesResolver));
+    }
+
     protected List<Artifact> getFilteredLibraries(List<Artifact> artifacts) {
         List<Artifact> filteredLibraries = new LinkedList<Artifact>();
         if(artifacts != null) {
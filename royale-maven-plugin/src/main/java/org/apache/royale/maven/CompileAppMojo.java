@@ -85,6 +85,15 @@ public class CompileAppMojo
         return context;
     }
 
+    @Override
+    protected List<File> getInputFiles() throws MojoExecutionException {
+        List<File> files = super.getInputFiles();
+        if(htmlTemplate != null) {
+            files.add(getProjectFile(htmlTemplate));
+        }
+        return files;
+    }
+
     @Override
     protected File getOutput() throws MojoExecutionException {
         return new File(outputDirectory, flashOutputFileName);
@@ -30,6 +30,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProjectHelper;
+import org.apache.royale.maven.utils.PlayerglobalManifestHelper;
 
 /**
  * goal which compiles a project into a playerglobal swc library.
@@ -91,7 +92,11 @@ public class CompilePlayerglobalMojo
     @Override
     public void execute() throws MojoExecutionException
     {
-        super.execute();
+        if(!skip() && isUpToDate()) {
+            getLog().info("Playerglobal library is up to date: " + getOutput().getPath());
+        } else {
+            super.execute();
+        }
 
         if(getOutput().exists()) {
             // Add the extern to the artifact.
@@ -99,6 +104,35 @@ public class CompilePlayerglobalMojo
         }
     }
 
+    /**
+     * The library is up to date if it is newer than the manifest that
+     * PLAYERGLOBALC rewrites whenever it changes the generated sources, the
+     * project's pom and the libraries that it is compiled against.
+     */
+    private boolean isUpToDate() throws MojoExecutionException {
+        File output = getOutput();
+        if(!output.exists()) {
+            return false;
+        }
+        String manifestPath = getSourcePath(PlayerglobalManifestHelper.MANIFEST_FILE_NAME);
+        if(manifestPath == null) {
+            return false;
+        }
+        long lastModified = output.lastModified();
+        if(new File(manifestPath).lastModified() > lastModified) {
+            return false;
+        }
+        if(project.getFile() != null && project.getFile().lastModified() > lastModified) {
+            return false;
+        }
+        for(Artifact library : getFilteredLibraries()) {
+            if(library.getFile() == null || library.getFile().lastModified() > lastModified) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected List<Define> getDefines() throws MojoExecutionException {
         List<Define> defines = super.getDefines();
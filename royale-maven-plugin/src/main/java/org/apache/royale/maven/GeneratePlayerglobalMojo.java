@@ -93,6 +93,8 @@ public class GeneratePlayerglobalMojo
             }
         }
 
+        // PLAYERGLOBALC reads its manifest, and only regenerates the sources
+        // of the XML files that changed
         super.execute();
 
         // Add eventually generated source paths to the project.
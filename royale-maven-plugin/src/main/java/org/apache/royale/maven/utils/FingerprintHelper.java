@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.royale.maven.utils;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Computes a fingerprint of the inputs of a compilation: the compiler
+ * arguments, the generated config files, the version of the plugin and the
+ * compiler and the size and modification time of every source file, library
+ * and config file. The fingerprint is saved next to the
+ * config file after a successful compilation, so that the next build can
+ * skip the compilation if none of the inputs changed and the output wasn't
+ * modified since.
+ */
+public class FingerprintHelper {
+
+    /**
+     * Matches the text of an element of a config file.
+     */
+    private static final Pattern ELEMENT_TEXT = Pattern.compile(">\\s*([^<>]+?)\\s*<");
+
+    public static String getFingerprint(Collection<String> values, Collection<File> files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        for(String value : values) {
+            update(digest, value);
+        }
+        for(File file : files) {
+            addFile(digest, file);
+        }
+        byte[] bytes = digest.digest();
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for(byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the jar or directory that the class was loaded from, or null
+     * if it isn't known.
+     */
+    public static File getCodeSource(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        URL location = codeSource != null ? codeSource.getLocation() : null;
+        if(location == null || !"file".equals(location.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(location.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the files named by compiler arguments, such as the config files
+     * loaded with -load-config and the paths of additional options. The
+     * values of an argument are the comma separated parts after its '='.
+     * Values that aren't existing files or directories are ignored, except
+     * for config files, which are also searched for the files they name.
+     *
+     * @param args the compiler arguments.
+     * @param baseDir the directory that relative paths are resolved against.
+     * @return the files, in the order they were found.
+     */
+    public static Set<File> getReferencedFiles(Collection<String> args, File baseDir) {
+        Set<File> files = new LinkedHashSet<File>();
+        for(String arg : args) {
+            int index = arg.indexOf('=');
+            if(index == -1) {
+                if(!arg.startsWith("-")) {
+                    addReferencedFile(files, resolve(arg, baseDir), false);
+                }
+                continue;
+            }
+            String name = arg.substring(0, index);
+            boolean isConfig = name.endsWith("load-config") || name.endsWith("load-config+");
+            for(String value : arg.substring(index + 1).split(",")) {
+                value = value.trim();
+                if(value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if(value.length() > 0) {
+                    addReferencedFile(files, resolve(value, baseDir), isConfig);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static void addReferencedFile(Set<File> files, File file, boolean isConfig) {
+        if(!isConfig && !file.exists()) {
+            return;
+        }
+        if(!files.add(file) || !isConfig || !file.isFile()) {
+            return;
+        }
+        // paths in a config file are relative to the config file
+        String text;
+        try {
+            text = FileUtils.readFileToString(file, "utf8");
+        } catch (IOException e) {
+            return;
+        }
+        Matcher matcher = ELEMENT_TEXT.matcher(text);
+        while(matcher.find()) {
+            File referencedFile = resolve(matcher.group(1), file.getParentFile());
+            addReferencedFile(files, referencedFile, referencedFile.getName().endsWith(".xml"));
+        }
+    }
+
+    private static File resolve(String path, File baseDir) {
+        File file = new File(path);
+        if(!file.isAbsolute() && baseDir != null) {
+            file = new File(baseDir, path);
+        }
+        return file;
+    }
+
+    /**
+     * @return true if the fingerprint file was written for the same
+     * fingerprint, and the output still exists and wasn't modified since.
+     */
+    public static boolean isUpToDate(File fingerprintFile, String fingerprint, File output) {
+        if(!fingerprintFile.isFile() || !output.exists()) {
+            return false;
+        }
+        List<String> lines;
+        try {
+            lines = FileUtils.readLines(fingerprintFile, "utf8");
+        } catch (IOException e) {
+            return false;
+        }
+        return lines.equals(getLines(fingerprint, output));
+    }
+
+    public static void write(File fingerprintFile, String fingerprint, File output) throws IOException {
+        FileUtils.writeLines(fingerprintFile, "utf8", getLines(fingerprint, output), "\n");
+    }
+
+    private static List<String> getLines(String fingerprint, File output) {
+        // the modification time of a directory doesn't change when the
+        // files in it are rewritten, so only an output file is checked
+        String outputLastModified = output.isFile() ? Long.toString(output.lastModified()) : "-";
+        return Arrays.asList(fingerprint, output.getAbsolutePath(), outputLastModified);
+    }
+
+    private static void addFile(MessageDigest digest, File file) {
+        update(digest, file.getAbsolutePath());
+        if(file.isDirectory()) {
+            File[] children = file.listFiles();
+            if(children == null) {
+                return;
+            }
+            List<File> sortedChildren = new ArrayList<File>(Arrays.asList(children));
+            Collections.sort(sortedChildren);
+            for(File child : sortedChildren) {
+                addFile(digest, child);
+            }
+        } else if(file.isFile()) {
+            update(digest, file.length() + ":" + file.lastModified());
+        } else {
+            update(digest, "missing");
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+}